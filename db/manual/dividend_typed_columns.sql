@@ -0,0 +1,62 @@
+-- DIVIDEND 테이블을 문자열 금액 / TIMESTAMP 날짜에서 DECIMAL 금액 / DATE 날짜로 바꾸는 스크립트
+-- 로컬(H2 메모리, ddl-auto: create)에서는 기동할 때마다 새 스키마로 만들어지므로 필요 없고,
+-- 이미 데이터가 쌓인 영구 DB에 애플리케이션을 내린 상태에서 손으로 한 번 실행한다. (Flyway 같은 버전 관리 스크립트가 아니다)
+-- H2 1.4 문법 기준이고, MySQL 8 / PostgreSQL에서 다른 부분은 주석으로 적어 두었다.
+--
+-- 기존 테이블을 고치지 않고 새 테이블을 만들어 옮긴 뒤 바꿔 끼운다.
+-- - 이름 없이 만든 기존 (company_id, date) 유니크 키를 찾아서 지울 필요가 없다. (테이블과 함께 지워진다)
+-- - 중간에 실패해도 기존 DIVIDEND는 그대로 남는다. 원인을 고친 뒤 DIVIDEND_NEW를 지우고 처음부터 다시 실행한다.
+
+-- 1. 숫자로 바꿀 수 없는 금액이 있는지 먼저 확인 (결과가 0건이어야 한다)
+SELECT id, company_id, date, dividend
+FROM DIVIDEND
+WHERE NOT REGEXP_LIKE(TRIM(dividend), '^[0-9]+(\.[0-9]+)?$');
+
+-- DECIMAL(19, 6)에 넣으면 반올림되거나 넘치는 금액이 있는지 확인 (결과가 0건이어야 한다)
+-- 소수점 아래 7번째 자리부터 0이 아닌 숫자가 있거나, 정수 부분이 13자리를 넘는 값
+SELECT id, company_id, date, dividend
+FROM DIVIDEND
+WHERE REGEXP_LIKE(TRIM(dividend), '\.[0-9]{6}[0-9]*[1-9]$')
+   OR REGEXP_LIKE(TRIM(dividend), '^0*[1-9][0-9]{13,}(\.|$)');
+
+-- 같은 날짜에 시간만 다른 행 중 금액이 서로 다른 행 (결과가 0건이어야 한다)
+-- 어느 금액이 맞는지 스크립트가 정할 수 없으므로, 있으면 직접 확인해서 지운 뒤에 진행한다.
+-- (확인하지 않고 진행해도 3번의 INSERT가 유니크 키 위반으로 실패하고 아무것도 바뀌지 않는다)
+SELECT company_id, CAST(date AS DATE) AS dividend_date, COUNT(DISTINCT CAST(TRIM(dividend) AS DECIMAL(19, 6))) AS amounts
+FROM DIVIDEND
+GROUP BY company_id, CAST(date AS DATE)
+HAVING COUNT(DISTINCT CAST(TRIM(dividend) AS DECIMAL(19, 6))) > 1;
+
+-- 2. 바뀐 컬럼 타입으로 새 테이블을 만든다. (DividendEntity와 같은 구조, 유니크 키는 이름을 붙인다)
+-- MySQL : id BIGINT NOT NULL AUTO_INCREMENT
+CREATE TABLE DIVIDEND_NEW (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_id BIGINT,
+    date       DATE,
+    dividend   DECIMAL(19, 6),
+    CONSTRAINT uk_dividend_company_date UNIQUE (company_id, date)
+);
+
+-- 3. 기존 값을 변환해서 옮긴다.
+-- 날짜와 금액이 모두 같은 행(시간만 달랐던 중복)은 id가 가장 작은 행 하나로 합친다.
+-- 금액이 다른 중복은 합치지 않으므로 유니크 키 위반으로 실패한다.
+INSERT INTO DIVIDEND_NEW (id, company_id, date, dividend)
+SELECT MIN(id), company_id, CAST(date AS DATE), CAST(TRIM(dividend) AS DECIMAL(19, 6))
+FROM DIVIDEND
+GROUP BY company_id, CAST(date AS DATE), CAST(TRIM(dividend) AS DECIMAL(19, 6));
+
+-- 옮긴 행 수 확인 (합쳐진 중복만큼 적다)
+SELECT (SELECT COUNT(*) FROM DIVIDEND) AS before_rows, (SELECT COUNT(*) FROM DIVIDEND_NEW) AS after_rows;
+
+-- 4. 테이블을 바꿔 끼우고 여러 회사 기간 조회(배당 캘린더)용 인덱스를 만든다.
+DROP TABLE DIVIDEND;
+ALTER TABLE DIVIDEND_NEW RENAME TO DIVIDEND;
+CREATE INDEX idx_dividend_date_company ON DIVIDEND (date, company_id);
+
+-- 합쳐진 중복이 회사별 배당금 요약에 그대로 세어져 있을 수 있으므로 요약을 지운다.
+-- (요약 행이 없는 회사는 처음 조회할 때 저장된 배당금으로 다시 만든다. 요약 테이블이 아직 없는 DB라면 건너뛴다)
+DELETE FROM DIVIDEND_SUMMARY;
+
+-- id를 직접 넣었으므로 H2 1.4 / MySQL은 가장 큰 id 다음부터 이어서 만든다.
+-- PostgreSQL은 시퀀스를 직접 맞춘다.
+-- SELECT setval(pg_get_serial_sequence('dividend', 'id'), (SELECT MAX(id) FROM dividend));
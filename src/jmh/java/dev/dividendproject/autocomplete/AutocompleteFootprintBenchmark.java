@@ -0,0 +1,113 @@
+package dev.dividendproject.autocomplete;
+
+import org.apache.commons.collections4.Trie;
+import org.apache.commons.collections4.trie.PatriciaTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 전체 상장 종목 규모에서 자동완성 인덱스의 메모리와 조회 시간 비교
+// - patricia : 예전 Trie 빈처럼 PatriciaTrie<String, String>에 회사명/티커를 넣은 경우
+// - trie : TrieAutocompleteIndex (PatriciaTrie + 접두어별 상위 k개)
+// - compact : CompactAutocompleteIndex (힙 밖 direct 버퍼)
+// 메모리는 Setup 시작과 인덱스를 만든 뒤의 힙 사용량(GC 후) 차이와 direct 버퍼 크기를 출력한다.
+// ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AutocompleteFootprintBenchmark {
+    private static final String[] SYLLABLES = {"ka", "co", "la", "re", "al", "ty", "in", "me", "ste", "el",
+            "pro", "cor", "ban", "tech", "gen", "ener", "gy", "hold", "ings", "fin", "an", "cial", "mo", "tor"};
+
+    @Param({"100000", "3000000"})
+    private int names;
+
+    @Param({"patricia", "trie", "compact"})
+    private String backend;
+
+    private AutocompleteIndex index;
+    private Trie<String, String> patricia;
+    private String[] keywords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 원본 목록은 인덱스를 만든 뒤 버리므로, 차이는 인덱스가 붙잡고 있는 메모리 전체 (문자열 포함)
+        long before = usedHeap();
+        Random random = new Random(42);
+        List<AutocompleteEntry> entries = new ArrayList<>(this.names);
+        for (int i = 0; i < this.names; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int s = 0, n = 2 + random.nextInt(4); s < n; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.append(' ').append(Integer.toString(i, 36));
+            entries.add(new AutocompleteEntry(name.toString(), Integer.toString(i * 31 + 7, 36).toUpperCase(), random.nextInt(10_000)));
+        }
+        this.keywords = new String[4096];
+        for (int i = 0; i < this.keywords.length; i++) {
+            String name = entries.get(random.nextInt(this.names)).getName();
+            this.keywords[i] = name.substring(0, 1 + random.nextInt(Math.min(8, name.length())));
+        }
+
+        long offHeap = 0;
+        switch (this.backend) {
+            case "patricia":
+                this.patricia = new PatriciaTrie<>();
+                for (AutocompleteEntry entry : entries) {
+                    this.patricia.put(entry.getName().toLowerCase(), entry.getName());
+                    this.patricia.put(entry.getTicker().toLowerCase(), entry.getName());
+                }
+                break;
+            case "trie":
+                this.index = new TrieAutocompleteIndex(entries, 10);
+                break;
+            default:
+                CompactAutocompleteIndex compact = CompactAutocompleteIndex.build(entries);
+                offHeap = compact.bytes();
+                this.index = compact;
+        }
+        entries = null;
+        long heap = usedHeap() - before;
+        System.out.printf("%nfootprint -> %s, %d names : heap %,d KB, off-heap %,d KB%n",
+                this.backend, this.names, heap / 1024, offHeap / 1024);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        String keyword = this.keywords[ThreadLocalRandom.current().nextInt(this.keywords.length)];
+        if (this.patricia != null) {
+            // 예전 방식 : 접두어에 걸리는 키를 사전순으로 10개
+            List<String> names = new ArrayList<>(10);
+            for (String name : this.patricia.prefixMap(keyword.toLowerCase()).values()) {
+                if (names.size() == 10) {
+                    break;
+                }
+                names.add(name);
+            }
+            return names;
+        }
+        return this.index.suggest(keyword, 10);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
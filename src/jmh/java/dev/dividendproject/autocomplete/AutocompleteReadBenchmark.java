@@ -0,0 +1,144 @@
+package dev.dividendproject.autocomplete;
+
+import org.apache.commons.collections4.Trie;
+import org.apache.commons.collections4.trie.PatriciaTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 쓰기(회사 추가/삭제)가 계속 들어오는 동안의 자동완성 읽기 처리량
+// - snapshot : 읽기는 스냅샷만 보고, 쓰기는 발행 스레드가 묶어서 새 스냅샷으로 교체
+// - locked : 이전처럼 하나의 트라이를 쓰되 읽기/쓰기를 모두 같은 락으로 막은 경우 (비교용)
+// ./gradlew jmh
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AutocompleteReadBenchmark {
+
+    @Param({"5000"})
+    private int companies;
+
+    private List<AutocompleteEntry> entries;
+    private String[] keywords;
+    private ExecutorService publisher;
+    private AutocompleteSnapshots snapshots;
+    private final Object lock = new Object();
+    private LockedIndex locked;
+    private final AtomicInteger written = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.entries = new ArrayList<>(this.companies);
+        this.keywords = new String[1024];
+        for (int i = 0; i < this.companies; i++) {
+            this.entries.add(new AutocompleteEntry("Company " + Integer.toString(i, 36), "T" + i, random.nextInt(1000)));
+        }
+        for (int i = 0; i < this.keywords.length; i++) {
+            String name = this.entries.get(random.nextInt(this.companies)).getName();
+            this.keywords[i] = name.substring(0, 1 + random.nextInt(name.length()));
+        }
+
+        this.publisher = Executors.newSingleThreadExecutor();
+        this.snapshots = new AutocompleteSnapshots(e -> new TrieAutocompleteIndex(e, 10), this.publisher);
+        this.snapshots.replaceAll(() -> this.entries);
+        this.snapshots.flush();
+        this.locked = new LockedIndex(this.entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.publisher.shutdownNow();
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(7)
+    public List<String> snapshotRead() {
+        return this.snapshots.current().suggest(this.keyword(), 10);
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotWrite() {
+        AutocompleteEntry entry = this.nextWrite();
+        this.snapshots.add(entry);
+        this.snapshots.remove(entry.getName());
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(7)
+    public List<String> lockedRead() {
+        String keyword = this.keyword();
+        synchronized (this.lock) {
+            return this.locked.suggest(keyword);
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWrite() {
+        AutocompleteEntry entry = this.nextWrite();
+        synchronized (this.lock) {
+            this.locked.add(entry);
+            this.locked.remove(entry.getName());
+        }
+    }
+
+    private String keyword() {
+        return this.keywords[ThreadLocalRandom.current().nextInt(this.keywords.length)];
+    }
+
+    private AutocompleteEntry nextWrite() {
+        int n = this.written.incrementAndGet();
+        return new AutocompleteEntry("New Company " + n, "N" + n, 0);
+    }
+
+    // 예전 CompanyService의 트라이 사용 방식 (put/remove/prefixMap)
+    private static class LockedIndex {
+        private final Trie<String, String> trie = new PatriciaTrie<>();
+
+        LockedIndex(List<AutocompleteEntry> entries) {
+            entries.forEach(this::add);
+        }
+
+        void add(AutocompleteEntry entry) {
+            this.trie.put(entry.getName(), null);
+        }
+
+        void remove(String name) {
+            this.trie.remove(name);
+        }
+
+        List<String> suggest(String keyword) {
+            List<String> names = new ArrayList<>(10);
+            for (String name : this.trie.prefixMap(keyword).keySet()) {
+                if (names.size() == 10) {
+                    break;
+                }
+                names.add(name);
+            }
+            return names;
+        }
+    }
+}
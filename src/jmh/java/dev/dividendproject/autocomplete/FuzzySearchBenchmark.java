@@ -0,0 +1,77 @@
+package dev.dividendproject.autocomplete;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 오타 허용 검색의 지연 시간 분포 (SampleTime 결과의 p0.99 확인)
+// 검색어는 저장된 회사명에서 글자 하나를 바꾸거나 지우거나, 공백을 빼거나, 중간 단어만 떼어 만든다.
+// MIDDLE_WORD는 짧은 중간 단어(오타 하나 포함)만 검색한다. 많은 회사가 같은 단어를 가져 후보가 가장 많아지는 경우
+// ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzySearchBenchmark {
+    private static final String[] WORDS = {"Coca", "Cola", "Realty", "Income", "Global", "Energy", "Holdings",
+            "Financial", "Motor", "Pharma", "Bank", "Tech", "Industries", "Capital", "Consolidated", "Foods"};
+
+    @Param({"1000", "10000"})
+    private int companies;
+
+    @Param({"MIXED", "MIDDLE_WORD"})
+    private String shape;
+
+    private FuzzySearchIndex index;
+    private String[] keywords;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<AutocompleteEntry> entries = new ArrayList<>(this.companies);
+        for (int i = 0; i < this.companies; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + Integer.toString(i, 36);
+            entries.add(new AutocompleteEntry(name, "T" + Integer.toString(i, 36).toUpperCase(), random.nextInt(1000)));
+        }
+        this.index = new FuzzySearchIndex(entries);
+
+        this.keywords = new String[1024];
+        for (int i = 0; i < this.keywords.length; i++) {
+            String name = entries.get(random.nextInt(this.companies)).getName();
+            int at = random.nextInt(name.length());
+            switch ("MIDDLE_WORD".equals(this.shape) ? 3 + i % 2 : i % 4) {
+                case 0:
+                    this.keywords[i] = name.substring(0, at) + 'x' + name.substring(at + 1); // 오타
+                    break;
+                case 1:
+                    this.keywords[i] = name.substring(0, at) + name.substring(at + 1); // 빠진 글자
+                    break;
+                case 2:
+                    this.keywords[i] = name.replace(" ", ""); // 붙여 쓰기
+                    break;
+                case 3:
+                    this.keywords[i] = name.split(" ")[1]; // 중간 단어
+                    break;
+                default:
+                    String word = name.split(" ")[1].substring(0, 4);
+                    this.keywords[i] = word.substring(0, 2) + 'x' + word.substring(3); // 짧은 중간 단어의 오타
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> search() {
+        return this.index.search(this.keywords[ThreadLocalRandom.current().nextInt(this.keywords.length)], 10);
+    }
+}
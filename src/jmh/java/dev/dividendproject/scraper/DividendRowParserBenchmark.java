@@ -0,0 +1,89 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.constants.Month;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 히스토리 페이지 한 장(월봉 + 분기 배당)의 행 텍스트를 파싱하는 비용 비교
+// ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DividendRowParserBenchmark {
+    private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+    // 상장 기간(년), 60년이면 코카콜라 같은 오래된 종목 한 페이지 분량
+    @Param({"10", "60"})
+    private int years;
+
+    private List<String> rows;
+    private final DividendRowParser parser = new DividendRowParser();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.rows = new ArrayList<>();
+        for (int y = 2023; y > 2023 - this.years; y--) {
+            for (int m = 11; m >= 0; m--) {
+                double open = 10 + random.nextInt(9000) / 100.0;
+                this.rows.add(String.format("%s 01, %d %.2f %.2f %.2f %.2f %.2f %,d",
+                        MONTHS[m], y, open, open + 1.2, open - 0.8, open + 0.3, open + 0.3, random.nextInt(50_000_000)));
+                if (m % 3 == 2) {
+                    this.rows.add(String.format("%s %02d, %d %.2f Dividend", MONTHS[m], 1 + random.nextInt(28), y,
+                            random.nextInt(100) / 100.0 + 0.01));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacySplit(Blackhole bh) {
+        for (String txt : this.rows) {
+            if (!txt.endsWith("Dividend")) {
+                continue;
+            }
+            String[] splits = txt.split(" ");
+            int month = legacyStrToNumber(splits[0]);
+            int day = Integer.valueOf(splits[1].replace(",", ""));
+            int year = Integer.valueOf(splits[2]);
+            bh.consume(LocalDateTime.of(year, month, day, 0, 0));
+            bh.consume(splits[3]);
+        }
+    }
+
+    @Benchmark
+    public void rowParser(Blackhole bh) {
+        for (String txt : this.rows) {
+            Dividend dividend = this.parser.parse(txt);
+            if (dividend != null) {
+                bh.consume(dividend);
+            }
+        }
+    }
+
+    // 예전 Month.strToNumber : values()를 매번 복사해서 순서대로 비교
+    private static int legacyStrToNumber(String s) {
+        int n = 1;
+        for (var m : Month.values()) {
+            if (m.name().equalsIgnoreCase(s)) {
+                return n;
+            }
+            n++;
+        }
+        return -1;
+    }
+}
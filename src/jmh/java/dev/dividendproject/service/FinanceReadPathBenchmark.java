@@ -0,0 +1,139 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.CompanyDividendRow;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.ScrapedResult;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 캐시 미스일 때 getDividendByCompanyName 의 DB 조회 비용 비교
+// - entities   : 회사명으로 CompanyEntity 조회 -> DividendEntity 전체 조회 -> 모델 변환 (읽기/쓰기 트랜잭션)
+// - projection : 회사 + 배당금 조인 한 번을 DTO로 바로 받음 (읽기 전용 트랜잭션)
+// ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FinanceReadPathBenchmark {
+    private static final String TARGET = "Long History Co";
+
+    // 저장된 회사 수 (회사명 조회 비용)
+    @Param({"2000"})
+    private int companies;
+
+    // 조회할 회사의 배당금 수, 240이면 60년 분기 배당
+    @Param({"40", "240"})
+    private int dividends;
+
+    private ConfigurableApplicationContext context;
+    private CompanyRepository companyRepository;
+    private DividendRepository dividendRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("spring.datasource.url=jdbc:h2:mem:finance-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.hibernate.ddl-auto=create")
+                .run();
+        this.companyRepository = this.context.getBean(CompanyRepository.class);
+        this.dividendRepository = this.context.getBean(DividendRepository.class);
+        PlatformTransactionManager tm = this.context.getBean(PlatformTransactionManager.class);
+        this.readWrite = new TransactionTemplate(tm);
+        this.readOnly = new TransactionTemplate(tm);
+        this.readOnly.setReadOnly(true);
+
+        JdbcTemplate jdbc = this.context.getBean(JdbcTemplate.class);
+        List<Object[]> companyRows = new ArrayList<>();
+        for (int i = 0; i < this.companies; i++) {
+            companyRows.add(new Object[]{"T" + i, i == this.companies / 2 ? TARGET : "Company " + i, i % CompanyEntity.SCRAP_SLOTS});
+        }
+        jdbc.batchUpdate("INSERT INTO COMPANY (ticker, name, scrap_slot) VALUES (?, ?, ?)", companyRows);
+
+        Long targetId = jdbc.queryForObject("SELECT id FROM COMPANY WHERE name = ?", Long.class, TARGET);
+        List<Object[]> dividendRows = new ArrayList<>();
+        LocalDate date = LocalDate.of(2023, 12, 14);
+        for (int i = 0; i < this.dividends; i++) {
+            dividendRows.add(new Object[]{targetId, Date.valueOf(date.minusMonths(3L * i)), new BigDecimal("0.46")});
+        }
+        jdbc.batchUpdate("INSERT INTO DIVIDEND (company_id, date, dividend) VALUES (?, ?, ?)", dividendRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public ScrapedResult entities() {
+        return this.readWrite.execute(status -> {
+            CompanyEntity company = this.companyRepository.findByName(TARGET).orElseThrow();
+            List<Dividend> dividends = this.dividendRepository.findAllByCompanyId(company.getId()).stream()
+                    .map(e -> new Dividend(e.getDate().atStartOfDay(), Dividend.normalizeAmount(e.getDividend())))
+                    .collect(Collectors.toList());
+            return new ScrapedResult(new Company(company.getTicker(), company.getName()), dividends);
+        });
+    }
+
+    @Benchmark
+    public ScrapedResult projection() {
+        return this.readOnly.execute(status -> {
+            List<CompanyDividendRow> rows = this.dividendRepository.findDividendRowsByCompanyName(TARGET);
+            List<Dividend> dividends = rows.stream()
+                    .filter(row -> row.getDate() != null)
+                    .map(row -> new Dividend(row.getDate().atStartOfDay(), Dividend.normalizeAmount(row.getDividend())))
+                    .collect(Collectors.toList());
+            return new ScrapedResult(new Company(rows.get(0).getTicker(), rows.get(0).getName()), dividends);
+        });
+    }
+
+    // JPA(H2)만 올리는 최소 설정, 레디스/보안/웹 빈은 띄우지 않는다.
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            RedisAutoConfiguration.class,
+            RedisRepositoriesAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = CompanyEntity.class)
+    @EnableJpaRepositories(basePackageClasses = CompanyRepository.class)
+    static class Config {
+    }
+}
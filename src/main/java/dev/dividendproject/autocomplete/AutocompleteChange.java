@@ -0,0 +1,30 @@
+package dev.dividendproject.autocomplete;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// 다른 인스턴스로 보내는 자동완성 변경 이벤트 (레디스 pub/sub 메시지 본문)
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteChange {
+    public enum Type {
+        ADD, REMOVE
+    }
+
+    private Type type;
+    private String name;
+    private String ticker;  // REMOVE는 null
+    private String origin;  // 보낸 인스턴스 (자기가 보낸 메시지는 이미 반영했으므로 건너뛴다)
+
+    public static AutocompleteChange add(String name, String ticker, String origin) {
+        return new AutocompleteChange(Type.ADD, name, ticker, origin);
+    }
+
+    public static AutocompleteChange remove(String name, String origin) {
+        return new AutocompleteChange(Type.REMOVE, name, null, origin);
+    }
+}
@@ -0,0 +1,139 @@
+package dev.dividendproject.autocomplete;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// 여러 인스턴스의 자동완성 인덱스를 레디스 pub/sub으로 맞춘다.
+// - 회사를 추가/삭제한 인스턴스는 DB에 반영한 뒤 변경 이벤트를 채널로 보내고, 나머지 인스턴스는 받아서 자기 메모리 인덱스에 반영한다.
+// - 이벤트마다 레디스 카운터로 버전을 붙인다. (INCR과 PUBLISH를 한 스크립트로 실행해서 버전 순서대로 전달된다)
+// - pub/sub은 연결이 끊긴 동안의 메시지를 다시 보내주지 않으므로, 버전이 건너뛰었거나
+//   레디스의 버전이 마지막으로 반영한 버전보다 앞서 있으면 DB에서 인덱스를 다시 만든다. (reconcile-interval마다 확인)
+@Slf4j
+@Component
+public class AutocompleteClusterSync {
+    private static final String VERSION_KEY = "autocomplete:version";
+
+    // 버전 증가와 발행을 원자적으로
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('incr', KEYS[1]) redis.call('publish', ARGV[1], v .. '|' .. ARGV[2]) return v",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AutocompleteVersionTracker versions = new AutocompleteVersionTracker(this.nodeId);
+    private final RedisMessageListenerContainer container;
+    private volatile Consumer<AutocompleteChange> handler = change -> { };
+
+    public AutocompleteClusterSync(StringRedisTemplate redisTemplate,
+                                   RedisConnectionFactory redisConnectionFactory,
+                                   ObjectMapper objectMapper,
+                                   @Value("${autocomplete.cluster.enabled}") boolean enabled,
+                                   @Value("${autocomplete.cluster.channel}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.channel = channel;
+        if (!enabled) {
+            this.container = null;
+            return;
+        }
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(redisConnectionFactory);
+        this.container.addMessageListener((message, pattern) ->
+                this.receive(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(channel));
+        this.container.afterPropertiesSet();
+        this.container.start();
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    // 다른 인스턴스에서 온 변경을 받을 곳
+    public void onChange(Consumer<AutocompleteChange> handler) {
+        this.handler = handler;
+    }
+
+    public void publish(AutocompleteChange change) {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            this.redisTemplate.execute(PUBLISH_SCRIPT, Collections.singletonList(VERSION_KEY),
+                    this.channel, this.objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 발행에 실패해도 다른 인스턴스는 다음 DB 재구성 때 따라온다.
+            log.warn("failed to publish autocomplete change -> " + change, e);
+        }
+    }
+
+    // DB에서 인덱스를 다시 만들기 직전의 버전 (이 버전까지의 변경은 DB에 모두 들어가 있다)
+    public long currentVersion() {
+        if (!this.enabled) {
+            return 0;
+        }
+        String version = this.redisTemplate.opsForValue().get(VERSION_KEY);
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    // DB에서 다시 만든 인덱스가 version까지 반영했음을 기록
+    public void markSynced(long version) {
+        this.versions.markSynced(version);
+    }
+
+    // 놓친 변경이 있어서 DB에서 다시 만들어야 하는지
+    public boolean isBehind() {
+        if (!this.enabled) {
+            return false;
+        }
+        try {
+            return this.versions.isBehind(this.currentVersion());
+        } catch (RuntimeException e) {
+            log.warn("failed to read autocomplete version", e);
+            return false;
+        }
+    }
+
+    private void receive(String message) {
+        int separator = message.indexOf('|');
+        long version = Long.parseLong(message.substring(0, separator));
+        AutocompleteChange change = null;
+        try {
+            change = this.objectMapper.readValue(message.substring(separator + 1), AutocompleteChange.class);
+        } catch (JsonProcessingException e) {
+            log.warn("invalid autocomplete change -> " + message, e);
+        }
+        if (this.versions.accept(version, change)) {
+            this.handler.accept(change);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (this.container != null) {
+            this.container.destroy();
+        }
+    }
+}
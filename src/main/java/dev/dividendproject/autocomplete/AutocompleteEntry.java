@@ -0,0 +1,42 @@
+package dev.dividendproject.autocomplete;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// 자동완성 후보 하나 (회사명, 티커로 검색되고 회사명을 돌려준다)
+@Getter
+@ToString
+@AllArgsConstructor
+public class AutocompleteEntry {
+    // 인기 많은 순, 같으면 이름 순
+    public static final Comparator<AutocompleteEntry> RANKING =
+            Comparator.comparingLong(AutocompleteEntry::getPopularity).reversed()
+                    .thenComparing(AutocompleteEntry::getName);
+
+    private final String name;
+    private final String ticker;
+    private final long popularity; // 배당금 조회 횟수
+
+    // 검색 대상 문자열 (소문자 회사명, 티커가 다르면 소문자 티커)
+    public List<String> searchTerms() {
+        List<String> terms = new ArrayList<>(2);
+        terms.add(normalize(this.name));
+        if (this.ticker != null) {
+            String normalized = normalize(this.ticker);
+            if (!terms.contains(normalized)) {
+                terms.add(normalized);
+            }
+        }
+        return terms;
+    }
+
+    public static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package dev.dividendproject.autocomplete;
+
+import java.util.List;
+
+// 자동완성 인덱스, 회사명과 티커의 접두어로 회사명을 인기순으로 찾는다.
+// 구현체는 만든 뒤에 바뀌지 않는다. (변경은 AutocompleteSnapshots가 새 인덱스를 만들어서 통째로 바꾼다)
+public interface AutocompleteIndex {
+
+    List<String> suggest(String keyword, int limit);
+
+    int size();
+}
@@ -0,0 +1,211 @@
+package dev.dividendproject.autocomplete;
+
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.constants.AutocompleteBackend;
+import dev.dividendproject.persist.CompanyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 자동완성은 DB를 조회하지 않고 메모리 인덱스에서만 응답한다.
+// - 기동할 때 저장된 회사 전체로 인덱스를 만든다. (재시작해도 비어있지 않도록)
+// - 인기도(배당금 조회 횟수)는 메모리에 모았다가 주기적으로 DB에 더하고, 그때 인덱스 순위도 다시 계산한다.
+// - 요청 스레드는 현재 스냅샷을 읽기만 하고, 추가/삭제는 AutocompleteSnapshots가 묶어서 새 스냅샷으로 발행한다.
+// - COMPACT는 전체 상장 종목(universe-file)을 기동할 때 한 번만 압축 인덱스로 만들고,
+//   DB의 회사는 그 위에 얹는 작은 인덱스로만 다시 만든다. (OverlayAutocompleteIndex)
+// - 오타 허용 검색(FuzzySearchIndex)도 같은 발행 스레드에서 같은 순서로 고친다.
+// - 여러 인스턴스로 띄우면 추가/삭제를 AutocompleteClusterSync로 다른 인스턴스에 알리고,
+//   놓친 변경이 있으면 reconcile-interval 안에 DB에서 다시 만든다. (조회는 항상 자기 메모리에서)
+@Slf4j
+@Service
+public class AutocompleteService {
+
+    private final CompanyRepository companyRepository;
+    private final AutocompleteClusterSync clusterSync;
+    private final int topK;
+    private final AutocompleteBackend backend;
+    private final String compactFile;
+    private final String universeFile;
+    private final Map<String, LongAdder> pendingHits = new ConcurrentHashMap<>();
+    private final AutocompleteSnapshots snapshots;
+    private final FuzzySearchIndex fuzzySearchIndex = new FuzzySearchIndex(List.of());
+    private volatile CompactAutocompleteIndex base = CompactAutocompleteIndex.build(List.of());
+
+    public AutocompleteService(CompanyRepository companyRepository,
+                               AutocompleteClusterSync clusterSync,
+                               ExecutorService autocompleteExecutor,
+                               @Value("${autocomplete.top-k}") int topK,
+                               @Value("${autocomplete.backend}") AutocompleteBackend backend,
+                               @Value("${autocomplete.compact-file:}") String compactFile,
+                               @Value("${autocomplete.universe-file:}") String universeFile) {
+        this.companyRepository = companyRepository;
+        this.clusterSync = clusterSync;
+        this.topK = topK;
+        this.backend = backend;
+        this.compactFile = compactFile;
+        this.universeFile = universeFile;
+        this.snapshots = new AutocompleteSnapshots(this::newIndex, autocompleteExecutor, this.fuzzySearchIndex);
+        this.clusterSync.onChange(this::apply);
+    }
+
+    public List<String> suggest(String keyword) {
+        return this.snapshots.current().suggest(keyword, this.topK);
+    }
+
+    public List<String> search(String keyword) {
+        return this.fuzzySearchIndex.search(keyword, this.topK);
+    }
+
+    // DB에 저장한 뒤에 호출 (다른 인스턴스가 놓친 변경을 DB에서 다시 읽어 맞추기 때문에)
+    public void add(Company company) {
+        AutocompleteChange change = AutocompleteChange.add(company.getName(), company.getTicker(), this.clusterSync.getNodeId());
+        this.apply(change);
+        this.clusterSync.publish(change);
+    }
+
+    public void remove(String companyName) {
+        AutocompleteChange change = AutocompleteChange.remove(companyName, this.clusterSync.getNodeId());
+        this.apply(change);
+        this.clusterSync.publish(change);
+    }
+
+    private void apply(AutocompleteChange change) {
+        if (change.getType() == AutocompleteChange.Type.ADD) {
+            this.snapshots.add(new AutocompleteEntry(change.getName(), change.getTicker(), 0));
+        } else {
+            this.snapshots.remove(change.getName());
+            this.pendingHits.remove(change.getName());
+        }
+    }
+
+    // 배당금 조회가 성공할 때마다 호출
+    public void recordHit(String companyName) {
+        this.pendingHits.computeIfAbsent(companyName, name -> new LongAdder()).increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (this.backend == AutocompleteBackend.COMPACT) {
+            this.base = this.loadBase();
+        }
+        this.rebuild();
+        this.snapshots.flush(); // 기동이 끝나기 전에 첫 인덱스를 만들어 둔다.
+    }
+
+    // 모아둔 인기도를 DB에 반영하고 인덱스를 새로 만든다.
+    @Scheduled(fixedDelayString = "${autocomplete.rebuild-interval}",
+            initialDelayString = "${autocomplete.rebuild-interval}")
+    public void refresh() {
+        for (String name : List.copyOf(this.pendingHits.keySet())) {
+            LongAdder hits = this.pendingHits.remove(name);
+            if (hits != null && hits.sum() > 0) {
+                this.companyRepository.incrementPopularity(name, hits.sum());
+            }
+        }
+        this.rebuild();
+    }
+
+    // 다른 인스턴스의 변경을 놓쳤다면 DB에서 다시 만든다.
+    @Scheduled(fixedDelayString = "${autocomplete.cluster.reconcile-interval}")
+    public void reconcile() {
+        if (this.clusterSync.isBehind()) {
+            log.info("autocomplete index is behind the cluster, rebuild from database");
+            this.rebuild();
+        }
+    }
+
+    private AutocompleteIndex newIndex(Collection<AutocompleteEntry> entries) {
+        if (this.backend == AutocompleteBackend.TRIE) {
+            return new TrieAutocompleteIndex(entries, this.topK);
+        }
+        return new OverlayAutocompleteIndex(this.base, entries, this.topK);
+    }
+
+    // 전체 종목으로 base 인덱스를 만든다.
+    // compact-file이 universe-file보다 새 것이면 다시 만들지 않고 파일을 메모리 매핑만 한다. (재시작 때 힙을 쓰지 않는다)
+    private CompactAutocompleteIndex loadBase() {
+        Path mapped = this.compactFile.isEmpty() ? null : Path.of(this.compactFile);
+        Path universe = this.universeFile.isEmpty() ? null : Path.of(this.universeFile);
+        try {
+            if (mapped != null && Files.exists(mapped) && (universe == null
+                    || Files.getLastModifiedTime(mapped).compareTo(Files.getLastModifiedTime(universe)) >= 0)) {
+                return CompactAutocompleteIndex.open(mapped);
+            }
+            if (universe == null) {
+                return this.base;
+            }
+            long startedAt = System.currentTimeMillis();
+            CompactAutocompleteIndex index = CompactAutocompleteIndex.build(readUniverse(universe));
+            log.info(String.format("autocomplete universe is loaded -> %d names, %d bytes, %d ms",
+                    index.size(), index.bytes(), System.currentTimeMillis() - startedAt));
+            if (mapped == null) {
+                return index;
+            }
+            index.writeTo(mapped);
+            return CompactAutocompleteIndex.open(mapped);
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to load autocomplete universe -> " + this.universeFile, e);
+            return this.base;
+        }
+    }
+
+    // 한 줄에 "티커,종목명" (헤더 "ticker"는 건너뜀, 종목명에는 쉼표가 있을 수 있다)
+    // 목록은 인덱스를 만드는 동안만 힙에 있다.
+    private static List<AutocompleteEntry> readUniverse(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .map(line -> line.split(",", 2))
+                    .filter(cols -> cols.length == 2 && !cols[0].trim().equalsIgnoreCase("ticker"))
+                    .map(cols -> new AutocompleteEntry(unquote(cols[1]), unquote(cols[0]), 0))
+                    .filter(e -> !e.getName().isEmpty())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"").trim();
+        }
+        return trimmed;
+    }
+
+    // DB는 발행 스레드가 차례가 됐을 때 읽는다. (AutocompleteSnapshots.replaceAll 참고)
+    private void rebuild() {
+        this.snapshots.replaceAll(() -> {
+            long startedAt = System.currentTimeMillis();
+            long version;
+            List<AutocompleteEntry> entries;
+            try {
+                version = this.clusterSync.currentVersion(); // DB를 읽기 전의 버전
+                entries = this.companyRepository.findAll().stream()
+                        .map(c -> new AutocompleteEntry(c.getName(), c.getTicker(), c.getPopularity()))
+                        .collect(Collectors.toList());
+            } catch (RuntimeException e) {
+                log.warn("failed to load companies for autocomplete index", e);
+                return null;
+            }
+            this.clusterSync.markSynced(version);
+            log.info(String.format("autocomplete index is reloaded -> %d companies, %d ms",
+                    entries.size(), System.currentTimeMillis() - startedAt));
+            return entries;
+        });
+    }
+}
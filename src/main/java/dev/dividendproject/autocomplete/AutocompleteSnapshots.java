@@ -0,0 +1,127 @@
+package dev.dividendproject.autocomplete;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 자동완성 인덱스의 스냅샷 관리
+// - 읽기는 현재 스냅샷(불변 인덱스)을 AtomicReference에서 꺼내 쓰기만 하므로 절대 막히지 않는다.
+// - 쓰기(추가/삭제/전체 교체)는 큐에 쌓아두고, 발행 스레드 하나가 쌓인 변경을 한 번에 적용한 새 인덱스를 만들어 교체한다.
+//   인덱스를 만드는 동안 들어온 변경은 다음 묶음으로 처리되므로, 쓰기가 몰려도 재생성 횟수는 늘지 않는다.
+// - 전체 교체는 DB를 미리 읽어 두지 않고 발행 스레드가 차례가 됐을 때 읽는다.
+//   앞서 들어온 변경은 이미 커밋된 뒤라 읽은 목록에 들어 있고, 읽는 도중에 들어온 변경은 그 위에 다시 적용되므로
+//   읽은 목록이 그 사이의 등록/삭제를 덮어쓰지 않는다.
+public class AutocompleteSnapshots {
+
+    private final Function<Collection<AutocompleteEntry>, AutocompleteIndex> indexFactory;
+    private final Executor publisher;
+    private final Listener listener;
+    private final AtomicReference<AutocompleteIndex> current;
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // 발행 스레드만 접근 (publish는 synchronized)
+    private final Map<String, AutocompleteEntry> entries = new HashMap<>();
+
+    public AutocompleteSnapshots(Function<Collection<AutocompleteEntry>, AutocompleteIndex> indexFactory,
+                                 Executor publisher) {
+        this(indexFactory, publisher, null);
+    }
+
+    public AutocompleteSnapshots(Function<Collection<AutocompleteEntry>, AutocompleteIndex> indexFactory,
+                                 Executor publisher,
+                                 Listener listener) {
+        this.indexFactory = indexFactory;
+        this.publisher = publisher;
+        this.listener = listener;
+        this.current = new AtomicReference<>(indexFactory.apply(List.of()));
+    }
+
+    public AutocompleteIndex current() {
+        return this.current.get();
+    }
+
+    public void add(AutocompleteEntry entry) {
+        this.submit(entries -> {
+            entries.put(entry.getName(), entry);
+            if (this.listener != null) {
+                this.listener.add(entry);
+            }
+        });
+    }
+
+    public void remove(String name) {
+        this.submit(entries -> {
+            entries.remove(name);
+            if (this.listener != null) {
+                this.listener.remove(name);
+            }
+        });
+    }
+
+    // loader로 DB에서 다시 읽은 전체 목록으로 교체 (이후에 들어온 추가/삭제는 그 위에 적용된다)
+    // loader는 발행 스레드에서 앞서 들어온 변경을 모두 적용한 다음에 부른다. null을 돌려주면 지금 목록을 그대로 둔다.
+    public void replaceAll(Supplier<Collection<AutocompleteEntry>> loader) {
+        this.submit(entries -> {
+            Collection<AutocompleteEntry> all = loader.get();
+            if (all == null) {
+                return;
+            }
+            entries.clear();
+            all.forEach(e -> entries.put(e.getName(), e));
+            if (this.listener != null) {
+                this.listener.replaceAll(all);
+            }
+        });
+    }
+
+    // 쌓인 변경을 지금 스레드에서 바로 반영 (기동 시 첫 인덱스, 테스트)
+    public void flush() {
+        this.publish();
+    }
+
+    private void submit(Change change) {
+        this.pending.add(change);
+        // 이미 발행이 예약돼 있으면 그 묶음에 같이 실린다.
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.publisher.execute(() -> {
+                this.scheduled.set(false);
+                this.publish();
+            });
+        }
+    }
+
+    private synchronized void publish() {
+        Change change;
+        int applied = 0;
+        while ((change = this.pending.poll()) != null) {
+            change.apply(this.entries);
+            applied++;
+        }
+        if (applied > 0) {
+            this.current.set(this.indexFactory.apply(List.copyOf(this.entries.values())));
+        }
+    }
+
+    // 스냅샷과 같은 순서로 발행 스레드에서 변경을 받아 가는 다른 인덱스 (오타 허용 검색)
+    public interface Listener {
+        void add(AutocompleteEntry entry);
+
+        void remove(String name);
+
+        void replaceAll(Collection<AutocompleteEntry> entries);
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void apply(Map<String, AutocompleteEntry> entries);
+    }
+}
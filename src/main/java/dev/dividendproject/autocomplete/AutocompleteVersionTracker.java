@@ -0,0 +1,53 @@
+package dev.dividendproject.autocomplete;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 다른 인스턴스에서 받은 변경 이벤트의 버전 기록 (AutocompleteClusterSync에서 레디스와 떼어낸 부분)
+// - 이벤트는 버전 순서대로 도착한다. (발행 스크립트가 INCR과 PUBLISH를 같이 실행)
+// - 버전이 건너뛰었거나 본문을 읽을 수 없으면 놓친 것으로 표시하고, DB에서 다시 만들 때까지 표시를 지우지 않는다.
+// - 받기와 재구성 기록이 서로 끼어들지 않도록 모든 메서드를 synchronized로 둔다. (초당 몇 번 호출되는 정도)
+@Slf4j
+class AutocompleteVersionTracker {
+
+    private final String nodeId;
+    private long appliedVersion;
+    private boolean missed;
+
+    AutocompleteVersionTracker(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    // 받은 이벤트를 이 인스턴스의 인덱스에 적용해야 하는지 (change가 null이면 본문을 읽지 못한 이벤트)
+    synchronized boolean accept(long version, AutocompleteChange change) {
+        long previous = this.appliedVersion;
+        if (version <= previous) {
+            return false; // DB 재구성으로 이미 반영된 변경
+        }
+        this.appliedVersion = version;
+        if (version > previous + 1) {
+            log.warn(String.format("autocomplete changes are missed -> %d ~ %d", previous + 1, version - 1));
+            this.missed = true;
+        }
+        if (change == null) {
+            this.missed = true;
+            return false;
+        }
+        // 자기가 보낸 이벤트는 보낼 때 이미 반영했다.
+        return !this.nodeId.equals(change.getOrigin());
+    }
+
+    // DB에서 다시 만든 인덱스가 version까지 반영했음을 기록
+    // 재구성하는 동안 받은 더 뒤의 이벤트는 발행 큐에서 읽은 목록 뒤에 다시 적용되므로 잃어버리지 않는다.
+    // (AutocompleteSnapshots.replaceAll) 다만 그 사이에 건너뛴 버전이 있었다면 DB 목록에도 없을 수 있으므로 표시를 남긴다.
+    synchronized void markSynced(long version) {
+        if (this.appliedVersion <= version) {
+            this.missed = false;
+        }
+        this.appliedVersion = Math.max(this.appliedVersion, version);
+    }
+
+    // 놓친 이벤트가 있거나, 레디스의 최신 버전이 마지막으로 반영한 버전보다 앞서 있는지
+    synchronized boolean isBehind(long latestVersion) {
+        return this.missed || latestVersion > this.appliedVersion;
+    }
+}
@@ -0,0 +1,367 @@
+package dev.dividendproject.autocomplete;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+// 수백만 개의 종목명/티커를 위한 압축 자동완성 인덱스
+// 객체 노드 없이 하나의 ByteBuffer(힙 밖 direct 버퍼 또는 메모리 매핑한 파일)에 아래 구간을 순서대로 담는다.
+// - 검색어 : 소문자 UTF-8 바이트 순으로 정렬하고, 16개씩 블록으로 묶어 앞 검색어와 겹치는 앞부분은 길이만 저장 (front coding)
+// - 검색어별 회사 번호 : 회사는 인기순으로 번호를 매기므로 번호가 작을수록 순위가 높다.
+// - 구간 최소값 표 : 64개 검색어 묶음의 최소 번호 위치를 sparse table로 저장 (묶음 수 * log 묶음 수)
+// - 회사명 : 번호 순으로 UTF-8 바이트를 이어 붙이고 시작 위치만 저장
+// 접두어 검색은 블록 이진 탐색으로 검색어 구간 [lo, hi)를 찾고, 구간 최소값을 우선순위 큐로 쪼개 가며 상위 limit개를 꺼낸다.
+public class CompactAutocompleteIndex implements AutocompleteIndex {
+    private static final int MAGIC = 0x41434d31; // "ACM1"
+    private static final int BLOCK = 16;
+    private static final int CHUNK = 64;
+    private static final int MAX_TERM_BYTES = 255; // 검색어 길이와 겹치는 길이를 1바이트로 저장
+    private static final int HEADER_INTS = 12;
+
+    private final ByteBuffer buffer;
+    private final int termCount;
+    private final int entryCount;
+    private final int blockCount;
+    private final int chunkCount;
+    private final int blockOffsets;
+    private final int termBytes;
+    private final int termEntries;
+    private final int sparse;
+    private final int nameOffsets;
+    private final int nameBytes;
+
+    private CompactAutocompleteIndex(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a compact autocomplete index");
+        }
+        this.buffer = buffer;
+        this.termCount = buffer.getInt(4);
+        this.entryCount = buffer.getInt(8);
+        this.blockCount = buffer.getInt(12);
+        this.chunkCount = buffer.getInt(16);
+        this.blockOffsets = buffer.getInt(20);
+        this.termBytes = buffer.getInt(24);
+        this.termEntries = buffer.getInt(28);
+        this.sparse = buffer.getInt(32);
+        this.nameOffsets = buffer.getInt(36);
+        this.nameBytes = buffer.getInt(40);
+    }
+
+    public static CompactAutocompleteIndex build(Collection<AutocompleteEntry> entries) {
+        // 인기순으로 번호를 매긴다. (같은 회사가 두 번 들어오면 인기 많은 쪽만)
+        List<AutocompleteEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(AutocompleteEntry.RANKING);
+        Map<String, AutocompleteEntry> unique = new LinkedHashMap<>();
+        sorted.forEach(e -> unique.putIfAbsent(e.getName(), e));
+        List<AutocompleteEntry> ranked = new ArrayList<>(unique.values());
+
+        List<Term> terms = new ArrayList<>(ranked.size() * 2);
+        for (int id = 0; id < ranked.size(); id++) {
+            for (String term : ranked.get(id).searchTerms()) {
+                terms.add(new Term(truncate(term.getBytes(StandardCharsets.UTF_8)), id));
+            }
+        }
+        terms.sort(Term.ORDER);
+
+        // 검색어 블록
+        int blockCount = (terms.size() + BLOCK - 1) / BLOCK;
+        int[] blockOffsets = new int[blockCount];
+        ByteArrayOutputStream termOut = new ByteArrayOutputStream();
+        byte[] previous = new byte[0];
+        for (int i = 0; i < terms.size(); i++) {
+            byte[] key = terms.get(i).key;
+            int shared = 0;
+            if (i % BLOCK == 0) {
+                blockOffsets[i / BLOCK] = termOut.size();
+            } else {
+                int max = Math.min(previous.length, key.length);
+                while (shared < max && previous[shared] == key[shared]) {
+                    shared++;
+                }
+            }
+            termOut.write(shared);
+            termOut.write(key.length - shared);
+            termOut.write(key, shared, key.length - shared);
+            previous = key;
+        }
+        byte[] termData = termOut.toByteArray();
+
+        // 구간 최소값 표 : 0단계는 묶음별 최소 위치, j단계는 묶음 c부터 2^j개 묶음의 최소 위치
+        int chunkCount = (terms.size() + CHUNK - 1) / CHUNK;
+        int levels = chunkCount == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(chunkCount);
+        int[] table = new int[levels * chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int best = c * CHUNK;
+            for (int i = best + 1; i < Math.min(terms.size(), (c + 1) * CHUNK); i++) {
+                if (terms.get(i).entry < terms.get(best).entry) {
+                    best = i;
+                }
+            }
+            table[c] = best;
+        }
+        for (int j = 1; j < levels; j++) {
+            for (int c = 0; c + (1 << j) <= chunkCount; c++) {
+                int a = table[(j - 1) * chunkCount + c];
+                int b = table[(j - 1) * chunkCount + c + (1 << (j - 1))];
+                table[j * chunkCount + c] = terms.get(b).entry < terms.get(a).entry ? b : a;
+            }
+        }
+
+        // 회사명
+        int[] nameOffsets = new int[ranked.size() + 1];
+        ByteArrayOutputStream nameOut = new ByteArrayOutputStream();
+        for (int id = 0; id < ranked.size(); id++) {
+            nameOffsets[id] = nameOut.size();
+            byte[] name = ranked.get(id).getName().getBytes(StandardCharsets.UTF_8);
+            nameOut.write(name, 0, name.length);
+        }
+        nameOffsets[ranked.size()] = nameOut.size();
+        byte[] nameData = nameOut.toByteArray();
+
+        int blockOffsetsAt = HEADER_INTS * Integer.BYTES;
+        int termBytesAt = blockOffsetsAt + blockCount * Integer.BYTES;
+        int termEntriesAt = termBytesAt + termData.length;
+        int sparseAt = termEntriesAt + terms.size() * Integer.BYTES;
+        int nameOffsetsAt = sparseAt + table.length * Integer.BYTES;
+        int nameBytesAt = nameOffsetsAt + nameOffsets.length * Integer.BYTES;
+        long size = (long) nameBytesAt + nameData.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("compact autocomplete index is too large -> " + size + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        buffer.putInt(MAGIC).putInt(terms.size()).putInt(ranked.size()).putInt(blockCount).putInt(chunkCount)
+                .putInt(blockOffsetsAt).putInt(termBytesAt).putInt(termEntriesAt).putInt(sparseAt)
+                .putInt(nameOffsetsAt).putInt(nameBytesAt).putInt(levels);
+        for (int offset : blockOffsets) {
+            buffer.putInt(offset);
+        }
+        buffer.put(termData);
+        for (Term term : terms) {
+            buffer.putInt(term.entry);
+        }
+        for (int index : table) {
+            buffer.putInt(index);
+        }
+        for (int offset : nameOffsets) {
+            buffer.putInt(offset);
+        }
+        buffer.put(nameData);
+        buffer.clear();
+        return new CompactAutocompleteIndex(buffer);
+    }
+
+    // 파일을 읽기 전용으로 메모리 매핑 (힙도 direct 메모리도 쓰지 않고 OS 페이지 캐시를 쓴다)
+    public static CompactAutocompleteIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompactAutocompleteIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // 임시 파일에 쓰고 교체하므로 이미 매핑해서 쓰고 있는 이전 파일은 그대로 읽을 수 있다.
+    public void writeTo(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer source = this.buffer.duplicate();
+            source.clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public List<String> suggest(String keyword, int limit) {
+        return this.suggest(keyword, limit, name -> false);
+    }
+
+    // skip에 걸리는 회사는 빼고 그 다음 순위로 limit개를 채운다. (OverlayAutocompleteIndex에서 overlay와 겹치는 회사)
+    public List<String> suggest(String keyword, int limit, Predicate<String> skip) {
+        byte[] prefix = truncate(AutocompleteEntry.normalize(keyword).getBytes(StandardCharsets.UTF_8));
+        if (prefix.length == 0 || limit <= 0 || this.termCount == 0) {
+            return Collections.emptyList();
+        }
+        int lo = this.search(prefix, false);
+        int hi = this.search(prefix, true);
+        if (lo >= hi) {
+            return Collections.emptyList();
+        }
+
+        // 구간의 최소 번호(가장 인기 있는 회사)를 꺼내고 그 양쪽 구간을 다시 넣는다.
+        // 꺼내는 번호는 작아지지 않으므로, 회사명과 티커가 둘 다 맞은 회사는 연달아 나와서 바로 거를 수 있다.
+        PriorityQueue<int[]> queue = new PriorityQueue<>(Comparator.comparingInt(range -> this.entryAt(range[2])));
+        queue.add(new int[]{lo, hi, this.argMin(lo, hi)});
+        List<String> names = new ArrayList<>(Math.min(limit, hi - lo));
+        int last = -1;
+        while (!queue.isEmpty() && names.size() < limit) {
+            int[] range = queue.poll();
+            int at = range[2];
+            int entry = this.entryAt(at);
+            if (entry != last) {
+                String name = this.nameOf(entry);
+                if (!skip.test(name)) {
+                    names.add(name);
+                }
+                last = entry;
+            }
+            if (range[0] < at) {
+                queue.add(new int[]{range[0], at, this.argMin(range[0], at)});
+            }
+            if (at + 1 < range[1]) {
+                queue.add(new int[]{at + 1, range[1], this.argMin(at + 1, range[1])});
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public int size() {
+        return this.entryCount;
+    }
+
+    // 인덱스가 차지하는 바이트 수
+    public int bytes() {
+        return this.buffer.capacity();
+    }
+
+    // 접두어와 비교해서 (upper ? 큰 : 크거나 같은) 첫 검색어 위치
+    private int search(byte[] prefix, boolean upper) {
+        byte[] term = new byte[MAX_TERM_BYTES];
+        // 블록 첫 검색어로 이진 탐색 -> 조건을 만족하는 첫 블록
+        int low = 0;
+        int high = this.blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int length = this.readTerm(this.termBytes + this.buffer.getInt(this.blockOffsets + mid * Integer.BYTES), term, 0);
+            if (matches(term, length, prefix, upper)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        // 답은 바로 앞 블록 안에 있거나 찾은 블록의 첫 검색어
+        int block = low - 1;
+        int position = this.termBytes + this.buffer.getInt(this.blockOffsets + block * Integer.BYTES);
+        int index = block * BLOCK;
+        int end = Math.min(this.termCount, index + BLOCK);
+        int length = 0;
+        for (; index < end; index++) {
+            int shared = this.buffer.get(position) & 0xff;
+            int suffix = this.buffer.get(position + 1) & 0xff;
+            length = this.readTerm(position, term, shared);
+            position += 2 + suffix;
+            if (matches(term, length, prefix, upper)) {
+                return index;
+            }
+        }
+        return end;
+    }
+
+    // position의 검색어를 term에 복원하고 길이를 돌려준다. (앞 shared 바이트는 이미 term에 있는 값을 쓴다)
+    private int readTerm(int position, byte[] term, int shared) {
+        int suffix = this.buffer.get(position + 1) & 0xff;
+        for (int i = 0; i < suffix; i++) {
+            term[shared + i] = this.buffer.get(position + 2 + i);
+        }
+        return shared + suffix;
+    }
+
+    // 검색어를 접두어 길이까지만 잘라서 비교
+    private static boolean matches(byte[] term, int length, byte[] prefix, boolean upper) {
+        int max = Math.min(length, prefix.length);
+        for (int i = 0; i < max; i++) {
+            int diff = (term[i] & 0xff) - (prefix[i] & 0xff);
+            if (diff != 0) {
+                return diff > 0;
+            }
+        }
+        // 접두어로 시작하는 검색어는 같은 값, 접두어보다 짧으면 작은 값
+        return length >= prefix.length && !upper;
+    }
+
+    // [from, to) 구간에서 회사 번호가 가장 작은 검색어 위치
+    private int argMin(int from, int to) {
+        int first = from / CHUNK;
+        int last = (to - 1) / CHUNK;
+        if (last - first <= 1) {
+            return this.scan(from, to);
+        }
+        int best = this.better(this.scan(from, (first + 1) * CHUNK), this.scan(last * CHUNK, to));
+        int chunks = last - first - 1;
+        int level = 31 - Integer.numberOfLeadingZeros(chunks);
+        best = this.better(best, this.sparseAt(level, first + 1));
+        return this.better(best, this.sparseAt(level, last - (1 << level)));
+    }
+
+    private int scan(int from, int to) {
+        int best = from;
+        for (int i = from + 1; i < to; i++) {
+            if (this.entryAt(i) < this.entryAt(best)) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        return this.entryAt(b) < this.entryAt(a) ? b : a;
+    }
+
+    private int sparseAt(int level, int chunk) {
+        return this.buffer.getInt(this.sparse + (level * this.chunkCount + chunk) * Integer.BYTES);
+    }
+
+    private int entryAt(int term) {
+        return this.buffer.getInt(this.termEntries + term * Integer.BYTES);
+    }
+
+    private String nameOf(int entry) {
+        int from = this.buffer.getInt(this.nameOffsets + entry * Integer.BYTES);
+        int to = this.buffer.getInt(this.nameOffsets + (entry + 1) * Integer.BYTES);
+        byte[] name = new byte[to - from];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = this.buffer.get(this.nameBytes + from + i);
+        }
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] truncate(byte[] bytes) {
+        return bytes.length > MAX_TERM_BYTES ? Arrays.copyOf(bytes, MAX_TERM_BYTES) : bytes;
+    }
+
+    private static class Term {
+        static final Comparator<Term> ORDER = (a, b) -> {
+            int diff = Arrays.compareUnsigned(a.key, b.key);
+            return diff != 0 ? diff : Integer.compare(a.entry, b.entry);
+        };
+
+        final byte[] key;
+        final int entry;
+
+        Term(byte[] key, int entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+}
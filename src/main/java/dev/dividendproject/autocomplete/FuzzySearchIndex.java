@@ -0,0 +1,314 @@
+package dev.dividendproject.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 오타를 허용하는 회사 검색 ("Coka Cola", "cocacola", 이름 중간 단어 "Cola")
+// - 회사명(공백/기호 제거), 회사명의 각 단어, 티커를 3글자 조각(trigram)으로 나눠 조각 -> 회사 번호 목록으로 색인
+// - 편집 한 번은 조각을 최대 3개 바꾸므로, 허용 거리 안에 들 수 없을 만큼 겹치는 조각이 적은 회사는 거르고
+//   남은 후보만 편집 거리(상한까지만 계산)로 다시 순위를 매긴다.
+// - 흔한 단어("Cola")는 수천 개 회사와 조각이 모두 겹치므로, 편집 거리는 겹치는 조각이 많은 순(같으면 인기순)으로
+//   limit의 몇 배(CANDIDATES_PER_RESULT)까지만 계산한다. (회사 수가 늘어도 검색 한 번의 편집 거리 계산 횟수가 일정하다)
+// - 회사 추가/삭제는 해당 조각의 번호 배열만 새로 만들어 바꾸고, 검색은 잠금 없이 읽는다.
+//   (삭제 중인 회사는 번호로 못 찾으면 건너뛴다)
+// - 지운 회사의 번호는 다시 쓰므로, 회사를 지우고 다시 넣어도 검색할 때 세는 번호 범위가 늘어나지 않는다.
+//   (검색 도중 번호가 다른 회사에 다시 쓰여도 후보는 편집 거리로 다시 확인하므로 틀린 결과가 나오지 않는다)
+// - 변경은 AutocompleteSnapshots의 발행 스레드가 자동완성 스냅샷과 같은 순서로 넣어준다.
+public class FuzzySearchIndex implements AutocompleteSnapshots.Listener {
+    private static final char PAD = '$';
+    private static final int[] EMPTY = new int[0];
+    // 결과 하나당 편집 거리를 계산할 후보 수 (최소 MIN_CANDIDATES)
+    private static final int CANDIDATES_PER_RESULT = 8;
+    private static final int MIN_CANDIDATES = 64;
+
+    private final Deque<Integer> freeIds = new ArrayDeque<>(); // 지운 회사의 번호 (synchronized 안에서만)
+    private volatile int nextId; // 검색은 잠금 없이 읽는다.
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByName = new ConcurrentHashMap<>();
+    private final Map<String, int[]> postings = new ConcurrentHashMap<>();
+
+    public FuzzySearchIndex(Collection<AutocompleteEntry> entries) {
+        entries.forEach(this::add);
+    }
+
+    @Override
+    public synchronized void add(AutocompleteEntry entry) {
+        this.remove(entry.getName());
+        Integer free = this.freeIds.poll();
+        int id = free != null ? free : this.nextId++;
+        Document document = new Document(entry);
+        this.documents.put(id, document);
+        this.idByName.put(entry.getName(), id);
+        for (String gram : document.grams()) {
+            int[] ids = this.postings.getOrDefault(gram, EMPTY);
+            int[] added = Arrays.copyOf(ids, ids.length + 1);
+            added[ids.length] = id;
+            this.postings.put(gram, added);
+        }
+    }
+
+    @Override
+    public synchronized void remove(String name) {
+        Integer id = this.idByName.remove(name);
+        if (id == null) {
+            return;
+        }
+        Document document = this.documents.remove(id);
+        for (String gram : document.grams()) {
+            int[] ids = this.postings.getOrDefault(gram, EMPTY);
+            int[] removed = Arrays.stream(ids).filter(i -> i != id).toArray();
+            if (removed.length == 0) {
+                this.postings.remove(gram);
+            } else {
+                this.postings.put(gram, removed);
+            }
+        }
+        this.freeIds.push(id);
+    }
+
+    // 저장된 전체 목록에 맞추기 (없어진 회사는 지우고, 새 회사만 색인)
+    // 티커가 그대로면 조각이 같으므로 인기도만 바뀐 회사는 문서만 바꿔 끼운다.
+    @Override
+    public synchronized void replaceAll(Collection<AutocompleteEntry> entries) {
+        Map<String, AutocompleteEntry> byName = new HashMap<>();
+        entries.forEach(e -> byName.put(e.getName(), e));
+        for (String name : List.copyOf(this.idByName.keySet())) {
+            if (!byName.containsKey(name)) {
+                this.remove(name);
+            }
+        }
+        for (AutocompleteEntry entry : byName.values()) {
+            Integer id = this.idByName.get(entry.getName());
+            Document current = id == null ? null : this.documents.get(id);
+            if (current != null && Objects.equals(current.entry.getTicker(), entry.getTicker())) {
+                this.documents.put(id, new Document(entry));
+            } else {
+                this.add(entry);
+            }
+        }
+    }
+
+    public int size() {
+        return this.documents.size();
+    }
+
+    public List<String> search(String keyword, int limit) {
+        String query = compact(keyword);
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // 회사마다 겹치는 조각 수 세기 (번호를 다시 쓰므로 배열 크기는 지금까지 가장 많았던 회사 수)
+        Set<String> grams = grams(query);
+        int[] overlaps = new int[this.nextId];
+        for (String gram : grams) {
+            for (int id : this.postings.getOrDefault(gram, EMPTY)) {
+                if (id < overlaps.length) {
+                    overlaps[id]++;
+                }
+            }
+        }
+
+        // 허용 거리 안에 들 수 있는 후보만 편집 거리로 다시 순위 (거리, 인기, 이름 순)
+        // (앞부분만 비교하는 경우 검색어 끝 조각은 겹치지 않으므로 하나 더 빼준다)
+        int maxDistance = maxDistance(query);
+        int minOverlap = Math.max(1, grams.size() - 3 * maxDistance - 1);
+
+        // 겹치는 조각 수별 회사 수로, 많이 겹치는 쪽부터 후보 수를 넘지 않는 데까지는 모두 후보로 하고(full 이상)
+        // 그 다음 한 단계(full - 1)는 남은 자리만큼 인기순으로 채운다.
+        int maxCandidates = Math.max(MIN_CANDIDATES, limit * CANDIDATES_PER_RESULT);
+        int[] histogram = new int[grams.size() + 1];
+        for (int overlap : overlaps) {
+            if (overlap >= minOverlap) {
+                histogram[overlap]++;
+            }
+        }
+        int full = grams.size() + 1;
+        int taken = 0;
+        while (full - 1 >= minOverlap && taken + histogram[full - 1] <= maxCandidates) {
+            full--;
+            taken += histogram[full];
+        }
+        int partial = full - 1;
+        int remaining = maxCandidates - taken;
+        // 남은 자리만 남기는 힙 (맨 위가 지금까지 남긴 것 중 인기가 가장 적은 회사)
+        PriorityQueue<Document> partials = new PriorityQueue<>(
+                Comparator.comparing((Document d) -> d.entry, AutocompleteEntry.RANKING).reversed());
+
+        // 상위 limit개만 남기는 힙 (맨 위가 지금까지 남긴 것 중 가장 나쁜 결과)
+        PriorityQueue<Match> best = new PriorityQueue<>(Match.ORDER.reversed());
+        for (int id = 0; id < overlaps.length; id++) {
+            if (overlaps[id] < full && overlaps[id] != partial) {
+                continue;
+            }
+            Document document = this.documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            if (overlaps[id] == partial) {
+                if (partial >= minOverlap && remaining > 0) {
+                    partials.add(document);
+                    if (partials.size() > remaining) {
+                        partials.poll();
+                    }
+                }
+                continue;
+            }
+            this.score(document, query, maxDistance, limit, best);
+        }
+        for (Document document : partials) {
+            this.score(document, query, maxDistance, limit, best);
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Match.ORDER);
+        List<String> names = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            names.add(match.entry.getName());
+        }
+        return names;
+    }
+
+    private void score(Document document, String query, int maxDistance, int limit, PriorityQueue<Match> best) {
+        int distance = document.distance(query, maxDistance);
+        if (distance > maxDistance) {
+            return;
+        }
+        best.add(new Match(document.entry, distance));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    // 짧은 검색어일수록 오타를 적게 허용
+    static int maxDistance(String query) {
+        if (query.length() <= 3) {
+            return 0;
+        }
+        return query.length() <= 6 ? 1 : 2;
+    }
+
+    // 소문자로 바꾸고 글자/숫자만 남긴다. ("Coca-Cola" -> "cocacola")
+    static String compact(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        text.toLowerCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(builder::appendCodePoint);
+        return builder.toString();
+    }
+
+    // 앞뒤에 $를 붙인 3글자 조각 ("ko" -> "$ko", "ko$")
+    static Set<String> grams(String term) {
+        String padded = PAD + term + PAD;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // a와 b의 편집 거리, max를 넘으면 계산을 멈추고 max + 1
+    static int distance(CharSequence a, CharSequence b, int max) {
+        return distance(a, b, max, false);
+    }
+
+    // prefix : b가 더 길면 b의 앞부분(a와 같은 길이)과의 거리도 같은 표에서 읽어서 둘 중 작은 값
+    // (표의 a.length()번째 칸이 앞부분과의 거리라서, 앞부분을 잘라 한 번 더 계산하지 않는다)
+    static int distance(CharSequence a, CharSequence b, int max, boolean prefix) {
+        boolean withPrefix = prefix && b.length() > a.length();
+        if (!withPrefix && Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int distance = withPrefix ? Math.min(previous[b.length()], previous[a.length()]) : previous[b.length()];
+        return Math.min(distance, max + 1);
+    }
+
+    // 색인한 회사 하나의 검색 대상 (공백/기호를 뺀 회사명, 회사명의 각 단어, 티커)
+    private static class Document {
+        final AutocompleteEntry entry;
+        final List<String> terms = new ArrayList<>(4);
+
+        Document(AutocompleteEntry entry) {
+            this.entry = entry;
+            this.addTerm(compact(entry.getName()));
+            for (String word : entry.getName().split("[^\\p{L}\\p{N}]+")) {
+                this.addTerm(compact(word));
+            }
+            this.addTerm(compact(entry.getTicker()));
+        }
+
+        private void addTerm(String term) {
+            if (!term.isEmpty() && !this.terms.contains(term)) {
+                this.terms.add(term);
+            }
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new LinkedHashSet<>();
+            this.terms.forEach(term -> grams.addAll(FuzzySearchIndex.grams(term)));
+            return grams;
+        }
+
+        // 검색 대상 중 가장 가까운 거리, 검색어가 짧으면 같은 길이의 앞부분과도 비교 ("coca" -> "cocacola")
+        int distance(String query, int max) {
+            int best = max + 1;
+            for (String term : this.terms) {
+                best = Math.min(best, FuzzySearchIndex.distance(query, term, best - 1, true));
+                if (best == 0) {
+                    break;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static class Match {
+        static final Comparator<Match> ORDER = Comparator.<Match>comparingInt(m -> m.distance)
+                .thenComparing(m -> m.entry, AutocompleteEntry.RANKING);
+
+        final AutocompleteEntry entry;
+        final int distance;
+
+        Match(AutocompleteEntry entry, int distance) {
+            this.entry = entry;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.dividendproject.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// COMPACT 백엔드가 발행하는 인덱스
+// - base : 전체 상장 종목(universe) 파일로 한 번만 만든 압축 인덱스 (힙 밖, 기동 후에는 바뀌지 않는다)
+// - overlay : DB에 저장된 회사(인기도 포함)만 담은 작은 트라이 (추가/삭제 때는 이쪽만 다시 만든다)
+// 같은 회사명이 양쪽에 있으면 overlay 쪽(인기도가 있는 쪽)을 쓰고, 두 결과를 인기순으로 합친다.
+// base의 종목은 인기도가 없으므로(0) 이름 순으로 overlay 결과 뒤에 섞인다.
+public class OverlayAutocompleteIndex implements AutocompleteIndex {
+
+    private final CompactAutocompleteIndex base;
+    private final TrieAutocompleteIndex overlay;
+    private final Map<String, AutocompleteEntry> overlayByName = new HashMap<>();
+
+    public OverlayAutocompleteIndex(CompactAutocompleteIndex base, Collection<AutocompleteEntry> overlay, int topK) {
+        this.base = base;
+        this.overlay = new TrieAutocompleteIndex(overlay, topK);
+        for (AutocompleteEntry entry : overlay) {
+            this.overlayByName.merge(entry.getName(), entry,
+                    (a, b) -> AutocompleteEntry.RANKING.compare(a, b) <= 0 ? a : b);
+        }
+    }
+
+    @Override
+    public List<String> suggest(String keyword, int limit) {
+        List<String> fromOverlay = this.overlay.suggest(keyword, limit);
+        // overlay에 있는 회사는 base 결과에서 건너뛰고 그 다음 순위를 채운다.
+        List<String> fromBase = this.base.suggest(keyword, limit, this.overlayByName::containsKey);
+
+        List<String> names = new ArrayList<>(Math.min(limit, fromOverlay.size() + fromBase.size()));
+        int i = 0;
+        int j = 0;
+        while (names.size() < limit && (i < fromOverlay.size() || j < fromBase.size())) {
+            if (j == fromBase.size()) {
+                names.add(fromOverlay.get(i++));
+            } else if (i == fromOverlay.size()) {
+                names.add(fromBase.get(j++));
+            } else {
+                AutocompleteEntry left = this.overlayByName.get(fromOverlay.get(i));
+                AutocompleteEntry right = new AutocompleteEntry(fromBase.get(j), null, 0);
+                names.add(AutocompleteEntry.RANKING.compare(left, right) <= 0 ? fromOverlay.get(i++) : fromBase.get(j++));
+            }
+        }
+        return names;
+    }
+
+    // base와 overlay에 모두 있는 회사는 두 번 센다.
+    @Override
+    public int size() {
+        return this.base.size() + this.overlay.size();
+    }
+}
@@ -0,0 +1,99 @@
+package dev.dividendproject.autocomplete;
+
+import org.apache.commons.collections4.Trie;
+import org.apache.commons.collections4.trie.PatriciaTrie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// PatriciaTrie 기반 자동완성 인덱스
+// - 키는 소문자로 바꾼 회사명/티커 (+ 구분자 + 회사명, 같은 검색어를 가진 회사가 여러 개일 수 있어서)
+// - 짧은 접두어(키 입력 대부분)는 접두어마다 미리 계산해둔 상위 k개를 바로 돌려준다.
+// - 그보다 긴 접두어는 트라이의 prefixMap으로 후보를 모아서 순위를 매긴다. (후보가 몇 개 안 된다)
+// - 생성자에서만 채우고 이후에는 읽기만 하므로 여러 스레드가 잠금 없이 같이 읽어도 된다.
+public class TrieAutocompleteIndex implements AutocompleteIndex {
+    static final int MAX_PRECOMPUTED_PREFIX = 12;
+    private static final char SEPARATOR = '\u0000';
+
+    private final int topK;
+    private final Trie<String, AutocompleteEntry> trie = new PatriciaTrie<>();
+    private final Map<String, AutocompleteEntry> entries = new HashMap<>();
+    private final Map<String, List<AutocompleteEntry>> topByPrefix = new HashMap<>();
+
+    public TrieAutocompleteIndex(Collection<AutocompleteEntry> entries, int topK) {
+        this.topK = topK;
+        // 인기순으로 넣으면 접두어 목록 뒤에 붙이기만 하면 된다.
+        List<AutocompleteEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(AutocompleteEntry.RANKING);
+        for (AutocompleteEntry entry : sorted) {
+            if (this.entries.putIfAbsent(entry.getName(), entry) != null) {
+                continue; // 같은 회사가 두 번 들어온 경우 인기 많은 쪽만
+            }
+            for (String term : entry.searchTerms()) {
+                this.trie.put(term + SEPARATOR + entry.getName(), entry);
+                for (int len = 1; len <= Math.min(term.length(), MAX_PRECOMPUTED_PREFIX); len++) {
+                    this.offer(term.substring(0, len), entry);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> suggest(String keyword, int limit) {
+        String prefix = AutocompleteEntry.normalize(keyword);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<AutocompleteEntry> ranked = prefix.length() <= MAX_PRECOMPUTED_PREFIX
+                ? this.topByPrefix.getOrDefault(prefix, Collections.emptyList())
+                : this.rank(prefix);
+
+        List<String> names = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && names.size() < limit; i++) {
+            names.add(ranked.get(i).getName());
+        }
+        return names;
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    // 접두어 목록에 순위대로 끼워 넣고 k개까지만 유지
+    private void offer(String prefix, AutocompleteEntry entry) {
+        List<AutocompleteEntry> list = this.topByPrefix.computeIfAbsent(prefix, p -> new ArrayList<>(this.topK));
+        for (AutocompleteEntry e : list) {
+            if (e.getName().equals(entry.getName())) {
+                return; // 회사명과 티커가 같은 접두어를 가진 경우
+            }
+        }
+        int at = list.size();
+        while (at > 0 && AutocompleteEntry.RANKING.compare(entry, list.get(at - 1)) < 0) {
+            at--;
+        }
+        if (at >= this.topK) {
+            return;
+        }
+        list.add(at, entry);
+        if (list.size() > this.topK) {
+            list.remove(list.size() - 1);
+        }
+    }
+
+    // 트라이에서 접두어로 후보를 모아 상위 k개
+    private List<AutocompleteEntry> rank(String prefix) {
+        Map<String, AutocompleteEntry> candidates = new LinkedHashMap<>();
+        for (AutocompleteEntry entry : this.trie.prefixMap(prefix).values()) {
+            candidates.putIfAbsent(entry.getName(), entry);
+        }
+        List<AutocompleteEntry> ranked = new ArrayList<>(candidates.values());
+        ranked.sort(AutocompleteEntry.RANKING);
+        return ranked.size() > this.topK ? new ArrayList<>(ranked.subList(0, this.topK)) : ranked;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.dividendproject.config;
 
 import lombok.RequiredArgsConstructor;
+import dev.dividendproject.model.constants.CacheKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
@@ -10,10 +11,13 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 public class CacheConfig {
@@ -22,6 +26,11 @@ public class CacheConfig {
     private String host;
     @Value("${spring.redis.port}")
     private int port;
+    // 연도별 배당금 캐시는 회사 id로 키를 만들기 때문에, 회사가 삭제되면 남은 항목은 TTL로 정리한다.
+    @Value("${finance.cache.year-ttl}")
+    private Duration yearCacheTtl;
+    @Value("${finance.cache.calendar-ttl}")
+    private Duration calendarCacheTtl;
 
     @Bean
     public CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory){
@@ -31,8 +40,21 @@ public class CacheConfig {
         return RedisCacheManager.RedisCacheManagerBuilder
                 .fromConnectionFactory(redisConnectionFactory)
                 .cacheDefaults(conf)
+                .withCacheConfiguration(CacheKey.KEY_FINANCE_YEAR, conf.entryTtl(this.yearCacheTtl))
+                .withCacheConfiguration(CacheKey.KEY_FINANCE_CALENDAR, conf.entryTtl(this.calendarCacheTtl))
                 .build();
     }
+    // 캐시 항목을 여러 개 한 번에 읽고 쓰기 위한 템플릿 (MGET, 파이프라인)
+    // redisCacheManager와 같은 직렬화 방식을 써서 @Cacheable로 저장된 값과 서로 호환된다.
+    @Bean
+    public RedisTemplate<String, Object> financeCacheTemplate(RedisConnectionFactory redisConnectionFactory){
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        return template;
+    }
+
     // 자바 직렬화 : Serialization : 데이터 or 오브젝트와 같은 값들을 바이트 형태로 변환
 
     // redis 서비스 연결
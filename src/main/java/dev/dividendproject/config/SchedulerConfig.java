@@ -1,11 +1,20 @@
 package dev.dividendproject.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class SchedulerConfig implements SchedulingConfigurer {
     @Override
@@ -18,4 +27,28 @@ public class SchedulerConfig implements SchedulingConfigurer {
 
         taskRegistrar.setTaskScheduler(threadPool);
     }
+
+    // 스크래핑 작업을 나눠서 처리할 워커 풀
+    // 대부분 네트워크 대기(I/O) 시간이라 코어 수보다 많이 잡아도 된다. 요청 속도는 HostRateLimiter가 제한한다.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scrapExecutor(@Value("${scheduler.scrap.workers}") int workers){
+        return Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("scrap-worker-"));
+    }
+
+    // 회사 등록(POST /company) 작업 전용 풀
+    // 대기열 크기를 제한해서 넘치는 요청은 바로 거절한다. (Tomcat 워커가 스크래핑을 기다리지 않도록)
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService onboardingExecutor(@Value("${onboarding.job.workers}") int workers,
+                                              @Value("${onboarding.job.queue-capacity}") int queueCapacity){
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("onboarding-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 자동완성 스냅샷 발행 전용 스레드 (쌓인 변경을 모아서 새 인덱스를 만든다)
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService autocompleteExecutor(){
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("autocomplete-"));
+    }
 }
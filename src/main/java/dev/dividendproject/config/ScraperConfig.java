@@ -0,0 +1,34 @@
+package dev.dividendproject.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ScraperConfig {
+
+    // 스크래퍼가 같이 쓰는 HTTP 클라이언트
+    // 커넥션 풀을 내부에 가지고 있어서 같은 호스트로 가는 요청은 keep-alive 커넥션을 재사용한다.
+    @Bean
+    public HttpClient scraperHttpClient(@Value("${scraper.http.connect-timeout}") Duration connectTimeout){
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // 서버가 지원하지 않으면 HTTP/1.1로 내려간다.
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    // 응답 본문을 읽는 작업(파싱, 캐시 파일 읽기/쓰기) 전용 풀
+    // HttpClient의 완료 스레드에서 막히는 읽기를 하지 않도록 응답이 오면 이 풀로 넘긴다.
+    // (scrapExecutor는 워커가 결과를 join으로 기다리므로 같은 풀을 쓰면 서로 기다리다 멈출 수 있다)
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scraperIoExecutor(@Value("${scraper.io-threads}") int threads){
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("scraper-io-"));
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dividendproject.exception.impl;
+
+import dev.dividendproject.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class AmbiguousCompanyNameException extends AbstractException {
+
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.CONFLICT.value(); // 같은 이름의 회사가 여러 개, 티커로 조회해야 함
+    }
+
+    @Override
+    public String getMessage() {
+        return "같은 이름의 회사가 여러 개 있습니다. 티커로 조회해 주세요.";
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dividendproject.exception.impl;
+
+import dev.dividendproject.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidDividendQueryException extends AbstractException {
+
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.BAD_REQUEST.value(); // 조회 기간 또는 개수가 잘못됨
+    }
+
+    @Override
+    public String getMessage() {
+        return "조회 기간(from, to) 또는 조회 개수(limit)가 올바르지 않습니다.";
+    }
+}
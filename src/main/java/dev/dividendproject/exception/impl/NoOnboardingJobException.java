@@ -0,0 +1,17 @@
+package dev.dividendproject.exception.impl;
+
+import dev.dividendproject.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class NoOnboardingJobException extends AbstractException {
+
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.NOT_FOUND.value();
+    }
+
+    @Override
+    public String getMessage() {
+        return "존재하지 않는 작업입니다.";
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dividendproject.exception.impl;
+
+import dev.dividendproject.exception.AbstractException;
+import org.springframework.http.HttpStatus;
+
+public class OnboardingQueueFullException extends AbstractException {
+
+    @Override
+    public int getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE.value(); // 대기열이 가득 참, 잠시 후 다시 요청
+    }
+
+    @Override
+    public String getMessage() {
+        return "등록 대기 중인 작업이 너무 많습니다. 잠시 후 다시 시도해 주세요.";
+    }
+}
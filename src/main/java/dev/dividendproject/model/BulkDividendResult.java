@@ -0,0 +1,15 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDividendResult { // 여러 회사 배당금 한 번에 조회한 결과
+    private List<ScrapedResult> results; // 요청한 순서대로
+    private List<String> notFound;       // 회사명/티커로 찾지 못한 값
+}
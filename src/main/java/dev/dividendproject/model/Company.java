@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Locale;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +19,12 @@ public class Company {
     private String ticker;
     private String name;
 
+    // 티커는 앞뒤 공백, 대소문자와 상관없이 같은 회사로 본다. (" ko" -> "KO")
+    // 단건 등록, 등록 작업, 일괄 등록이 같은 키로 중복을 확인하도록 티커를 받는 곳은 모두 이 메서드를 거친다.
+    public static String normalizeTicker(String ticker) {
+        return ticker == null ? null : ticker.trim().toUpperCase(Locale.ROOT);
+    }
+
     /*
     * Coffee americano = new Coffee(1, 150, null, false, 1);
     *  =
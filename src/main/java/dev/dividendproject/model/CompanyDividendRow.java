@@ -0,0 +1,19 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// 회사와 배당금을 조인 한 번으로 읽을 때의 한 행 (JPQL 생성자 프로젝션)
+// 엔터티가 아니라서 영속성 컨텍스트에 올라가지 않고, 변경 감지 대상도 아니다.
+@Getter
+@AllArgsConstructor
+public class CompanyDividendRow {
+    private final Long companyId;
+    private final String ticker;
+    private final String name;
+    private final LocalDate date;       // 배당금이 없는 회사면 null
+    private final BigDecimal dividend;
+}
@@ -0,0 +1,20 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyRef { // 기간 조회에서 캐시해두는 회사 정보 (연도별 배당금 캐시의 키를 만들 때 사용)
+    private Long id;
+    private String ticker;
+    private String name;
+    private Integer firstYear; // 배당금이 없으면 null
+    private Integer lastYear;
+
+    public Company toCompany() {
+        return new Company(this.ticker, this.name);
+    }
+}
@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -19,5 +20,12 @@ public class Dividend {
     @JsonSerialize(using = LocalDateTimeSerializer.class)
     @JsonDeserialize(using = LocalDateTimeDeserializer.class)
     private LocalDateTime date;
-    private String dividend;
+    private BigDecimal dividend; // 소수점 자리수를 그대로 유지하는 정확한 금액
+
+    // DB의 DECIMAL(19, 6) 컬럼에서 읽은 금액은 0.460000 처럼 자리수가 고정되므로 뒤쪽 0을 정리한다.
+    // (stripTrailingZeros만 쓰면 10 -> 1E+1 이 되기 때문에 scale은 0 이상으로 맞춘다)
+    public static BigDecimal normalizeAmount(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
 }
@@ -0,0 +1,31 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendAnalytics { // 회사 한 곳의 배당금 분석 결과
+    private String companyName;
+    private LocalDate lastDate;              // 마지막 배당일
+    private BigDecimal trailingTwelveMonths; // 최근 12개월 배당금 합계
+    private BigDecimal cagr;                 // 연평균 성장률(0.05 = 5%), 완전한 연도가 2개 미만이면 null
+    private int cagrYears;                   // CAGR 계산에 사용한 기간(년)
+    private List<YearlyDividend> yearly;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class YearlyDividend {
+        private int year;
+        private BigDecimal total;  // 연간 합계
+        private int count;         // 연간 지급 횟수
+        private BigDecimal growth; // 전년 대비 증가율, 전년 기록이 없으면 null
+    }
+}
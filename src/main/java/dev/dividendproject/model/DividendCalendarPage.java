@@ -0,0 +1,52 @@
+package dev.dividendproject.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendCalendarPage { // 기간 안의 배당 일정 (여러 회사)
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate from;
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate to;
+    private List<DividendEvent> events;
+    private String nextCursor; // "날짜:회사 id", 마지막 페이지면 null
+    private boolean settled;   // 지난 기간이라 더 이상 바뀌지 않는 결과인지
+
+    // 응답의 ETag (SHA-256)
+    // toString()은 필드나 출력 형식이 바뀌면 내용이 같아도 값이 달라지므로, 응답을 이루는 값만 정해진 순서로 해시한다.
+    // 금액은 DividendFingerprint와 같이 0.460 과 0.46 을 같은 값으로 본다.
+    public String etag() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((this.from + "|" + this.to + "|" + this.nextCursor + "\n").getBytes(StandardCharsets.UTF_8));
+            for (DividendEvent event : this.events) {
+                String row = event.getDate() + "|" + event.getCompanyId() + "|" + event.getTicker() + "|"
+                        + event.getCompanyName() + "|" + event.getDividend().stripTrailingZeros().toPlainString() + "\n";
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
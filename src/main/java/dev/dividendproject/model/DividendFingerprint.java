@@ -0,0 +1,37 @@
+package dev.dividendproject.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 스크래핑한 배당금 테이블의 지문(SHA-256)
+// (date, amount) 행을 날짜 순으로 정렬해서 해시하기 때문에 같은 내용이면 행 순서와 상관없이 같은 값이 나온다.
+public final class DividendFingerprint {
+
+    private DividendFingerprint() {
+    }
+
+    public static String of(List<Dividend> dividends) {
+        List<Dividend> sorted = dividends.stream()
+                .sorted(Comparator.comparing(Dividend::getDate))
+                .collect(Collectors.toList());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Dividend dividend : sorted) {
+                // 0.460 과 0.46 은 같은 금액으로 본다.
+                String row = dividend.getDate() + "|" + dividend.getDividend().stripTrailingZeros().toPlainString() + "\n";
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
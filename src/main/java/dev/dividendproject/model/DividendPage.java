@@ -0,0 +1,16 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DividendPage { // 기간/페이지 단위 배당금 조회 결과
+    private Company company;
+    private List<Dividend> dividends;
+    private String nextCursor; // 다음 페이지 요청에 넘길 값, 마지막 페이지면 null
+}
@@ -0,0 +1,128 @@
+package dev.dividendproject.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 배당금 요약 행(DIVIDEND_SUMMARY)의 내용을 다루는 클래스
+// 새로 저장된 배당금만 더해서 갱신하고(apply), 분석 결과는 이 요약만 보고 계산한다(toAnalytics).
+public class DividendSummary {
+    // TTM 계산을 위해 마지막 배당일로부터 보관하는 기간
+    private static final int RECENT_DAYS = 366;
+    private static final int RATE_SCALE = 6;
+
+    private final TreeMap<Integer, BigDecimal> yearlyTotals = new TreeMap<>();
+    private final TreeMap<Integer, Integer> yearlyCounts = new TreeMap<>();
+    private final TreeMap<LocalDate, BigDecimal> recent = new TreeMap<>();
+
+    public static DividendSummary decode(String yearly, String recent) {
+        DividendSummary summary = new DividendSummary();
+        for (String entry : split(yearly)) {
+            // 2023=1.84/4
+            int eq = entry.indexOf('=');
+            int slash = entry.indexOf('/', eq);
+            int year = Integer.parseInt(entry.substring(0, eq));
+            summary.yearlyTotals.put(year, new BigDecimal(entry.substring(eq + 1, slash)));
+            summary.yearlyCounts.put(year, Integer.parseInt(entry.substring(slash + 1)));
+        }
+        for (String entry : split(recent)) {
+            // 2023-03-14=0.46
+            int eq = entry.indexOf('=');
+            summary.recent.put(LocalDate.parse(entry.substring(0, eq)), new BigDecimal(entry.substring(eq + 1)));
+        }
+        return summary;
+    }
+
+    // 새로 저장된 배당금을 요약에 더한다. (이미 반영된 행을 다시 넘기면 두 번 더해지므로 새로 삽입된 행만 넘겨야 한다)
+    public void apply(Collection<Dividend> inserted) {
+        for (Dividend dividend : inserted) {
+            LocalDate date = dividend.getDate().toLocalDate();
+            this.yearlyTotals.merge(date.getYear(), dividend.getDividend(), BigDecimal::add);
+            this.yearlyCounts.merge(date.getYear(), 1, Integer::sum);
+            this.recent.merge(date, dividend.getDividend(), BigDecimal::add);
+        }
+
+        LocalDate lastDate = this.getLastDate();
+        if (lastDate != null) {
+            this.recent.headMap(lastDate.minusDays(RECENT_DAYS), true).clear();
+        }
+    }
+
+    public LocalDate getLastDate() {
+        return this.recent.isEmpty() ? null : this.recent.lastKey();
+    }
+
+    public String encodeYearly() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, BigDecimal> entry : this.yearlyTotals.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(entry.getKey()).append('=')
+                    .append(Dividend.normalizeAmount(entry.getValue()).toPlainString())
+                    .append('/').append(this.yearlyCounts.get(entry.getKey()));
+        }
+        return sb.toString();
+    }
+
+    public String encodeRecent() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<LocalDate, BigDecimal> entry : this.recent.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(entry.getKey()).append('=').append(Dividend.normalizeAmount(entry.getValue()).toPlainString());
+        }
+        return sb.toString();
+    }
+
+    public DividendAnalytics toAnalytics(String companyName, LocalDate today) {
+        // TTM : 오늘 기준 최근 12개월
+        BigDecimal ttm = this.recent.subMap(today.minusYears(1), false, today, true).values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<DividendAnalytics.YearlyDividend> yearly = new ArrayList<>(this.yearlyTotals.size());
+        BigDecimal previous = null;
+        int previousYear = 0;
+        for (Map.Entry<Integer, BigDecimal> entry : this.yearlyTotals.entrySet()) {
+            int year = entry.getKey();
+            BigDecimal total = entry.getValue();
+            BigDecimal growth = previous != null && previousYear == year - 1 ? growth(previous, total) : null;
+            yearly.add(new DividendAnalytics.YearlyDividend(year, Dividend.normalizeAmount(total),
+                    this.yearlyCounts.get(year), growth));
+            previous = total;
+            previousYear = year;
+        }
+
+        // CAGR : 첫 해(중간부터 기록됐을 수 있음)와 올해(진행 중)를 뺀 완전한 연도의 처음과 끝으로 계산
+        BigDecimal cagr = null;
+        int cagrYears = 0;
+        Map.Entry<Integer, BigDecimal> first = this.yearlyTotals.higherEntry(
+                this.yearlyTotals.isEmpty() ? Integer.MAX_VALUE : this.yearlyTotals.firstKey());
+        Map.Entry<Integer, BigDecimal> last = this.yearlyTotals.lowerEntry(today.getYear());
+        if (first != null && last != null && last.getKey() > first.getKey() && first.getValue().signum() > 0) {
+            cagrYears = last.getKey() - first.getKey();
+            double ratio = last.getValue().doubleValue() / first.getValue().doubleValue();
+            cagr = BigDecimal.valueOf(Math.pow(ratio, 1.0 / cagrYears) - 1).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+        }
+
+        return new DividendAnalytics(companyName, this.getLastDate(), Dividend.normalizeAmount(ttm),
+                cagr, cagrYears, yearly);
+    }
+
+    private static BigDecimal growth(BigDecimal previous, BigDecimal current) {
+        if (previous.signum() == 0) {
+            return null;
+        }
+        return current.subtract(previous).divide(previous, RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static String[] split(String encoded) {
+        return encoded == null || encoded.isEmpty() ? new String[0] : encoded.split(";");
+    }
+}
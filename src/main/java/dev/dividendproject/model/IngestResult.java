@@ -0,0 +1,17 @@
+package dev.dividendproject.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestResult { // 배당금 일괄 저장 결과
+    private int inserted; // 새로 저장된 행
+    private int skipped;  // (companyId, date)가 이미 있어서 건너뛴 행
+
+    public IngestResult plus(IngestResult other) {
+        return new IngestResult(this.inserted + other.inserted, this.skipped + other.skipped);
+    }
+}
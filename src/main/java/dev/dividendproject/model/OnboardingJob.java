@@ -0,0 +1,24 @@
+package dev.dividendproject.model;
+
+import dev.dividendproject.model.constants.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 회사 등록 비동기 작업 (레디스에 저장된 상태를 읽은 값, OnboardingJobStore)
+@Getter
+@AllArgsConstructor
+public class OnboardingJob {
+    private final String id;
+    private final String ticker;
+    private final JobStatus status;
+    private final Company company;
+    private final String message;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime finishedAt;
+
+    public boolean isFinished() {
+        return this.status == JobStatus.SUCCEEDED || this.status == JobStatus.FAILED;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.dividendproject.model;
+
+import dev.dividendproject.model.constants.OnboardingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingResult { // 티커 하나의 등록 결과
+    private String ticker;
+    private OnboardingStatus status;
+    private Company company;
+    private int dividends; // 저장된 배당금 수
+    private String message;
+
+    public static OnboardingResult created(Company company, int dividends) {
+        return new OnboardingResult(company.getTicker(), OnboardingStatus.CREATED, company, dividends, null);
+    }
+
+    public static OnboardingResult alreadyExists(String ticker) {
+        return new OnboardingResult(ticker, OnboardingStatus.ALREADY_EXISTS, null, 0, "already exists ticker -> " + ticker);
+    }
+
+    public static OnboardingResult failed(String ticker, String message) {
+        return new OnboardingResult(ticker, OnboardingStatus.FAILED, null, 0, message);
+    }
+}
@@ -0,0 +1,6 @@
+package dev.dividendproject.model.constants;
+
+public enum AutocompleteBackend {
+    TRIE,    // PatriciaTrie + 접두어별 상위 k개 (회사 수가 적을 때 가장 빠르다)
+    COMPACT; // 전체 종목은 정렬된 검색어를 압축한 배열 + DB의 회사는 작은 트라이 (수백만 개의 종목명/티커도 힙을 거의 쓰지 않는다)
+}
@@ -2,4 +2,9 @@ package dev.dividendproject.model.constants;
 
 public class CacheKey {
     public static final String KEY_FINANCE = "finance";
+    // 기간 조회용 캐시 : 회사명 -> CompanyRef, "회사 id:연도" -> 그 해의 배당금 목록
+    public static final String KEY_FINANCE_COMPANY = "finance-company";
+    public static final String KEY_FINANCE_YEAR = "finance-year";
+    // 확정된(지난) 기간의 배당 캘린더 페이지
+    public static final String KEY_FINANCE_CALENDAR = "finance-calendar";
 }
@@ -0,0 +1,6 @@
+package dev.dividendproject.model.constants;
+
+public enum ExtractionMode {
+    DOM,    // Jsoup으로 페이지 전체를 Document로 만든 뒤 탐색
+    STREAM; // 응답을 받는 대로 토큰 단위로 읽으면서 배당금 행만 뽑아냄
+}
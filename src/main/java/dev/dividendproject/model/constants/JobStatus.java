@@ -0,0 +1,8 @@
+package dev.dividendproject.model.constants;
+
+public enum JobStatus {
+    PENDING,   // 큐에서 대기 중
+    RUNNING,   // 스크래핑/저장 중
+    SUCCEEDED,
+    FAILED;
+}
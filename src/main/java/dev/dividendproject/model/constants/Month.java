@@ -18,17 +18,48 @@ public enum Month {
     private String s;
     private int number;
 
+    // 약어 세 글자(대문자 + 소문자 2개)를 인덱스로 바꾼 룩업 테이블, values()를 매번 돌지 않고 바로 찾는다.
+    private static final int ALPHABET = 26;
+    private static final Month[] BY_ABBREVIATION = new Month[ALPHABET * ALPHABET * ALPHABET];
+
+    static {
+        for (var m : Month.values()) {
+            BY_ABBREVIATION[index(m.s.charAt(0), m.s.charAt(1), m.s.charAt(2))] = m;
+        }
+    }
+
     Month(String s, int n){
         this.s = s;
         this.number = n;
     }
 
     public static int strToNumber(String s){
-        for(var m : Month.values()) {
-            if(m.s.equals(s)){
-                return m.number;
-            }
+        if (s.length() != 3) {
+            return -1;
+        }
+        return strToNumber(s, 0);
+    }
+
+    // 문자열을 새로 만들지 않고 offset 위치의 세 글자로 월을 찾는다.
+    public static int strToNumber(CharSequence s, int offset){
+        if (offset < 0 || offset + 3 > s.length()) {
+            return -1;
+        }
+        int index = index(s.charAt(offset), s.charAt(offset + 1), s.charAt(offset + 2));
+        if (index < 0) {
+            return -1;
+        }
+        Month m = BY_ABBREVIATION[index];
+        return m == null ? -1 : m.number;
+    }
+
+    private static int index(char c0, char c1, char c2) {
+        int i0 = c0 - 'A';
+        int i1 = c1 - 'a';
+        int i2 = c2 - 'a';
+        if (i0 < 0 || i0 >= ALPHABET || i1 < 0 || i1 >= ALPHABET || i2 < 0 || i2 >= ALPHABET) {
+            return -1;
         }
-        return -1;
+        return (i0 * ALPHABET + i1) * ALPHABET + i2;
     }
-}
+}
\ No newline at end of file
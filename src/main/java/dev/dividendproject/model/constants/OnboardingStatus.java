@@ -0,0 +1,7 @@
+package dev.dividendproject.model.constants;
+
+public enum OnboardingStatus {
+    CREATED,        // 회사와 배당금 저장 완료
+    ALREADY_EXISTS, // 이미 저장된 티커
+    FAILED;         // 스크래핑 또는 저장 실패
+}
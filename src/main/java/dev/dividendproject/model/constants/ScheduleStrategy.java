@@ -0,0 +1,6 @@
+package dev.dividendproject.model.constants;
+
+public enum ScheduleStrategy {
+    CRON,    // 정해진 시각(scheduler.scrap.yahoo)에 전체 회사를 한 번에 스크래핑
+    ROLLING; // 회사마다 고정된 슬롯을 두고 window 동안 나눠서 스크래핑
+}
@@ -0,0 +1,6 @@
+package dev.dividendproject.model.constants;
+
+public enum ScrapMode {
+    INCREMENTAL, // 마지막으로 저장된 배당금 날짜 이후만 스크래핑
+    BACKFILL;    // 전체 히스토리를 다시 스크래핑
+}
@@ -1,11 +1,16 @@
 package dev.dividendproject.persist;
 
 import dev.dividendproject.persist.entity.CompanyEntity;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,7 +24,37 @@ public interface CompanyRepository extends JpaRepository<CompanyEntity, Long> {
 
     Optional<CompanyEntity> findByTicker(String ticker);
 
-    Page<CompanyEntity> findByNameStartingWithIgnoreCase(String s, Pageable pageable);
+    // 회사명 또는 티커 목록으로 한 번에 조회
+    @Query("select c from COMPANY c where c.name in :keys or c.ticker in :keys")
+    List<CompanyEntity> findAllByNameOrTickerIn(@Param("keys") Collection<String> keys);
+
+    // 스케줄러가 회사를 id 순서대로 일정 개수씩 나눠서 읽는다. (offset 없이 마지막 id 다음부터)
+    List<CompanyEntity> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+
+    // 클러스터 스케줄링에서 한 샤드(회사 id % shards)에 속한 회사를 id 순서대로 나눠서 조회
+    @Query("select c from COMPANY c where mod(c.id, :shards) = :shard and c.id > :lastId order by c.id")
+    List<CompanyEntity> findInShardAfter(@Param("shards") long shards, @Param("shard") long shard,
+                                         @Param("lastId") Long lastId, Pageable pageable);
+
+    // 롤링 스케줄에서 슬롯 범위 [from1, to1] 또는 [from2, to2]에 속한 회사를 id 순서대로 나눠서 조회
+    // (window 끝을 넘어가는 구간은 두 범위가 되고, 아니면 두 번째 범위를 비워서(0, -1) 넘긴다)
+    @Query("select c from COMPANY c where (c.scrapSlot between :from1 and :to1 or c.scrapSlot between :from2 and :to2) " +
+            "and c.id > :lastId order by c.id")
+    List<CompanyEntity> findInScrapSlotsAfter(@Param("from1") int from1, @Param("to1") int to1,
+                                              @Param("from2") int from2, @Param("to2") int to2,
+                                              @Param("lastId") Long lastId, Pageable pageable);
+
+    // 자동완성 인기도 누적
+    @Transactional
+    @Modifying
+    @Query("update COMPANY c set c.popularity = c.popularity + :delta where c.name = :name")
+    int incrementPopularity(@Param("name") String name, @Param("delta") long delta);
+
+    // 스케줄러 워커가 엔터티 전체를 merge 하지 않고 지문 컬럼만 갱신
+    @Transactional
+    @Modifying
+    @Query("update COMPANY c set c.dividendFingerprint = :fingerprint where c.id = :id")
+    void updateDividendFingerprint(@Param("id") Long id, @Param("fingerprint") String fingerprint);
 }
 
 /*Java 8 이상에서 추가된 Optional은 null-safe한 프로그래밍을 도와주는
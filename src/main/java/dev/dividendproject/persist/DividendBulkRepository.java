@@ -0,0 +1,80 @@
+package dev.dividendproject.persist;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.IngestResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// 배당금을 한 건씩 exists -> save 하지 않고 JDBC 배치로 한 번에 저장
+// DividendEntity는 IDENTITY 전략이라 하이버네이트가 insert를 배치로 묶지 못하기 때문에 JdbcTemplate을 직접 사용한다.
+@Repository
+public class DividendBulkRepository {
+
+    // (companyId, date) 유니크 제약 조건의 인덱스 범위 스캔으로 이미 저장된 날짜를 한 번에 읽는다.
+    private static final String EXISTING_DATES_SQL =
+            "SELECT date FROM DIVIDEND WHERE company_id = ? AND date BETWEEN ? AND ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO DIVIDEND (company_id, date, dividend) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DividendSummaryStore dividendSummaryStore;
+    private final int batchSize;
+
+    public DividendBulkRepository(JdbcTemplate jdbcTemplate,
+                                  DividendSummaryStore dividendSummaryStore,
+                                  @Value("${dividend.ingest.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dividendSummaryStore = dividendSummaryStore;
+        this.batchSize = batchSize;
+    }
+
+    // 같은 회사의 배당금을 저장하는 트랜잭션(일일 스크래핑, 등록 작업, 다른 인스턴스)은 요약 행의 잠금으로 줄을 세운다.
+    // 잠금을 잡은 뒤에 저장된 날짜를 읽기 때문에 확인과 삽입 사이에 다른 쪽이 같은 (companyId, date)를 넣을 수 없고,
+    // 없는 행만 삽입하므로 드라이버가 돌려주는 건수(SUCCESS_NO_INFO 등)에 기대지 않고 새로 저장된 행을 정확히 안다.
+    // (배당금을 쓰는 곳은 이 메서드뿐이다)
+    @Transactional
+    public IngestResult upsertAll(Long companyId, List<Dividend> dividends) {
+        if (dividends.isEmpty()) {
+            return new IngestResult();
+        }
+        this.dividendSummaryStore.lock(companyId);
+
+        LocalDate from = dividends.get(0).getDate().toLocalDate();
+        LocalDate to = from;
+        for (Dividend dividend : dividends) {
+            LocalDate date = dividend.getDate().toLocalDate();
+            from = date.isBefore(from) ? date : from;
+            to = date.isAfter(to) ? date : to;
+        }
+        Set<LocalDate> existing = new HashSet<>(this.jdbcTemplate.query(EXISTING_DATES_SQL,
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(), companyId, Date.valueOf(from), Date.valueOf(to)));
+
+        // 스크랩 결과 안에서 같은 날짜가 두 번 나오면 먼저 나온 행만 저장한다.
+        List<Dividend> inserted = new ArrayList<>();
+        for (Dividend dividend : dividends) {
+            if (existing.add(dividend.getDate().toLocalDate())) {
+                inserted.add(dividend);
+            }
+        }
+
+        if (!inserted.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_SQL, inserted, this.batchSize, (ps, dividend) -> {
+                ps.setLong(1, companyId);
+                ps.setDate(2, Date.valueOf(dividend.getDate().toLocalDate()));
+                ps.setBigDecimal(3, dividend.getDividend());
+            });
+        }
+        this.dividendSummaryStore.apply(companyId, inserted);
+        return new IngestResult(inserted.size(), dividends.size() - inserted.size());
+    }
+}
@@ -1,21 +1,65 @@
 package dev.dividendproject.persist;
 
+import dev.dividendproject.model.CompanyDividendRow;
+import dev.dividendproject.model.DividendEvent;
 import dev.dividendproject.persist.entity.DividendEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DividendRepository extends JpaRepository<DividendEntity, Long> {
 
     List<DividendEntity> findAllByCompanyId(Long companyId);
 
+    // 여러 회사의 배당금을 한 번에 조회 ((companyId, date) 인덱스 순서라 회사별로 날짜순으로 나온다)
+    List<DividendEntity> findAllByCompanyIdInOrderByCompanyIdAscDateAsc(Collection<Long> companyIds);
+
     @Transactional
     void deleteAllByCompanyId(Long id);
 
-    boolean existsByCompanyIdAndDate(Long companyId, LocalDateTime date);
+    boolean existsByCompanyIdAndDate(Long companyId, LocalDate date);
+
+    // 회사별로 가장 최근에 저장된 배당금(증분 스크래핑의 시작 지점)
+    Optional<DividendEntity> findFirstByCompanyIdOrderByDateDesc(Long companyId);
+
+    Optional<DividendEntity> findFirstByCompanyIdOrderByDateAsc(Long companyId);
+
+    // (companyId, date) 인덱스 범위 스캔으로 기간 안의 배당금만 조회
+    List<DividendEntity> findAllByCompanyIdAndDateBetweenOrderByDateAsc(Long companyId, LocalDate from, LocalDate to);
+
+    // 회사명으로 회사와 배당금을 쿼리 한 번에 읽는다. (회사명 인덱스 + (companyId, date) 인덱스)
+    // 엔터티 대신 DTO로 바로 받기 때문에 영속성 컨텍스트를 거치지 않는다.
+    // 회사명은 유니크가 아니므로(같은 이름의 다른 종목) 회사 id로 나눠서 돌려주고, 여러 회사인지는 서비스에서 확인한다.
+    @Query("select new dev.dividendproject.model.CompanyDividendRow(c.id, c.ticker, c.name, d.date, d.dividend) " +
+            "from COMPANY c left join DIVIDEND d on d.companyId = c.id " +
+            "where c.name = :name " +
+            "order by c.id, d.date")
+    List<CompanyDividendRow> findDividendRowsByCompanyName(@Param("name") String name);
+
+    // 배당 캘린더 : (date, company_id) 인덱스 순서대로 기간 안의 배당을 읽는다.
+    // (afterDate, afterCompanyId) 다음 행부터 읽는 키셋 페이지네이션
+    // OR 조건만으로는 (date, companyId) 인덱스의 범위를 정할 수 없어서 afterDate 이전의 배당금까지 모두 훑는다.
+    // d.date >= :afterDate를 먼저 두어 인덱스를 afterDate부터 읽게 하고, OR는 같은 날짜 안의 회사만 거른다.
+    @Query("select new dev.dividendproject.model.DividendEvent(d.date, c.id, c.ticker, c.name, d.dividend) " +
+            "from DIVIDEND d, COMPANY c " +
+            "where c.id = d.companyId and d.date >= :afterDate and d.date <= :to " +
+            "and (d.date > :afterDate or (d.date = :afterDate and d.companyId > :afterCompanyId)) " +
+            "order by d.date, d.companyId")
+    List<DividendEvent> findCalendar(@Param("afterDate") LocalDate afterDate,
+                                     @Param("afterCompanyId") Long afterCompanyId,
+                                     @Param("to") LocalDate to,
+                                     Pageable pageable);
+
+    // 지급 주기 추정에 사용할 최근 배당금
+    List<DividendEntity> findTop9ByCompanyIdOrderByDateDesc(Long companyId);
 
 }
@@ -0,0 +1,28 @@
+package dev.dividendproject.persist;
+
+import dev.dividendproject.persist.entity.DividendSummaryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface DividendSummaryRepository extends JpaRepository<DividendSummaryEntity, Long> {
+
+    // 스케줄러와 회사 등록이 같은 회사의 요약을 동시에 고치지 않도록 행 잠금을 걸고 읽는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DIVIDEND_SUMMARY s where s.companyId = :companyId")
+    Optional<DividendSummaryEntity> findForUpdate(@Param("companyId") Long companyId);
+
+    // 회사명으로 요약 행을 바로 조회 (회사 조회와 요약 조회를 쿼리 한 번으로)
+    @Query("select s from DIVIDEND_SUMMARY s, COMPANY c where c.name = :name and s.companyId = c.id")
+    Optional<DividendSummaryEntity> findByCompanyName(@Param("name") String name);
+
+    @Transactional
+    void deleteByCompanyId(Long companyId);
+}
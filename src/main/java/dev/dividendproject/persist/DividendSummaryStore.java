@@ -0,0 +1,103 @@
+package dev.dividendproject.persist;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.DividendSummary;
+import dev.dividendproject.persist.entity.DividendSummaryEntity;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 배당금 요약 행을 갱신
+// 배당금 삽입과 같은 트랜잭션에서 호출되어, 요약이 배당금 테이블과 어긋나지 않는다.
+// 요약 행은 회사를 등록할 때 같이 만들고(create), 그 이전에 저장된 회사는 처음 필요할 때 만든다.
+// 이때 조회(rebuild)와 스케줄러(apply)가 동시에 행을 만들다 키가 겹쳐 배당금 저장까지 롤백되지 않도록,
+// 빈 행은 별도 트랜잭션에서 만들고(중복이면 무시) 원래 트랜잭션에서는 잠금을 걸고 다시 읽는다.
+@Repository
+public class DividendSummaryStore {
+
+    private final DividendSummaryRepository dividendSummaryRepository;
+    private final DividendRepository dividendRepository;
+    private final TransactionTemplate newTransaction;
+
+    public DividendSummaryStore(DividendSummaryRepository dividendSummaryRepository,
+                                DividendRepository dividendRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.dividendSummaryRepository = dividendSummaryRepository;
+        this.dividendRepository = dividendRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // 새로 등록하는 회사의 빈 요약 (회사 저장과 같은 트랜잭션)
+    @Transactional
+    public void create(Long companyId) {
+        DividendSummaryEntity entity = new DividendSummaryEntity(companyId);
+        this.save(entity, new DividendSummary(), List.of());
+    }
+
+    // 회사의 요약 행에 잠금을 건다. (없으면 만든다)
+    // 같은 회사의 배당금 저장이 서로 끼어들지 않도록 DividendBulkRepository가 삽입 전에 호출한다.
+    @Transactional
+    public DividendSummaryEntity lock(Long companyId) {
+        return this.lockOrCreate(companyId);
+    }
+
+    // 새로 삽입된 배당금만 요약에 더한다.
+    @Transactional
+    public void apply(Long companyId, List<Dividend> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        DividendSummaryEntity entity = this.lockOrCreate(companyId);
+        if (!entity.isBuilt()) {
+            // 아직 만들지 않은 요약이면 방금 삽입한 행까지 포함해서 전체로 만든다.
+            this.build(entity);
+            return;
+        }
+        this.save(entity, DividendSummary.decode(entity.getYearly(), entity.getRecent()), inserted);
+    }
+
+    // 요약 행이 없는 회사(요약 테이블 이전에 저장된 회사)는 저장된 배당금 전체로 한 번 만든다.
+    @Transactional
+    public DividendSummaryEntity rebuild(Long companyId) {
+        DividendSummaryEntity entity = this.lockOrCreate(companyId);
+        if (entity.isBuilt()) {
+            return entity; // 잠금을 기다리는 동안 다른 쪽이 만들었다.
+        }
+        return this.build(entity);
+    }
+
+    private DividendSummaryEntity lockOrCreate(Long companyId) {
+        return this.dividendSummaryRepository.findForUpdate(companyId).orElseGet(() -> {
+            try {
+                this.newTransaction.executeWithoutResult(status ->
+                        this.dividendSummaryRepository.saveAndFlush(new DividendSummaryEntity(companyId)));
+            } catch (DataIntegrityViolationException e) {
+                // 다른 트랜잭션이 먼저 만들었다.
+            }
+            return this.dividendSummaryRepository.findForUpdate(companyId)
+                    .orElseThrow(() -> new IllegalStateException("dividend summary is missing -> " + companyId));
+        });
+    }
+
+    private DividendSummaryEntity build(DividendSummaryEntity entity) {
+        List<Dividend> dividends = this.dividendRepository.findAllByCompanyId(entity.getCompanyId()).stream()
+                .map(e -> new Dividend(e.getDate().atStartOfDay(), e.getDividend()))
+                .collect(Collectors.toList());
+        return this.save(entity, new DividendSummary(), dividends);
+    }
+
+    private DividendSummaryEntity save(DividendSummaryEntity entity, DividendSummary summary, List<Dividend> dividends) {
+        summary.apply(dividends);
+        entity.setYearly(summary.encodeYearly());
+        entity.setRecent(summary.encodeRecent());
+        entity.setLastDate(summary.getLastDate());
+        return this.dividendSummaryRepository.save(entity);
+    }
+}
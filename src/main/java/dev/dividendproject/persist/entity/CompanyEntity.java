@@ -6,11 +6,18 @@ import lombok.*;
 import javax.persistence.*;
 
 @Entity(name = "COMPANY")
+@Table(indexes = {
+        @Index(name = "idx_company_scrap_slot", columnList = "scrapSlot"),
+        @Index(name = "idx_company_name", columnList = "name") // 회사명으로 배당금 조회
+})
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 public class CompanyEntity {
+    // 롤링 스케줄의 슬롯 개수, window를 이 개수만큼 나눈다.
+    public static final int SCRAP_SLOTS = 10_000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -19,6 +26,16 @@ public class CompanyEntity {
     private String ticker;
     private String name;
 
+    // 마지막으로 스크래핑한 배당금 테이블의 지문, 같으면 저장 과정을 건너뛴다.
+    private String dividendFingerprint;
+
+    // 롤링 스케줄에서 이 회사를 스크래핑할 위치 [0, SCRAP_SLOTS)
+    // 티커 해시로 정하기 때문에 재시작해도 바뀌지 않고, 회사들이 window 전체에 고르게 흩어진다.
+    private int scrapSlot;
+
+    // 자동완성 순위에 쓰는 인기도 (배당금 조회 횟수)
+    private long popularity;
+
     // 회사
     // column type unique example
     // id     long    O       1
@@ -29,6 +46,18 @@ public class CompanyEntity {
     public CompanyEntity(Company company){
         this.ticker = company.getTicker();
         this.name = company.getName();
+        this.scrapSlot = scrapSlotOf(company.getTicker());
+    }
+
+    private static int scrapSlotOf(String ticker) {
+        // String.hashCode는 비슷한 티커끼리 값이 몰리므로 비트를 한 번 섞어준다. (murmur3 fmix32)
+        int h = ticker.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, SCRAP_SLOTS);
     }
 
 }
@@ -5,8 +5,8 @@ import lombok.*;
 
 
 import javax.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 
 // Unique Key
 /*
@@ -18,13 +18,17 @@ import java.time.LocalDateTime;
 @Getter
 @ToString
 @NoArgsConstructor
+// (companyId, date) 유니크 키의 인덱스가 companyId로 시작하기 때문에 회사 한 곳의 배당금 조회도 이 인덱스를 탄다.
+// 여러 회사의 기간 조회(배당 캘린더)는 date로 시작하는 인덱스를 따로 둔다.
 @Table(
         uniqueConstraints =
                 {
         @UniqueConstraint(
+                name = "uk_dividend_company_date",
                 columnNames = {"companyId", "date"}
         )
-    }
+    },
+        indexes = @Index(name = "idx_dividend_date_company", columnList = "date, companyId")
 )
 public class DividendEntity {
     @Id
@@ -32,8 +36,10 @@ public class DividendEntity {
     private Long id;
 
     private Long companyId;
-    private LocalDateTime date;
-    private String dividend;
+    // 배당 기준일은 시간이 없으므로 DATE, 금액은 합계/비교를 DB에서 할 수 있도록 정확한 소수(DECIMAL)로 저장
+    private LocalDate date;
+    @Column(precision = 19, scale = 6)
+    private BigDecimal dividend;
     // 회사
     // column type unique example
     // id     long    O       1
@@ -44,12 +50,12 @@ public class DividendEntity {
     // column       type unique example
     // id           long    O       3
     // company-id   Long            1
-    // date     LocalDateTime    2022-05-05
-    // dividend     String        2.00
+    // date         LocalDate     2022-05-05
+    // dividend     BigDecimal    2.00
 
     public DividendEntity(Long companyId, Dividend dividend) {
         this.companyId = companyId;
-        this.date = dividend.getDate();
+        this.date = dividend.getDate().toLocalDate();
         this.dividend = dividend.getDividend();
     }
 }
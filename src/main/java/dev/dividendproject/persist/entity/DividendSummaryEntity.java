@@ -0,0 +1,38 @@
+package dev.dividendproject.persist.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+// 회사별 배당금 요약 (회사 하나당 한 행)
+// 배당금이 새로 저장될 때마다 같은 트랜잭션에서 증가분만 반영하기 때문에,
+// 분석 API는 배당금 전체를 읽지 않고 이 행 하나만 읽으면 된다.
+@Entity(name = "DIVIDEND_SUMMARY")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class DividendSummaryEntity {
+    @Id
+    private Long companyId;
+
+    // 연도별 합계/횟수 -> 2022=1.76/4;2023=1.84/4
+    // null이면 자리만 잡아두고 아직 배당금으로 채우지 않은 행 (DividendSummaryStore.lockOrCreate)
+    @Column(length = 4000)
+    private String yearly;
+
+    // 마지막 배당일로부터 1년 안의 지급 내역 (TTM 계산용) -> 2023-03-14=0.46;2023-06-13=0.46
+    @Column(length = 2000)
+    private String recent;
+
+    private LocalDate lastDate;
+
+    public DividendSummaryEntity(Long companyId) {
+        this.companyId = companyId;
+    }
+
+    public boolean isBuilt() {
+        return this.yearly != null;
+    }
+}
@@ -0,0 +1,307 @@
+package dev.dividendproject.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// 여러 인스턴스가 같은 시간에 스케줄러를 실행해도 한 번의 스크래핑을 나눠서 처리하도록 레디스로 조율
+// - 실행(run) : scrap:run:current 키를 NX로 잡은 노드가 새 실행을 시작하고, 나머지 노드는 그 실행에 참여한다.
+//              이전 실행이 끝나지 않았다면 새 실행을 만들지 않고 남은 작업을 같이 처리한다.
+//              실행이 끝나면 scrap:run:completed에 그 실행의 스케줄 시각을 남겨서, 늦게 깨어난 노드가 같은 스케줄로
+//              실행을 한 번 더 시작하지 않게 한다.
+// - 샤드 : 회사 id % shards 로 나눈 묶음, 노드는 샤드마다 리스(TTL 키)를 잡고 처리하는 동안 갱신한다.
+//          노드가 죽어서 리스가 만료되면 다른 노드가 그 샤드를 가져간다.
+// - 롤링 : 아직 나눠주지 않은 다음 슬롯(scrap:rolling:next)부터 현재 슬롯까지를 구간으로 만들어 나눠준다.
+//          구간과 진행 위치는 scrap:rolling:ranges에 남고, 틱 동안만 리스를 잡기 때문에
+//          노드가 죽거나 재시작해도 다음 틱에 어느 노드든 남은 회사부터 이어서 처리한다.
+@Slf4j
+@Component
+public class ClusterScrapCoordinator {
+    private static final String CURRENT_RUN_KEY = "scrap:run:current";
+    private static final String COMPLETED_KEY = "scrap:run:completed";
+    private static final String ROLLING_NEXT_KEY = "scrap:rolling:next";
+    private static final String ROLLING_RANGES_KEY = "scrap:rolling:ranges";
+    private static final String ROLLING_LEASE_PREFIX = "scrap:rolling:lease:";
+
+    // 이번 스케줄이 이미 끝났으면 빈 문자열, 아니면 진행 중인 실행 id (없으면 새로 만든 ARGV[1])
+    private static final RedisScript<String> START_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[2]) == ARGV[2] then return '' end " +
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[3]) then return ARGV[1] end " +
+            "return redis.call('get', KEYS[1]) or ''",
+            String.class);
+    // 실행이 내 것일 때만 지우고, 끝난 스케줄 시각을 같이 남긴다.
+    private static final RedisScript<Long> FINISH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "redis.call('del', KEYS[1]) redis.call('set', KEYS[2], ARGV[2]) return 1 else return 0 end",
+            Long.class);
+
+    // (next, current] 를 새 구간으로 나눠주고 리스를 잡는다. 나눠줄 슬롯이 없으면 빈 문자열
+    // 처음이면 현재 슬롯부터 시작하고, 오래 멈춰 있었다면 최근 한 바퀴(ARGV[2] 슬롯)만 처리한다. (한 바퀴면 모든 회사가 한 번씩 돈다)
+    private static final RedisScript<String> HANDOUT_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(ARGV[1]) " +
+            "local from = tonumber(redis.call('get', KEYS[1]) or ARGV[1]) " +
+            "local floor = current - tonumber(ARGV[2]) + 1 " +
+            "if from < floor then from = floor end " +
+            "if from > current then return '' end " +
+            "local range = from .. ':' .. current " +
+            "redis.call('set', KEYS[1], current + 1) " +
+            "redis.call('hset', KEYS[2], range, '0') " +
+            "redis.call('set', ARGV[3] .. range, ARGV[4], 'PX', ARGV[5]) " +
+            "return range",
+            String.class);
+
+    // 값이 내 것일 때만 TTL 갱신 / 삭제
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int shards;
+    private final Duration leaseTtl;
+    private final Duration maxRunDuration;
+    private final CronExpression schedule;
+    private final ZoneId zone;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService leaseRenewer =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("scrap-lease-"));
+
+    public ClusterScrapCoordinator(StringRedisTemplate redisTemplate,
+                                   @Value("${scheduler.scrap.cluster.enabled}") boolean enabled,
+                                   @Value("${scheduler.scrap.cluster.shards}") int shards,
+                                   @Value("${scheduler.scrap.cluster.lease-ttl}") Duration leaseTtl,
+                                   @Value("${scheduler.scrap.cluster.max-run-duration}") Duration maxRunDuration,
+                                   @Value("${scheduler.scrap.yahoo}") String schedule,
+                                   @Value("${scheduler.scrap.zone}") String zone) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.shards = shards;
+        this.leaseTtl = leaseTtl;
+        this.maxRunDuration = maxRunDuration;
+        this.schedule = CronExpression.parse(schedule);
+        this.zone = ZoneId.of(zone);
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getShards() {
+        return this.shards;
+    }
+
+    // 현재 실행의 샤드를 하나씩 잡아서 shardProcessor(샤드 번호, 커서 이름)로 처리하고, 모든 샤드가 끝나면 반환
+    // 커서 이름은 실행과 샤드마다 달라서, 죽은 노드의 샤드를 넘겨받은 노드가 그 위치부터 이어서 처리할 수 있다.
+    public void runShards(BiConsumer<Integer, String> shardProcessor) {
+        String firing = this.firingOf(ZonedDateTime.now(this.zone));
+        String runId = this.startOrJoinRun(firing);
+        if (runId == null) {
+            return;
+        }
+
+        while (true) {
+            Set<String> done = this.redisTemplate.opsForSet().members(doneKey(runId));
+            if (done != null && done.size() >= this.shards) {
+                this.finishRun(runId, firing);
+                return;
+            }
+
+            boolean claimedAny = false;
+            for (int shard = 0; shard < this.shards; shard++) {
+                if (done != null && done.contains(String.valueOf(shard))) {
+                    continue;
+                }
+                if (!this.claim(runId, shard)) {
+                    continue;
+                }
+                // 위에서 읽은 완료 목록은 앞 샤드를 처리하는 동안 낡았을 수 있으므로, 리스를 잡은 뒤 다시 확인한다.
+                if (Boolean.TRUE.equals(this.redisTemplate.opsForSet().isMember(doneKey(runId), String.valueOf(shard)))) {
+                    this.release(runId, shard);
+                    continue;
+                }
+                claimedAny = true;
+                this.process(runId, shard, shardProcessor);
+            }
+
+            if (!claimedAny) {
+                // 남은 샤드는 다른 노드가 처리 중, 그 노드가 죽으면 리스가 만료되니 잠시 후 다시 확인한다.
+                if (!runId.equals(this.redisTemplate.opsForValue().get(CURRENT_RUN_KEY))) {
+                    return;
+                }
+                this.sleep(this.leaseTtl.dividedBy(2));
+            }
+        }
+    }
+
+    // 롤링 모드 : 이번 틱에 처리할 슬롯 구간 하나를 잡는다.
+    // 다른 노드가 처리하다 놓친(리스가 만료된) 구간을 먼저 이어서 처리하고, 없으면 currentSlot까지 새 구간을 받는다.
+    // 리스는 틱 동안만 잡고 recordRollingRange에서 놓는다. (틱이 lease-ttl보다 길어지면 다른 노드가 같은 회사를
+    // 한 번 더 처리할 수 있지만, 배당금 저장은 이미 있는 행을 건너뛰므로 결과는 같다)
+    public Optional<RollingSlotRange> claimRollingRange(long currentSlot, int slotsPerWindow) {
+        Map<Object, Object> open = this.redisTemplate.opsForHash().entries(ROLLING_RANGES_KEY);
+        for (Object key : open.keySet()) {
+            String range = (String) key;
+            if (!this.claimLease(ROLLING_LEASE_PREFIX + range)) {
+                continue;
+            }
+            // 리스를 잡기 전에 다른 노드가 구간을 끝냈거나 진행 위치를 옮겼을 수 있으므로 다시 읽는다.
+            Object lastId = this.redisTemplate.opsForHash().get(ROLLING_RANGES_KEY, range);
+            if (lastId == null) {
+                this.releaseLease(ROLLING_LEASE_PREFIX + range);
+                continue;
+            }
+            return Optional.of(RollingSlotRange.of(range, Long.parseLong((String) lastId)));
+        }
+
+        String range = this.redisTemplate.execute(HANDOUT_SCRIPT, Arrays.asList(ROLLING_NEXT_KEY, ROLLING_RANGES_KEY),
+                String.valueOf(currentSlot), String.valueOf(slotsPerWindow), ROLLING_LEASE_PREFIX, this.nodeId,
+                String.valueOf(this.leaseTtl.toMillis()));
+        if (range == null || range.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(RollingSlotRange.of(range, 0L));
+    }
+
+    // 구간을 lastId까지 처리했다. (finished면 구간을 지운다) 리스를 놓아서 다음 틱에는 어느 노드든 이어서 처리한다.
+    public void recordRollingRange(RollingSlotRange range, long lastId, boolean finished) {
+        if (finished) {
+            this.redisTemplate.opsForHash().delete(ROLLING_RANGES_KEY, range.key());
+        } else {
+            this.redisTemplate.opsForHash().put(ROLLING_RANGES_KEY, range.key(), String.valueOf(lastId));
+        }
+        this.releaseLease(ROLLING_LEASE_PREFIX + range.key());
+    }
+
+    // 완료 표시 확인, 새 실행 시작, 진행 중인 실행 조회를 스크립트 하나로 처리해서
+    // 다른 노드가 실행을 끝내는 사이에 늦게 온 노드가 새 실행을 만들지 않게 한다.
+    private String startOrJoinRun(String firing) {
+        String newRunId = UUID.randomUUID().toString();
+        String runId = this.redisTemplate.execute(START_SCRIPT, Arrays.asList(CURRENT_RUN_KEY, COMPLETED_KEY),
+                newRunId, firing, String.valueOf(this.maxRunDuration.toMillis()));
+        if (runId == null || runId.isEmpty()) {
+            log.info("cluster scraping run is already finished -> " + firing);
+            return null;
+        }
+        if (runId.equals(newRunId)) {
+            log.info("cluster scraping run is started -> " + runId + " (" + firing + ") by " + this.nodeId);
+        } else {
+            // 이미 진행 중인 실행이 있으면 새로 시작하지 않고 참여
+            log.info("join cluster scraping run -> " + runId);
+        }
+        return runId;
+    }
+
+    // now 이전의 가장 최근 스케줄 시각 (노드마다 깨어난 시간이 조금씩 달라도 같은 값이 된다)
+    // 크론과 같은 시간대(scheduler.scrap.zone)에서 계산하고 UTC 시각으로 남기므로,
+    // 노드마다 기본 시간대가 다르거나 서머타임이 바뀌는 날에도 모든 노드가 같은 값을 얻는다.
+    String firingOf(ZonedDateTime now) {
+        ZonedDateTime zoned = now.withZoneSameInstant(this.zone);
+        ZonedDateTime firing = null;
+        for (ZonedDateTime next = this.schedule.next(zoned.minus(this.maxRunDuration));
+             next != null && !next.isAfter(zoned);
+             next = this.schedule.next(next)) {
+            firing = next;
+        }
+        // 스케줄 밖에서 직접 실행한 경우는 매번 새 실행으로 본다.
+        return (firing == null ? zoned : firing).toInstant().toString();
+    }
+
+    private void process(String runId, int shard, BiConsumer<Integer, String> shardProcessor) {
+        long period = Math.max(1, this.leaseTtl.toMillis() / 3);
+        ScheduledFuture<?> renewal = this.leaseRenewer.scheduleAtFixedRate(
+                () -> this.renew(runId, shard), period, period, TimeUnit.MILLISECONDS);
+        try {
+            log.info(String.format("scrap shard %d/%d -> run %s", shard, this.shards, runId));
+            shardProcessor.accept(shard, "run:" + runId + ":shard:" + shard);
+            this.redisTemplate.opsForSet().add(doneKey(runId), String.valueOf(shard));
+            this.redisTemplate.expire(doneKey(runId), this.maxRunDuration);
+        } finally {
+            renewal.cancel(false);
+            this.release(runId, shard);
+        }
+    }
+
+    private boolean claim(String runId, int shard) {
+        return this.claimLease(shardKey(runId, shard));
+    }
+
+    private void release(String runId, int shard) {
+        this.releaseLease(shardKey(runId, shard));
+    }
+
+    private boolean claimLease(String key) {
+        return Boolean.TRUE.equals(this.redisTemplate.opsForValue().setIfAbsent(key, this.nodeId, this.leaseTtl));
+    }
+
+    private void releaseLease(String key) {
+        this.redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), this.nodeId);
+    }
+
+    private void renew(String runId, int shard) {
+        try {
+            Long renewed = this.redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(shardKey(runId, shard)),
+                    this.nodeId, String.valueOf(this.leaseTtl.toMillis()));
+            if (renewed == null || renewed == 0) {
+                // 리스를 잃었다면 다른 노드가 같은 샤드를 처리할 수 있지만, 배당금 저장은 중복을 건너뛰므로 결과는 같다.
+                log.warn(String.format("lost lease of shard %d -> run %s", shard, runId));
+            }
+        } catch (RuntimeException e) {
+            log.warn("failed to renew shard lease -> " + shard, e);
+        }
+    }
+
+    private void finishRun(String runId, String firing) {
+        Long deleted = this.redisTemplate.execute(FINISH_SCRIPT, Arrays.asList(CURRENT_RUN_KEY, COMPLETED_KEY),
+                runId, firing);
+        if (deleted != null && deleted > 0) {
+            this.redisTemplate.delete(doneKey(runId));
+            log.info("cluster scraping run is finished -> " + runId);
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while waiting for shards", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.leaseRenewer.shutdownNow();
+    }
+
+    private static String doneKey(String runId) {
+        return "scrap:run:" + runId + ":done";
+    }
+
+    private static String shardKey(String runId, int shard) {
+        return "scrap:run:" + runId + ":shard:" + shard;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.dividendproject.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+// 저장된 배당금 날짜로 추정한 지급 주기
+// 간격의 중앙값을 쓰기 때문에 특별 배당 한두 번이 섞여 있어도 주기가 크게 흔들리지 않는다.
+@Getter
+@AllArgsConstructor
+public class DividendCadence {
+    // 추정에 필요한 최소 배당 횟수 (간격이 2개 이상)
+    private static final int MIN_DIVIDENDS = 3;
+
+    private final long intervalDays;
+    private final LocalDate lastDate;
+
+    public LocalDate getExpectedDate() {
+        return this.lastDate.plusDays(this.intervalDays);
+    }
+
+    // 최근 날짜부터 정렬된 배당금 날짜 목록으로 주기를 추정, 기록이 부족하면 empty
+    public static Optional<DividendCadence> infer(List<LocalDate> datesDesc) {
+        if (datesDesc.size() < MIN_DIVIDENDS) {
+            return Optional.empty();
+        }
+
+        List<Long> gaps = new ArrayList<>(datesDesc.size() - 1);
+        for (int i = 1; i < datesDesc.size(); i++) {
+            long gap = ChronoUnit.DAYS.between(datesDesc.get(i), datesDesc.get(i - 1));
+            if (gap > 0) {
+                gaps.add(gap);
+            }
+        }
+        if (gaps.size() < MIN_DIVIDENDS - 1) {
+            return Optional.empty();
+        }
+
+        Collections.sort(gaps);
+        long median = gaps.get(gaps.size() / 2);
+        return Optional.of(new DividendCadence(median, datesDesc.get(0)));
+    }
+}
@@ -0,0 +1,153 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// 롤링 스케줄 상태
+// window(기본 24시간)를 CompanyEntity.SCRAP_SLOTS 개의 슬롯으로 나누고, 틱마다 지나간 슬롯의 회사들을 처리한다.
+// 어느 슬롯까지 나눠줬는지와 처리 중인 구간은 레디스에 있어서(ClusterScrapCoordinator),
+// 여러 인스턴스가 같은 슬롯을 중복해서 처리하지 않고 재시작해도 밀린 슬롯을 빠뜨리지 않는다.
+// 한 틱에 처리하는 개수(batchSize)는 최근 회사당 처리 시간을 보고 틱 안에 끝날 만큼으로 조절한다.
+// 다 못 한 구간은 진행 위치와 함께 남아 다음 틱에 먼저 처리된다.
+@Slf4j
+@Component
+public class RollingScrapSchedule {
+    // 관측값 반영 비율 (지수 이동 평균)
+    private static final double SMOOTHING = 0.3;
+
+    private final CompanyRepository companyRepository;
+    private final ClusterScrapCoordinator clusterScrapCoordinator;
+    private final long windowMillis;
+    private final long budgetMillis;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final Clock clock;
+
+    // 이번 틱에 잡은 구간과 구간마다 읽은 회사 (record에서 진행 위치를 남긴다)
+    private final List<Claimed> claimed = new ArrayList<>();
+    private int batchSize;
+    private double millisPerCompany = -1;
+
+    @Autowired
+    public RollingScrapSchedule(CompanyRepository companyRepository,
+                                ClusterScrapCoordinator clusterScrapCoordinator,
+                                @Value("${scheduler.scrap.rolling.window}") Duration window,
+                                @Value("${scheduler.scrap.rolling.tick}") Duration tick,
+                                @Value("${scheduler.scrap.rolling.min-batch-size}") int minBatchSize,
+                                @Value("${scheduler.scrap.rolling.max-batch-size}") int maxBatchSize) {
+        this(companyRepository, clusterScrapCoordinator, window, tick, minBatchSize, maxBatchSize, Clock.systemUTC());
+    }
+
+    RollingScrapSchedule(CompanyRepository companyRepository, ClusterScrapCoordinator clusterScrapCoordinator,
+                         Duration window, Duration tick, int minBatchSize, int maxBatchSize, Clock clock) {
+        if (window.compareTo(tick) <= 0 || minBatchSize < 1 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("invalid rolling schedule -> window " + window + ", tick " + tick
+                    + ", batch " + minBatchSize + ".." + maxBatchSize);
+        }
+        this.companyRepository = companyRepository;
+        this.clusterScrapCoordinator = clusterScrapCoordinator;
+        this.windowMillis = window.toMillis();
+        // 다음 틱과 겹치지 않도록 틱의 80% 안에서 끝나는 것을 목표로 한다.
+        this.budgetMillis = tick.toMillis() * 8 / 10;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = minBatchSize;
+        this.clock = clock;
+    }
+
+    // 이번 틱에 스크래핑할 회사 목록 (처리한 뒤 record를 호출해야 구간의 리스를 놓는다)
+    public synchronized List<CompanyEntity> nextBatch() {
+        long currentSlot = this.currentSlot();
+        List<CompanyEntity> batch = new ArrayList<>();
+        while (batch.size() < this.batchSize) {
+            Optional<RollingSlotRange> range = this.clusterScrapCoordinator.claimRollingRange(currentSlot, CompanyEntity.SCRAP_SLOTS);
+            if (range.isEmpty()) {
+                break;
+            }
+            int limit = this.batchSize - batch.size();
+            List<CompanyEntity> companies = this.load(range.get(), limit);
+            if (companies.isEmpty()) {
+                // 남은 회사가 없는 구간은 바로 끝낸다.
+                this.clusterScrapCoordinator.recordRollingRange(range.get(), range.get().getLastId(), true);
+                continue;
+            }
+            this.claimed.add(new Claimed(range.get(), companies, companies.size() < limit));
+            batch.addAll(companies);
+        }
+        return batch;
+    }
+
+    // 처리한 구간의 진행 위치를 남기고, 처리 결과를 보고 다음 배치 크기를 정한다.
+    public synchronized void record(int processed, long elapsedMillis) {
+        for (Claimed c : this.claimed) {
+            long lastId = c.companies.get(c.companies.size() - 1).getId();
+            this.clusterScrapCoordinator.recordRollingRange(c.range, lastId, c.exhausted);
+        }
+        this.claimed.clear();
+        if (processed == 0) {
+            return;
+        }
+        double observed = Math.max(1.0, (double) elapsedMillis / processed);
+        this.millisPerCompany = this.millisPerCompany < 0
+                ? observed
+                : SMOOTHING * observed + (1 - SMOOTHING) * this.millisPerCompany;
+
+        int next = (int) Math.min(Integer.MAX_VALUE, (long) (this.budgetMillis / this.millisPerCompany));
+        this.batchSize = Math.max(this.minBatchSize, Math.min(this.maxBatchSize, next));
+        log.info(String.format("rolling scrap tick -> %d companies in %d ms, next batch %d",
+                processed, elapsedMillis, this.batchSize));
+    }
+
+    // 지금이 window의 몇 번째 바퀴인지 (바퀴마다 스크래핑 통계를 새로 센다)
+    public long currentWindow() {
+        return Math.floorDiv(this.currentSlot(), CompanyEntity.SCRAP_SLOTS);
+    }
+
+    int getBatchSize() {
+        return this.batchSize;
+    }
+
+    // 구간의 lastId 다음 회사부터 limit개, window 끝을 넘어가는 구간은 두 범위로 나눠서 조회
+    private List<CompanyEntity> load(RollingSlotRange range, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        int last = CompanyEntity.SCRAP_SLOTS - 1;
+        if (range.getTo() - range.getFrom() >= last) {
+            return this.companyRepository.findInScrapSlotsAfter(0, last, 0, -1, range.getLastId(), page);
+        }
+        int from = (int) Math.floorMod(range.getFrom(), (long) CompanyEntity.SCRAP_SLOTS);
+        int to = (int) Math.floorMod(range.getTo(), (long) CompanyEntity.SCRAP_SLOTS);
+        if (from <= to) {
+            return this.companyRepository.findInScrapSlotsAfter(from, to, 0, -1, range.getLastId(), page);
+        }
+        return this.companyRepository.findInScrapSlotsAfter(from, last, 0, to, range.getLastId(), page);
+    }
+
+    // window를 여러 바퀴 돌아도 겹치지 않는 절대 슬롯 번호
+    private long currentSlot() {
+        return Math.floorDiv(this.clock.millis() * CompanyEntity.SCRAP_SLOTS, this.windowMillis);
+    }
+
+    private static class Claimed {
+        private final RollingSlotRange range;
+        private final List<CompanyEntity> companies;
+        private final boolean exhausted; // 구간에 남은 회사가 limit보다 적었다.
+
+        Claimed(RollingSlotRange range, List<CompanyEntity> companies, boolean exhausted) {
+            this.range = range;
+            this.companies = companies;
+            this.exhausted = exhausted;
+        }
+    }
+}
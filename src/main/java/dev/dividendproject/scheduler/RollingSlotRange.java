@@ -0,0 +1,25 @@
+package dev.dividendproject.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 롤링 스케줄에서 노드 하나가 리스를 잡고 처리하는 슬롯 구간 [from, to]
+// 슬롯 번호는 window를 여러 바퀴 돌아도 겹치지 않는 절대 번호 (회사의 scrapSlot은 번호 % SCRAP_SLOTS)
+// 구간 안의 회사는 id 순서로 나눠서 처리하고, lastId는 마지막으로 처리한 회사 id
+@Getter
+@AllArgsConstructor
+public class RollingSlotRange {
+    private final long from;
+    private final long to;
+    private final long lastId;
+
+    // 레디스 해시의 필드 이름 "from:to"
+    static RollingSlotRange of(String key, long lastId) {
+        int colon = key.indexOf(':');
+        return new RollingSlotRange(Long.parseLong(key.substring(0, colon)), Long.parseLong(key.substring(colon + 1)), lastId);
+    }
+
+    String key() {
+        return this.from + ":" + this.to;
+    }
+}
@@ -0,0 +1,37 @@
+package dev.dividendproject.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// 스크래핑이 어디까지 진행됐는지(마지막으로 끝난 회사 id)를 레디스에 저장
+// 실행 도중 프로세스가 내려가도 다음 실행은 이 위치 다음 회사부터 이어서 처리한다.
+@Component
+public class ScrapCursorStore {
+    private static final String KEY_PREFIX = "scrap:cursor:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public ScrapCursorStore(StringRedisTemplate redisTemplate,
+                            @Value("${scheduler.scrap.chunk.cursor-ttl}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public Optional<Long> get(String name) {
+        return Optional.ofNullable(this.redisTemplate.opsForValue().get(KEY_PREFIX + name))
+                .map(Long::valueOf);
+    }
+
+    public void save(String name, long lastId) {
+        this.redisTemplate.opsForValue().set(KEY_PREFIX + name, String.valueOf(lastId), this.ttl);
+    }
+
+    public void clear(String name) {
+        this.redisTemplate.delete(KEY_PREFIX + name);
+    }
+}
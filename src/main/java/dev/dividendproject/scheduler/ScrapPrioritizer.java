@@ -0,0 +1,115 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.persist.entity.DividendEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// 배당 주기를 보고 이번에 스크래핑할 필요가 있는 회사인지 판단
+// - 예상 배당일 앞뒤(lead ~ grace) 기간에는 매번 스크래핑
+// - 그 외 기간은 건너뛰고, full-sweep-days 마다 한 번씩 전체를 확인해서 늦게 나온 배당금을 잡는다.
+// - 기록이 부족해서 주기를 모르는 회사는 항상 스크래핑
+@Slf4j
+@Component
+public class ScrapPrioritizer {
+    // 주기 추정에 사용할 최근 배당 개수
+    private static final int HISTORY_SIZE = 9;
+
+    public enum Decision {
+        UNKNOWN, // 주기를 모름
+        DUE,     // 예상 배당일 근처
+        SWEEP,   // 예상 배당일은 아니지만 전체 확인 차례
+        SKIP     // 건너뜀
+    }
+
+    private final DividendRepository dividendRepository;
+    private final boolean enabled;
+    private final int leadDays;
+    private final double graceRatio;
+    private final int fullSweepDays;
+
+    private final AtomicLong skippedFetches = new AtomicLong();
+    private final AtomicLong lateDividendsCaught = new AtomicLong();
+
+    public ScrapPrioritizer(DividendRepository dividendRepository,
+                            @Value("${scheduler.scrap.prioritize.enabled}") boolean enabled,
+                            @Value("${scheduler.scrap.prioritize.lead-days}") int leadDays,
+                            @Value("${scheduler.scrap.prioritize.grace-ratio}") double graceRatio,
+                            @Value("${scheduler.scrap.prioritize.full-sweep-days}") int fullSweepDays) {
+        if (leadDays < 0 || graceRatio < 0 || fullSweepDays < 1) {
+            throw new IllegalArgumentException("invalid scrap prioritization -> lead " + leadDays
+                    + ", grace " + graceRatio + ", sweep " + fullSweepDays);
+        }
+        this.dividendRepository = dividendRepository;
+        this.enabled = enabled;
+        this.leadDays = leadDays;
+        this.graceRatio = graceRatio;
+        this.fullSweepDays = fullSweepDays;
+    }
+
+    public Decision decide(CompanyEntity company) {
+        if (!this.enabled) {
+            return Decision.UNKNOWN;
+        }
+
+        List<LocalDate> dates = this.dividendRepository
+                .findTop9ByCompanyIdOrderByDateDesc(company.getId()).stream()
+                .map(DividendEntity::getDate)
+                .collect(Collectors.toList());
+        return this.decide(company, dates, LocalDate.now(ZoneOffset.UTC));
+    }
+
+    // 최근 배당금 날짜(최신순)로 today에 스크래핑할지 판단
+    Decision decide(CompanyEntity company, List<LocalDate> datesDesc, LocalDate today) {
+        Decision decision = DividendCadence.infer(datesDesc)
+                .map(cadence -> this.decide(company, cadence, today))
+                .orElse(Decision.UNKNOWN);
+        if (decision == Decision.SKIP) {
+            this.skippedFetches.incrementAndGet();
+        }
+        return decision;
+    }
+
+    // 예상일이 아닌데 새 배당금이 들어왔다면 전체 확인이 잡아낸 늦은 배당금
+    public void recordInserted(Decision decision, int inserted) {
+        if (decision == Decision.SWEEP && inserted > 0) {
+            this.lateDividendsCaught.addAndGet(inserted);
+        }
+    }
+
+    // 실행마다 건너뛴 횟수와 잡아낸 늦은 배당금 수를 따로 세도록 실행을 시작할 때 비운다.
+    public void resetCounters() {
+        this.skippedFetches.set(0);
+        this.lateDividendsCaught.set(0);
+    }
+
+    public long getSkippedFetches() {
+        return this.skippedFetches.get();
+    }
+
+    public long getLateDividendsCaught() {
+        return this.lateDividendsCaught.get();
+    }
+
+    private Decision decide(CompanyEntity company, DividendCadence cadence, LocalDate today) {
+        LocalDate expected = cadence.getExpectedDate();
+        long grace = Math.max(1, Math.round(cadence.getIntervalDays() * this.graceRatio));
+        if (!today.isBefore(expected.minusDays(this.leadDays)) && !today.isAfter(expected.plusDays(grace))) {
+            return Decision.DUE;
+        }
+
+        // 회사마다 전체 확인 날짜를 슬롯으로 어긋나게 해서 특정 날에 몰리지 않도록 한다.
+        if (Math.floorMod(today.toEpochDay() + company.getScrapSlot(), this.fullSweepDays) == 0) {
+            return Decision.SWEEP;
+        }
+        return Decision.SKIP;
+    }
+}
@@ -2,29 +2,69 @@ package dev.dividendproject.scheduler;
 
 
 import dev.dividendproject.persist.entity.CompanyEntity;
-import dev.dividendproject.persist.entity.DividendEntity;
 import dev.dividendproject.model.Company;
+import dev.dividendproject.model.DividendFingerprint;
+import dev.dividendproject.model.IngestResult;
 import dev.dividendproject.model.ScrapedResult;
-import dev.dividendproject.model.constants.CacheKey;
+import dev.dividendproject.model.constants.ScheduleStrategy;
+import dev.dividendproject.model.constants.ScrapMode;
 import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendBulkRepository;
 import dev.dividendproject.persist.DividendRepository;
 import dev.dividendproject.scraper.Scraper;
-import lombok.AllArgsConstructor;
+import dev.dividendproject.service.DividendCalendarService;
+import dev.dividendproject.service.FinanceService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ScraperScheduler {
+    // 단일 인스턴스 실행의 커서 이름
+    private static final String CURSOR_ALL = "all";
 
     private final CompanyRepository companyRepository;
     private final DividendRepository dividendRepository;
+    private final DividendBulkRepository dividendBulkRepository;
     private final Scraper yahooFinanceScraper;
+    private final ExecutorService scrapExecutor;
+    private final FinanceService financeService;
+    private final DividendCalendarService dividendCalendarService;
+    private final ClusterScrapCoordinator clusterScrapCoordinator;
+    private final RollingScrapSchedule rollingScrapSchedule;
+    private final ScrapPrioritizer scrapPrioritizer;
+    private final ScrapCursorStore scrapCursorStore;
+
+    // INCREMENTAL : 마지막 배당금 날짜 이후만, BACKFILL : 전체 히스토리
+    @Value("${scheduler.scrap.mode}")
+    private ScrapMode scrapMode;
+
+    // CRON : 하루 한 번 전체, ROLLING : 하루(window) 동안 회사마다 정해진 슬롯에 나눠서
+    @Value("${scheduler.scrap.strategy}")
+    private ScheduleStrategy scheduleStrategy;
+
+    // 한 번에 읽어서 처리할 회사 수
+    @Value("${scheduler.scrap.chunk.size}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    // 롤링 모드에서 스크래핑 통계를 세고 있는 window 바퀴
+    private long rollingWindow = -1;
 
 //    @Scheduled(fixedDelay = 1000)
 //    public void test1() throws InterruptedException{
@@ -38,51 +78,181 @@ public class ScraperScheduler {
 //        System.out.println(Thread.currentThread().getName() + " -> 테스트 2 :" + LocalDateTime.now());
 //    }
 
-    // 일정 주기마다 수행       // yml에서 작성된 경로    // 이렇게 삭제를 하면 이후에 또 배당금을 조회하는 시점에 다시 새로운 데이터가 저장된다
-    @CacheEvict(value= CacheKey.KEY_FINANCE, allEntries = true) // 레디스 캐시에 있는 finance 엔트리에 있는 데이터는 모두 다 비운다는 뜻
-    @Scheduled(cron = "${scheduler.scrap.yahoo}")
+    // 일정 주기마다 수행       // yml에서 작성된 경로
+    // 캐시는 전체를 비우지 않고, 새 배당금이 저장된 회사만 비운다. (이후에 배당금을 조회하는 시점에 다시 새로운 데이터가 저장된다)
+    @Scheduled(cron = "${scheduler.scrap.yahoo}", zone = "${scheduler.scrap.zone}")
     public void yahooFinanceScheduling() {
-        log.info("scraping scheduler is started");
-        // 저장된 회사 목록을 조회
-        List<CompanyEntity> companies = this.companyRepository.findAll();
+        if (this.scheduleStrategy != ScheduleStrategy.CRON) {
+            return;
+        }
+        this.run(false);
+    }
+
+    // 단일 인스턴스에서 실행 도중 내려갔다면 기동하자마자 남은 회사부터 이어서 처리
+    // (클러스터 모드는 다른 노드가 만료된 샤드를 넘겨받아 샤드 커서부터 이어서 처리한다)
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (this.scheduleStrategy != ScheduleStrategy.CRON || this.clusterScrapCoordinator.isEnabled()) {
+            return;
+        }
+        this.scrapCursorStore.get(CURSOR_ALL).ifPresent(lastId -> {
+            log.info("resume interrupted scraping run -> after company " + lastId);
+            new CustomizableThreadFactory("scrap-resume-").newThread(() -> this.run(true)).start();
+        });
+    }
+
+    // resume : 단일 인스턴스의 커서는 실행마다 나뉘지 않으므로, 기동할 때 중단된 실행을 이어갈 때만 커서를 읽는다.
+    //          (크론 실행이 지난 실행의 커서부터 시작하면 그 앞의 회사를 하루 동안 건너뛴다)
+    //          클러스터 모드의 커서는 실행과 샤드마다 이름이 달라서 항상 이어서 처리한다.
+    void run(boolean resume) {
+        // 재시작 후 이어서 처리 중인 실행과 겹치지 않도록 한다.
+        if (!this.running.compareAndSet(false, true)) {
+            log.warn("previous scraping run is still in progress, skip this run");
+            return;
+        }
+        try {
+            log.info("scraping scheduler is started -> mode " + this.scrapMode);
+            long startedAt = System.currentTimeMillis();
+            this.scrapPrioritizer.resetCounters();
+
+            // 여러 인스턴스가 떠 있으면 샤드 단위로 나눠서 처리하고, 아니면 저장된 회사 전체를 처리
+            if (this.clusterScrapCoordinator.isEnabled()) {
+                int shards = this.clusterScrapCoordinator.getShards();
+                this.clusterScrapCoordinator.runShards((shard, cursorName) -> this.scrapInChunks(cursorName, true,
+                        (lastId, page) -> this.companyRepository.findInShardAfter(shards, shard, lastId, page)));
+            } else {
+                this.scrapInChunks(CURSOR_ALL, resume, this.companyRepository::findByIdGreaterThanOrderByIdAsc);
+            }
+            log.info(String.format("scraping scheduler is finished -> %d ms, %d fetches skipped, %d late dividends caught",
+                    System.currentTimeMillis() - startedAt,
+                    this.scrapPrioritizer.getSkippedFetches(), this.scrapPrioritizer.getLateDividendsCaught()));
+        } finally {
+            this.running.set(false);
+        }
+    }
+
+    // 회사를 id 순서대로 chunkSize 개씩 읽어서 처리하고, 청크가 끝날 때마다 커서를 저장
+    // 스케줄러는 트랜잭션 밖에서 돌기 때문에 청크 조회마다 영속성 컨텍스트가 열렸다 닫혀서 엔터티는 바로 준영속 상태가 되고,
+    // (비울 영속성 컨텍스트가 남지 않는다) 청크 참조를 놓으면 GC 대상이 되어 회사 수가 늘어도 메모리는 청크 크기만큼만 쓴다.
+    private IngestResult scrapInChunks(String cursorName, boolean resume, ChunkLoader loader) {
+        long lastId = resume ? this.scrapCursorStore.get(cursorName).orElse(0L) : 0L;
+        Pageable page = PageRequest.of(0, this.chunkSize);
+        IngestResult total = new IngestResult();
+        int companies = 0;
+
+        List<CompanyEntity> chunk;
+        while (!(chunk = loader.load(lastId, page)).isEmpty()) {
+            total = total.plus(this.scrapCompanies(chunk));
+            companies += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getId();
+            this.scrapCursorStore.save(cursorName, lastId);
+        }
+        this.scrapCursorStore.clear(cursorName);
+        log.info(String.format("scraped in chunks -> %s, %d companies, %d inserted, %d skipped",
+                cursorName, companies, total.getInserted(), total.getSkipped()));
+        return total;
+    }
 
-        // 회사마다 배당금 정보를 서로 스크래핑
-        for (var company : companies) {
-            log.info("scraping scheduler is started -> " + company.getName());
-            ScrapedResult scrapedResult = this.yahooFinanceScraper.scrap(
-                    new Company(company.getTicker(), company.getName()));
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<CompanyEntity> load(Long lastId, Pageable page);
+    }
+
+    // 롤링 모드 : 틱마다 슬롯이 지난 회사들만 조금씩 스크래핑
+    // 한 번에 몰리던 요청, DB 쓰기, 캐시 삭제가 하루 전체에 고르게 퍼진다.
+    // 여러 인스턴스가 떠 있어도 슬롯 구간을 레디스에서 나눠 받기 때문에 같은 회사를 한 번만 처리한다.
+    @Scheduled(fixedDelayString = "${scheduler.scrap.rolling.tick}")
+    public void rollingScheduling() {
+        if (this.scheduleStrategy != ScheduleStrategy.ROLLING) {
+            return;
+        }
+        // 롤링 모드는 window 한 바퀴를 한 번의 실행으로 보고 통계를 남긴 뒤 새로 센다.
+        long window = this.rollingScrapSchedule.currentWindow();
+        if (window != this.rollingWindow) {
+            if (this.rollingWindow >= 0) {
+                log.info(String.format("rolling scrap window is finished -> %d fetches skipped, %d late dividends caught",
+                        this.scrapPrioritizer.getSkippedFetches(), this.scrapPrioritizer.getLateDividendsCaught()));
+            }
+            this.scrapPrioritizer.resetCounters();
+            this.rollingWindow = window;
+        }
+        List<CompanyEntity> batch = this.rollingScrapSchedule.nextBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        this.scrapCompanies(batch);
+        this.rollingScrapSchedule.record(batch.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private IngestResult scrapCompanies(List<CompanyEntity> companies) {
+        // 회사마다 배당금 정보를 워커 풀에 나눠서 스크래핑
+        // 예전에는 회사마다 Thread.sleep(3000)으로 쉬었지만, 이제 요청 간격은 HostRateLimiter가 호스트 단위로 지켜준다.
+        List<CompletableFuture<IngestResult>> tasks = companies.stream()
+                .map(company -> CompletableFuture.supplyAsync(() -> this.scrapAndStore(company), this.scrapExecutor))
+                .collect(Collectors.toList());
+
+        // 모든 회사의 작업이 끝날 때까지 기다린다.
+        IngestResult total = tasks.stream()
+                .map(CompletableFuture::join)
+                .reduce(new IngestResult(), IngestResult::plus);
+        log.info(String.format("scraped companies -> %d companies, %d inserted, %d skipped",
+                companies.size(), total.getInserted(), total.getSkipped()));
+        return total;
+    }
+
+    private IngestResult scrapAndStore(CompanyEntity company) {
+        try {
+            // 배당 예정일과 거리가 먼 회사는 요청을 보내지 않는다. (BACKFILL은 항상 전체를 다시 받는다)
+            ScrapPrioritizer.Decision decision = this.scrapMode == ScrapMode.BACKFILL
+                    ? ScrapPrioritizer.Decision.UNKNOWN
+                    : this.scrapPrioritizer.decide(company);
+            if (decision == ScrapPrioritizer.Decision.SKIP) {
+                return new IngestResult();
+            }
+            log.info("scraping scheduler is started -> " + company.getName() + " (" + decision + ")");
+
+            ScrapedResult scrapedResult = this.scrap(company);
+
+            // 지난번과 같은 테이블이면 DB 저장과 캐시 삭제를 모두 건너뛴다.
+            String fingerprint = DividendFingerprint.of(scrapedResult.getDividends());
+            if (fingerprint.equals(company.getDividendFingerprint())) {
+                return new IngestResult(0, scrapedResult.getDividends().size());
+            }
 
             // 스크래핑한 배당금 정보 중 데이터베이스에 없는 값만 저장
-            // 하나씩 있는지 확인하면서 저장을 해줘야 예외처리 한것이 바르게 작동하게 된다.
-            scrapedResult.getDividends().stream()
-                    // dividend 모델을 dividend 엔터티로 맵핑
-                    .map(e -> new DividendEntity(company.getId(), e))
-                    // 엘리먼트를 하나씩 dividend 레파지토리에 삽입(없는 값만)
-                    .forEach(e -> {  // 데이터들을 for each문으로 돌면서 있는지 없는지 불린값으로 받아냄
-                        boolean exists = this.dividendRepository.existsByCompanyIdAndDate(e.getCompanyId(), e.getDate());
-                        if (!exists) {
-                            this.dividendRepository.save(e);
-                            log.info("insert new dividend -> " + e.toString());
-                        }
-                    });
-
-            // 연속적으로 스크래핑 대상 사이트 서버에 요청을 날리지 않도록 일시 정지
-            try {
-                Thread.sleep(3000); // 3 seconds
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                Thread.currentThread().interrupt();
+            // (companyId, date) 유니크 키 기준으로 없는 행만 배치로 한 번에 삽입한다.
+            IngestResult result = this.dividendBulkRepository.upsertAll(company.getId(), scrapedResult.getDividends());
+            if (result.getInserted() > 0) {
+                log.info(String.format("insert new dividend -> %s, %d rows", company.getName(), result.getInserted()));
+                this.financeService.evictDividends(company.getName(), company.getId(), scrapedResult.getDividends().stream()
+                        .map(d -> d.getDate().getYear())
+                        .collect(Collectors.toSet()));
+                this.dividendCalendarService.evictSettled(scrapedResult.getDividends().stream()
+                        .map(d -> d.getDate().toLocalDate())
+                        .collect(Collectors.toSet()));
             }
-            // Thread.sleep(n)
-            // : 실행중인 스레드를 잠시 멈추게 할 때 사용, thread.sleep(1000); 1초간 정지
-            // InterruptedException : 인터럽트를 받는 스레드가 blocking 될 수 있는 메소드를 실행할 때 발생
-            // sleep() vs wait()
-            // wait()는 스레드를 대기 상태에 빠뜨림
-            // notify()나 notifyAll() 메소드를 호출할 때까지 자동으로 꺠지 않음
-            // Thread 5 status
-            // New, Ready, Running, Blocked/Waiting, Exit
+            this.scrapPrioritizer.recordInserted(decision, result.getInserted());
+            this.companyRepository.updateDividendFingerprint(company.getId(), fingerprint);
+            return result;
+        } catch (RuntimeException e) {
+            // 한 회사의 실패가 나머지 회사의 스크래핑을 멈추지 않도록 기록만 남긴다.
+            log.error("failed to scrap company -> " + company.getTicker(), e);
+            return new IngestResult();
         }
     }
+
+    private ScrapedResult scrap(CompanyEntity company) {
+        var model = new Company(company.getTicker(), company.getName());
+        if (this.scrapMode == ScrapMode.BACKFILL) {
+            return this.yahooFinanceScraper.scrap(model);
+        }
+
+        // 이미 저장된 배당금이 있다면 마지막 날짜부터만 요청한다. (마지막 날짜는 기존 중복 체크로 걸러진다)
+        return this.dividendRepository.findFirstByCompanyIdOrderByDateDesc(company.getId())
+                .map(latest -> this.yahooFinanceScraper.scrap(model, latest.getDate().atStartOfDay()))
+                .orElseGet(() -> this.yahooFinanceScraper.scrap(model));
+    }
 }
 // Thread Pool : 여러 개의 스레드를 유지/관리
 // 적정 사이즈는? CPU 처리가 많은 경우 : n+1, I/O 작업이 많은 경우 : 코어 갯수 *2 정도
\ No newline at end of file
@@ -0,0 +1,21 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.ScrapedResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Scraper의 논블로킹 버전
+// 네트워크 오류나 타임아웃은 예외로 완료된 future로 돌려준다.
+public interface AsyncScraper {
+    CompletableFuture<Company> scrapCompanyByTickerAsync(String ticker);
+    CompletableFuture<ScrapedResult> scrapAsync(Company company);
+    CompletableFuture<ScrapedResult> scrapAsync(Company company, LocalDateTime since);
+
+    // 받아오기(네트워크)와 파싱(CPU)을 나눠서 실행하고 싶을 때 사용
+    CompletableFuture<FetchedPage> fetchHistoryAsync(Company company);
+    List<Dividend> parseHistory(FetchedPage page);
+}
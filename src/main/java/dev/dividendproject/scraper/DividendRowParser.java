@@ -0,0 +1,97 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.constants.Month;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// 히스토리 테이블의 한 행("Mar 14, 2023 0.46 Dividend")을 배당금으로 변환
+// split()이나 Integer.valueOf()로 중간 문자열을 만들지 않고 한 글자씩 읽어서 파싱한다.
+@Component
+public class DividendRowParser {
+    private static final String DIVIDEND_SUFFIX = "Dividend";
+
+    // 배당금 행인지 먼저 확인해서, 대부분을 차지하는 주가 행은 바로 버린다.
+    public boolean isDividendRow(CharSequence row) {
+        int offset = row.length() - DIVIDEND_SUFFIX.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < DIVIDEND_SUFFIX.length(); i++) {
+            if (row.charAt(offset + i) != DIVIDEND_SUFFIX.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 배당금 행이 아니면 null
+    public Dividend parse(CharSequence row) {
+        if (!this.isDividendRow(row)) {
+            return null;
+        }
+
+        int month = Month.strToNumber(row, 0);
+        if (month < 0) {
+            throw new RuntimeException("Unexpected Month enum value ->" + row);
+        }
+
+        int pos = skipSpaces(row, 3);
+        int day = 0;
+        int start = pos;
+        for (; pos < row.length() && isDigit(row.charAt(pos)); pos++) {
+            day = day * 10 + (row.charAt(pos) - '0');
+        }
+        if (pos == start || pos >= row.length() || row.charAt(pos) != ',') {
+            throw new RuntimeException("Unexpected dividend row ->" + row);
+        }
+
+        pos = skipSpaces(row, pos + 1);
+        int year = 0;
+        start = pos;
+        for (; pos < row.length() && isDigit(row.charAt(pos)); pos++) {
+            year = year * 10 + (row.charAt(pos) - '0');
+        }
+        if (pos == start) {
+            throw new RuntimeException("Unexpected dividend row ->" + row);
+        }
+
+        // 금액은 소수점 자리수를 그대로 유지하도록 unscaled 값과 scale로 만든다. (0.46 -> 46, scale 2)
+        pos = skipSpaces(row, pos);
+        long unscaled = 0;
+        int scale = -1;
+        start = pos;
+        for (; pos < row.length(); pos++) {
+            char c = row.charAt(pos);
+            if (isDigit(c)) {
+                unscaled = unscaled * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c != ',') {
+                break;
+            }
+        }
+        if (pos == start || pos + DIVIDEND_SUFFIX.length() > row.length()) {
+            throw new RuntimeException("Unexpected dividend row ->" + row);
+        }
+
+        return new Dividend(LocalDateTime.of(year, month, day, 0, 0),
+                BigDecimal.valueOf(unscaled, Math.max(scale, 0)));
+    }
+
+    private static int skipSpaces(CharSequence row, int pos) {
+        while (pos < row.length() && row.charAt(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,26 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Company;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// 받아오기만 하고 아직 파싱하지 않은 히스토리 페이지 (본문 스트림은 파싱하는 쪽에서 닫는다)
+@Getter
+@AllArgsConstructor
+public class FetchedPage {
+    private final Company company;
+    private final String url;
+    private final InputStream body;
+
+    // 본문을 메모리에 다 읽고 원래 스트림(연결 또는 캐시 파일)은 닫은 페이지
+    // 파싱하기 전에 큐에서 기다려야 할 때 사용한다.
+    public FetchedPage buffered() throws IOException {
+        try (InputStream in = this.body) {
+            return new FetchedPage(this.company, this.url, new ByteArrayInputStream(in.readAllBytes()));
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Dividend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+// 히스토리 페이지를 DOM으로 만들지 않고, 응답을 읽는 대로 태그/텍스트 단위로 훑으면서 배당금 행만 뽑아낸다.
+// 한 번에 메모리에 올라가는 것은 읽기 버퍼와 현재 행의 텍스트 뿐이라 히스토리 길이와 상관없이 사용량이 일정하다.
+// 테이블이 닫히면 나머지 페이지는 파싱하지 않는다. (캐시를 끈 경우에는 스트림을 닫으면서 나머지 다운로드도 멈춘다.
+// 캐시를 켜면 본문 전체를 먼저 디스크에 저장하므로 다운로드 양은 줄지 않는다)
+@Component
+@RequiredArgsConstructor
+public class HistoricalPricesStreamExtractor {
+    private static final String TABLE_MARKER = "data-test=\"historical-prices\"";
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    private final DividendRowParser dividendRowParser;
+
+    public void extract(Reader reader, Consumer<Dividend> sink) throws IOException {
+        var in = new CharSource(reader);
+        var tag = new StringBuilder();
+        var row = new StringBuilder();
+
+        boolean inTable = false;
+        int depth = 0; // 대상 테이블 안에 중첩된 테이블 깊이 (대상 테이블이 1)
+        boolean inBody = false;
+        boolean inRow = false;
+
+        int c;
+        while ((c = in.next()) != -1) {
+            if (c == '<') {
+                readTag(in, tag);
+                if (tag.length() == 0) {
+                    continue;
+                }
+                if (startsWith(tag, "!--")) {
+                    skipComment(in, tag);
+                    continue;
+                }
+
+                boolean closing = tag.charAt(0) == '/';
+                String name = tagName(tag, closing ? 1 : 0);
+
+                if (!closing && (name.equals("script") || name.equals("style"))) {
+                    skipUntilClosingTag(in, name);
+                    continue;
+                }
+                if (!inTable) {
+                    if (!closing && name.equals("table") && contains(tag, TABLE_MARKER)) {
+                        inTable = true;
+                        depth = 1;
+                    }
+                    continue;
+                }
+
+                if (name.equals("table")) {
+                    depth += closing ? -1 : 1;
+                    if (depth == 0) {
+                        return;
+                    }
+                    appendSpace(row);
+                    continue;
+                }
+                if (depth > 1) {
+                    // 중첩된 테이블의 행/칸은 바깥 행의 텍스트로 이어 붙인다. (Element.text()와 같게)
+                    if (inRow && (name.equals("td") || name.equals("th") || name.equals("tr"))) {
+                        appendSpace(row);
+                    }
+                    continue;
+                }
+
+                switch (name) {
+                    case "tbody":
+                        inBody = !closing;
+                        break;
+                    case "tr":
+                        if (!closing) {
+                            row.setLength(0);
+                            inRow = true;
+                        } else if (inRow) {
+                            inRow = false;
+                            this.emit(row, inBody, sink);
+                        }
+                        break;
+                    case "td":
+                    case "th":
+                        // 칸 사이는 Element.text()처럼 공백 한 칸으로 이어 붙인다.
+                        appendSpace(row);
+                        break;
+                    default:
+                        break;
+                }
+            } else if (inRow) {
+                if (c == '&') {
+                    appendEntity(in, row);
+                } else if (Character.isWhitespace(c)) {
+                    appendSpace(row);
+                } else {
+                    row.append((char) c);
+                }
+            }
+        }
+
+        if (!inTable) {
+            throw new RuntimeException("historical-prices table not found");
+        }
+    }
+
+    private void emit(StringBuilder row, boolean inBody, Consumer<Dividend> sink) {
+        int end = row.length();
+        while (end > 0 && row.charAt(end - 1) == ' ') {
+            end--;
+        }
+        row.setLength(end);
+        if (!inBody || !this.dividendRowParser.isDividendRow(row)) {
+            return;
+        }
+        Dividend dividend = this.dividendRowParser.parse(row);
+        if (dividend != null) {
+            sink.accept(dividend);
+        }
+    }
+
+    // '<' 다음부터 '>' 까지를 tag에 담는다. (따옴표 안의 '>'는 무시)
+    private static void readTag(CharSource in, StringBuilder tag) throws IOException {
+        tag.setLength(0);
+        char quote = 0;
+        int c;
+        while ((c = in.next()) != -1) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '>') {
+                return;
+            }
+            tag.append((char) c);
+        }
+    }
+
+    private static void skipComment(CharSource in, StringBuilder tag) throws IOException {
+        // <!-- ... --> 가 한 번에 읽힌 경우
+        if (tag.length() >= 5 && tag.charAt(tag.length() - 1) == '-' && tag.charAt(tag.length() - 2) == '-') {
+            return;
+        }
+        int dashes = 0;
+        int c;
+        while ((c = in.next()) != -1) {
+            if (c == '>' && dashes >= 2) {
+                return;
+            }
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    // <script>, <style> 안의 '<'를 태그로 읽지 않도록 닫는 태그까지 건너뛴다.
+    private static void skipUntilClosingTag(CharSource in, String name) throws IOException {
+        String closing = "</" + name;
+        int matched = 0;
+        int c;
+        while ((c = in.next()) != -1) {
+            if (Character.toLowerCase((char) c) == closing.charAt(matched)) {
+                matched++;
+                if (matched == closing.length()) {
+                    while ((c = in.next()) != -1 && c != '>') {
+                        // 닫는 태그의 나머지
+                    }
+                    return;
+                }
+            } else {
+                matched = c == '<' ? 1 : 0;
+            }
+        }
+    }
+
+    // &이름; 또는 &#숫자; 형태만 엔티티로 보고, 그 외에는 '&'를 글자 그대로 둔다. ("AT&T Inc")
+    private static void appendEntity(CharSource in, StringBuilder row) throws IOException {
+        var entity = new StringBuilder(8);
+        int c;
+        while ((c = in.next()) != -1 && entity.length() < MAX_ENTITY_LENGTH
+                && (Character.isLetterOrDigit(c) || c == '#')) {
+            entity.append((char) c);
+        }
+        if (c != ';') {
+            row.append('&').append(entity);
+            if (c != -1) {
+                in.unread();
+            }
+            return;
+        }
+        String name = entity.toString();
+        switch (name) {
+            case "amp":
+                row.append('&');
+                break;
+            case "lt":
+                row.append('<');
+                break;
+            case "gt":
+                row.append('>');
+                break;
+            case "quot":
+                row.append('"');
+                break;
+            case "apos":
+                row.append('\'');
+                break;
+            case "nbsp":
+                appendSpace(row);
+                break;
+            default:
+                appendNumericEntity(name, row);
+                break;
+        }
+    }
+
+    private static void appendNumericEntity(String name, StringBuilder row) {
+        if (!name.startsWith("#") || name.length() < 2) {
+            return; // 배당금 행에는 다른 이름의 엔티티가 나오지 않는다.
+        }
+        try {
+            int codePoint = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+                    ? Integer.parseInt(name.substring(2), 16)
+                    : Integer.parseInt(name.substring(1));
+            if (codePoint == 0xA0 || Character.isWhitespace(codePoint)) {
+                appendSpace(row);
+            } else if (Character.isValidCodePoint(codePoint)) {
+                row.appendCodePoint(codePoint);
+            }
+        } catch (NumberFormatException ignored) {
+            // 잘못된 숫자 엔티티는 버린다.
+        }
+    }
+
+    private static void appendSpace(StringBuilder row) {
+        if (row.length() > 0 && row.charAt(row.length() - 1) != ' ') {
+            row.append(' ');
+        }
+    }
+
+    private static String tagName(StringBuilder tag, int from) {
+        int end = from;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '/') {
+            end++;
+        }
+        return tag.substring(from, end).toLowerCase();
+    }
+
+    private static boolean startsWith(CharSequence s, String prefix) {
+        if (s.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (s.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(StringBuilder s, String target) {
+        return s.indexOf(target) >= 0;
+    }
+
+    // BufferedReader.read()의 락을 매 글자마다 잡지 않도록 직접 버퍼링
+    private static final class CharSource {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int pos;
+        private int len;
+
+        CharSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        int next() throws IOException {
+            if (this.pos == this.len) {
+                this.len = this.reader.read(this.buffer);
+                this.pos = 0;
+                if (this.len <= 0) {
+                    this.len = 0;
+                    return -1;
+                }
+            }
+            return this.buffer[this.pos++];
+        }
+
+        // 마지막으로 읽은 한 글자를 되돌린다. (next() 바로 뒤에만 호출)
+        void unread() {
+            this.pos--;
+        }
+    }
+}
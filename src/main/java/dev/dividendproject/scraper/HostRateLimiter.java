@@ -0,0 +1,60 @@
+package dev.dividendproject.scraper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 스크래핑 대상 호스트별 토큰 버킷
+// 여러 워커가 동시에 요청하더라도 같은 호스트로 나가는 요청은 초당 permitsPerSecond 를 넘지 않는다.
+@Component
+public class HostRateLimiter {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public HostRateLimiter(@Value("${scraper.rate-limit.permits-per-second}") double permitsPerSecond,
+                           @Value("${scraper.rate-limit.burst}") int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("invalid rate limit -> " + permitsPerSecond + "/s, burst " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    // 토큰 하나를 예약하고, 요청을 보내기 전까지 기다려야 하는 시간(ns)을 돌려준다.
+    public long reserve(String host) {
+        return this.buckets
+                .computeIfAbsent(host, h -> new TokenBucket(this.permitsPerSecond, this.burst))
+                .reserve();
+    }
+
+    // 토큰이 모자라면 음수로 빌려 쓰고(예약), 빌린 만큼 기다리게 해서 요청 순서대로 공평하게 분배한다.
+    private static class TokenBucket {
+        private final double permitsPerNano;
+        private final int capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double permitsPerSecond, int capacity) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.permitsPerNano);
+            this.lastRefill = now;
+
+            this.tokens -= 1;
+            if (this.tokens >= 0) {
+                return 0;
+            }
+            return (long) Math.ceil(-this.tokens / this.permitsPerNano);
+        }
+    }
+}
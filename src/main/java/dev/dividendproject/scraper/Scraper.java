@@ -3,7 +3,11 @@ package dev.dividendproject.scraper;
 import dev.dividendproject.model.Company;
 import dev.dividendproject.model.ScrapedResult;
 
+import java.time.LocalDateTime;
+
 public interface Scraper {
     Company scrapCompanyByTicker(String ticker);
     ScrapedResult scrap(Company company);
+    // since 이후(포함)의 배당금만 스크래핑
+    ScrapedResult scrap(Company company, LocalDateTime since);
 }
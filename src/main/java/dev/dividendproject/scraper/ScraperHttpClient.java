@@ -0,0 +1,203 @@
+package dev.dividendproject.scraper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 논블로킹 HTTP 요청
+// 요청 스레드를 붙잡고 기다리지 않고, 응답이 오면 CompletableFuture가 완료된다.
+// cacheKey가 같은 요청은 ScraperResponseCache를 거쳐서 가능한 한 네트워크를 쓰지 않는다.
+// 캐시 파일 읽기/쓰기와 본문 읽기는 HttpClient 스레드를 막지 않도록 scraperIoExecutor에서 한다.
+// HttpRequest.timeout은 헤더가 도착할 때까지만 적용되므로, 본문은 bodyTimeout이 지나면 스트림을 닫아서 읽기를 끝낸다.
+@Component
+public class ScraperHttpClient {
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/112.0 Safari/537.36";
+
+    private final HttpClient scraperHttpClient;
+    private final HostRateLimiter hostRateLimiter;
+    private final ScraperResponseCache scraperResponseCache;
+    private final ExecutorService scraperIoExecutor;
+    private final Duration readTimeout;
+    private final Duration bodyTimeout;
+
+    public ScraperHttpClient(HttpClient scraperHttpClient,
+                             HostRateLimiter hostRateLimiter,
+                             ScraperResponseCache scraperResponseCache,
+                             ExecutorService scraperIoExecutor,
+                             @Value("${scraper.http.read-timeout}") Duration readTimeout,
+                             @Value("${scraper.http.body-timeout}") Duration bodyTimeout) {
+        this.scraperHttpClient = scraperHttpClient;
+        this.hostRateLimiter = hostRateLimiter;
+        this.scraperResponseCache = scraperResponseCache;
+        this.scraperIoExecutor = scraperIoExecutor;
+        this.readTimeout = readTimeout;
+        this.bodyTimeout = bodyTimeout;
+    }
+
+    public CompletableFuture<String> getAsync(String url, String cacheKey) {
+        return this.getStreamAsync(url, cacheKey)
+                .thenApplyAsync(body -> {
+                    try (InputStream in = body) {
+                        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, this.scraperIoExecutor);
+    }
+
+    // 캐시를 끈 경우 본문을 다 받기 전에 헤더가 도착하면 바로 완료되고, 켠 경우 본문을 캐시 파일에 다 쓴 뒤에 완료된다.
+    // 스트림은 받는 쪽에서 닫아야 한다.
+    // url에 현재 시간처럼 매번 바뀌는 값이 들어가기 때문에, 같은 내용의 요청인지는 cacheKey로 구분한다.
+    public CompletableFuture<InputStream> getStreamAsync(String url, String cacheKey) {
+        if (!this.scraperResponseCache.isEnabled()) {
+            return this.sendAsync(url, null).thenApply(response -> {
+                ensureStatus(response, 200, url);
+                return response.body();
+            });
+        }
+
+        return CompletableFuture.supplyAsync(() -> this.scraperResponseCache.lookup(cacheKey), this.scraperIoExecutor)
+                .thenCompose(cached -> {
+                    if (cached.isPresent() && this.scraperResponseCache.isFresh(cached.get())) {
+                        // freshness 안이면 요청을 보내지 않는다.
+                        try {
+                            return CompletableFuture.completedFuture(this.scraperResponseCache.open(cached.get()));
+                        } catch (IOException e) {
+                            return CompletableFuture.failedFuture(e);
+                        }
+                    }
+                    return this.fetchAndStore(url, cacheKey, cached);
+                });
+    }
+
+    // 본문을 캐시 파일에 다 받아 쓴 뒤에 파일 스트림을 돌려준다.
+    private CompletableFuture<InputStream> fetchAndStore(String url, String cacheKey,
+                                                         Optional<ScraperResponseCache.Entry> cached) {
+        return this.sendAsync(url, cached.orElse(null)).thenApplyAsync(response -> {
+            try {
+                if (response.statusCode() == 304 && cached.isPresent()) {
+                    response.body().close();
+                    return this.scraperResponseCache.open(this.scraperResponseCache.touch(cached.get()));
+                }
+                ensureStatus(response, 200, url);
+
+                var headers = response.headers();
+                var stored = this.scraperResponseCache.store(cacheKey, response.body(),
+                        headers.firstValue("ETag").orElse(null),
+                        headers.firstValue("Last-Modified").orElse(null));
+                return this.scraperResponseCache.open(stored);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, this.scraperIoExecutor);
+    }
+
+    private CompletableFuture<HttpResponse<InputStream>> sendAsync(String url, ScraperResponseCache.Entry cached) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(this.readTimeout)
+                .header("User-Agent", USER_AGENT)
+                .GET();
+
+        // 저장된 본문이 있으면 조건부 요청으로 바뀐 내용이 있을 때만 본문을 받는다.
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        HttpRequest request = builder.build();
+
+        // 토큰을 기다리는 동안에도 스레드를 재우지 않고, 예약된 시간 뒤에 요청을 보낸다.
+        long waitNanos = this.hostRateLimiter.reserve(uri.getHost());
+        Executor sendAfter = waitNanos > 0
+                ? CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+
+        return CompletableFuture.supplyAsync(() -> request, sendAfter)
+                .thenCompose(r -> this.scraperHttpClient.sendAsync(r, responseInfo ->
+                        HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+                                body -> new DeadlineInputStream(body, url, this.bodyTimeout))));
+    }
+
+    private static void ensureStatus(HttpResponse<InputStream> response, int expected, String url) {
+        if (response.statusCode() == expected) {
+            return;
+        }
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // 이미 실패한 응답이라 닫는 중 오류는 무시
+        }
+        throw new CompletionException(
+                new IOException("unexpected status -> " + response.statusCode() + " " + url));
+    }
+
+    // 헤더가 도착한 시점부터 timeout이 지나면 스트림을 닫는다.
+    // 닫으면 본문을 기다리며 막혀 있던 read가 깨어나서 실패하고, 그 전에 다 읽고 닫았다면 아무 일도 하지 않는다.
+    private static class DeadlineInputStream extends FilterInputStream {
+        private final String url;
+        private volatile boolean expired;
+
+        DeadlineInputStream(InputStream in, String url, Duration timeout) {
+            super(in);
+            this.url = url;
+            CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS).execute(this::expire);
+        }
+
+        private void expire() {
+            this.expired = true;
+            try {
+                this.in.close();
+            } catch (IOException ignored) {
+                // 읽는 쪽에서 시간 초과로 실패하므로 닫는 중 오류는 무시
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw this.translate(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                throw this.translate(e);
+            }
+        }
+
+        private IOException translate(IOException e) {
+            if (!this.expired) {
+                return e;
+            }
+            HttpTimeoutException timeout = new HttpTimeoutException("body read timed out -> " + this.url);
+            timeout.initCause(e);
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package dev.dividendproject.scraper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 스크래핑한 페이지를 로컬 디스크에 gzip으로 저장해 두는 캐시
+// - freshness 안에 다시 요청하면 네트워크 요청 없이 저장된 본문을 돌려준다.
+// - 그 이후에는 ETag / Last-Modified로 조건부 요청을 보내고, 304면 저장된 본문을 그대로 쓴다.
+// - 전체 크기가 max-size를 넘으면 오래된 항목부터 지운다.
+// 디스크를 읽고 쓰는 메서드라 HttpClient 스레드가 아닌 스크래퍼 I/O 풀에서 부른다. (ScraperHttpClient)
+@Slf4j
+@Component
+public class ScraperResponseCache {
+    private static final String BODY_SUFFIX = ".gz";
+    private static final String META_SUFFIX = ".properties";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSizeBytes;
+    private final Duration freshness;
+    private long totalSize; // 본문 파일 크기 합계 (this로 동기화)
+
+    public ScraperResponseCache(@Value("${scraper.cache.enabled}") boolean enabled,
+                                @Value("${scraper.cache.directory}") String directory,
+                                @Value("${scraper.cache.max-size}") DataSize maxSize,
+                                @Value("${scraper.cache.freshness}") Duration freshness) throws IOException {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxSizeBytes = maxSize.toBytes();
+        this.freshness = freshness;
+
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            this.totalSize = this.bodyFiles().stream().mapToLong(ScraperResponseCache::sizeOf).sum();
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public Optional<Entry> lookup(String key) {
+        Path meta = this.directory.resolve(hash(key) + META_SUFFIX);
+        if (!Files.exists(meta)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        Instant fetchedAt;
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            fetchedAt = Instant.ofEpochMilli(Long.parseLong(properties.getProperty("fetchedAt", "0")));
+        } catch (IOException | RuntimeException e) {
+            // 깨진 메타 파일은 없는 것으로 보고 다시 받는다. (다음 store가 덮어쓴다)
+            log.warn("failed to read cache entry -> " + key, e);
+            return Optional.empty();
+        }
+        Path body = this.directory.resolve(hash(key) + BODY_SUFFIX);
+        if (!Files.exists(body)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Entry(key, body,
+                properties.getProperty("etag"),
+                properties.getProperty("lastModified"),
+                fetchedAt));
+    }
+
+    public boolean isFresh(Entry entry) {
+        return entry.getFetchedAt().plus(this.freshness).isAfter(Instant.now());
+    }
+
+    // 응답 본문을 받는 대로 gzip 파일에 쓰고, 다 쓴 뒤에 원래 이름으로 옮긴다. (쓰는 도중의 파일을 다른 요청이 읽지 않도록)
+    public Entry store(String key, InputStream body, String etag, String lastModified) throws IOException {
+        String name = hash(key);
+        Path target = this.directory.resolve(name + BODY_SUFFIX);
+        Path temp = Files.createTempFile(this.directory, name, ".tmp");
+        try (InputStream in = body; OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // 같은 키를 동시에 저장하거나 지우는 중에 크기 합계가 어긋나지 않도록 교체와 계산을 한 번에 한다.
+        synchronized (this) {
+            long previous = Files.exists(target) ? sizeOf(target) : 0;
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.totalSize += sizeOf(target) - previous;
+        }
+
+        var entry = new Entry(key, target, etag, lastModified, Instant.now());
+        this.writeMeta(entry);
+        this.evictIfNeeded();
+        return entry;
+    }
+
+    // 304 응답 : 본문은 그대로 두고 받은 시간만 갱신
+    public Entry touch(Entry entry) throws IOException {
+        var touched = new Entry(entry.getKey(), entry.getBody(), entry.getEtag(), entry.getLastModified(), Instant.now());
+        Files.setLastModifiedTime(entry.getBody(), FileTime.from(touched.getFetchedAt()));
+        this.writeMeta(touched);
+        return touched;
+    }
+
+    public InputStream open(Entry entry) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(entry.getBody()));
+    }
+
+    private void writeMeta(Entry entry) throws IOException {
+        Properties properties = new Properties();
+        if (entry.getEtag() != null) {
+            properties.setProperty("etag", entry.getEtag());
+        }
+        if (entry.getLastModified() != null) {
+            properties.setProperty("lastModified", entry.getLastModified());
+        }
+        properties.setProperty("fetchedAt", String.valueOf(entry.getFetchedAt().toEpochMilli()));
+
+        // 본문처럼 임시 파일에 다 쓰고 옮겨서, 읽는 쪽이 쓰다 만 메타 파일을 보지 않게 한다.
+        String name = hash(entry.getKey());
+        Path temp = Files.createTempFile(this.directory, name, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, entry.getKey());
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, this.directory.resolve(name + META_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    synchronized long totalSize() {
+        return this.totalSize;
+    }
+
+    private synchronized void evictIfNeeded() {
+        if (this.totalSize <= this.maxSizeBytes) {
+            return;
+        }
+        // 마지막으로 쓴 시간이 오래된 순서대로 지운다.
+        List<Path> bodies = this.bodyFiles().stream()
+                .sorted(Comparator.comparingLong(ScraperResponseCache::lastModifiedOf))
+                .collect(Collectors.toList());
+        for (Path body : bodies) {
+            if (this.totalSize <= this.maxSizeBytes) {
+                break;
+            }
+            long size = sizeOf(body);
+            String name = body.getFileName().toString();
+            try {
+                Files.deleteIfExists(this.directory.resolve(name.substring(0, name.length() - BODY_SUFFIX.length()) + META_SUFFIX));
+                if (Files.deleteIfExists(body)) {
+                    this.totalSize -= size;
+                }
+            } catch (IOException e) {
+                log.warn("failed to evict cache entry -> " + body, e);
+            }
+        }
+    }
+
+    private List<Path> bodyFiles() {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(BODY_SUFFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModifiedOf(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String key;
+        private final Path body;
+        private final String etag;
+        private final String lastModified;
+        private final Instant fetchedAt;
+    }
+}
@@ -1,101 +1,200 @@
 package dev.dividendproject.scraper;
 
-import dev.dividendproject.model.constants.Month;
 import dev.dividendproject.model.Company;
 import dev.dividendproject.model.Dividend;
 import dev.dividendproject.model.ScrapedResult;
-import org.jsoup.Connection;
+import dev.dividendproject.model.constants.ExtractionMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
+@Slf4j
 @Component
-public class YahooFinanceScraper implements Scraper {
+@RequiredArgsConstructor
+public class YahooFinanceScraper implements Scraper, AsyncScraper {
     private static final String STATISTICS_URL = "https://finance.yahoo.com/quote/%s/history?period1=%d&period2=%d&interval=1mo";
     private static final String SUMMARY_URL = "https://finance.yahoo.com/quote/%s?p=%s";
     private static final long START_TIME = 86400; // 60초*60분*24하루
 
+    private final ScraperHttpClient scraperHttpClient;
+    private final DividendRowParser dividendRowParser;
+    private final HistoricalPricesStreamExtractor historicalPricesStreamExtractor;
+    // 본문 읽기는 막히는 작업이라 HttpClient 스레드가 아닌 스크래퍼 전용 풀에서 한다.
+    private final ExecutorService scraperIoExecutor;
+
+    // DOM : 페이지 전체를 Document로 파싱, STREAM : 받는 대로 읽으면서 배당금 행만 추출
+    @Value("${scraper.extraction}")
+    private ExtractionMode extractionMode;
+
     @Override
     public ScrapedResult scrap(Company company){
-        var scrapResult = new ScrapedResult();
-        scrapResult.setCompany(company);
+        return this.scrap(company, START_TIME);
+    }
 
+    @Override
+    public ScrapedResult scrap(Company company, LocalDateTime since){
+        return this.scrap(company, toStartTime(since));
+    }
+
+    private ScrapedResult scrap(Company company, long startTime){
         try {
-            long now = System.currentTimeMillis() / 1000; //  끝시간
-            // 현재시간을 밀리세컨으로 받는 값이라 밀리에서 1000으로 나눠서 받는다.    // 시작시간, 끝시간
-            String url = String.format(STATISTICS_URL, company.getTicker(), START_TIME, now); // 치환받을 값, 되는 값들을 차례대로 넣어줌
-
-            Connection connection = Jsoup.connect(url);
-            Document document = connection.get();
-
-            Elements parsingDivs = document.getElementsByAttributeValue("data-test", "historical-prices");
-            Element tableEle = parsingDivs.get(0); // table 전체
-
-            Element tbody = tableEle.children().get(1);
-
-            // 스크래핑 된 결과는 List<Dividend> 리스트인 dividends에 담아서 사용한다.
-            List<Dividend> dividends = new ArrayList<>();
-            for(Element e: tbody.children()){
-                String txt = e.text();
-                if(!txt.endsWith("Dividend")){
-                    continue;
-                }
-                String[] splits = txt.split(" ");
-
-                //                        .date(LocalDateTime.of(year,month,day,0,0))
-                int month = Month.strToNumber(splits[0]);
-                int day = Integer.valueOf(splits[1].replace(",",""));
-                int year = Integer.valueOf(splits[2]);
-
-                //                         .dividend(dividend)
-                String dividend = splits[3];
-
-                if(month < 0){
-                    throw new RuntimeException("Unexpected Month enum value ->" + splits[0]);
-                }
-                // 스크래핑이 정상적으로 되었다면 Dividend에 데이터를 저장
-                // List<Dividend> dividends = new ArrayList<>(); 그리고 이 리스트에 저장이 바로 되도록 함.
-                dividends.add(new Dividend(LocalDateTime.of(year,month,day,0,0),dividend));
-//                System.out.println(year + "/" + month + "/" + day + " -> " + dividend);
+            return this.scrapAsync(company, startTime).join();
+        } catch (CompletionException e) {
+            // 네트워크 오류라면 빈 결과를 돌려준다. (파싱 오류 등은 그대로 던진다)
+            rethrowUnlessIOException(e);
+            log.error("failed to scrap dividends -> " + company.getTicker(), e.getCause());
+            var scrapResult = new ScrapedResult();
+            scrapResult.setCompany(company);
+            return scrapResult;
+        }
+    }
 
-            }
-            scrapResult.setDividends(dividends);
+    @Override
+    public CompletableFuture<ScrapedResult> scrapAsync(Company company){
+        return this.scrapAsync(company, START_TIME);
+    }
+
+    @Override
+    public CompletableFuture<ScrapedResult> scrapAsync(Company company, LocalDateTime since){
+        return this.scrapAsync(company, toStartTime(since));
+    }
+
+    private CompletableFuture<ScrapedResult> scrapAsync(Company company, long startTime){
+        return this.fetchHistoryAsync(company, startTime)
+                .thenApplyAsync(page -> {
+                    var scrapResult = new ScrapedResult();
+                    scrapResult.setCompany(company);
+                    scrapResult.setDividends(this.parseHistory(page));
+                    return scrapResult;
+                }, this.scraperIoExecutor);
+    }
+
+    @Override
+    public CompletableFuture<FetchedPage> fetchHistoryAsync(Company company){
+        return this.fetchHistoryAsync(company, START_TIME);
+    }
+
+    private CompletableFuture<FetchedPage> fetchHistoryAsync(Company company, long startTime){
+        long now = System.currentTimeMillis() / 1000; //  끝시간
+        // 현재시간을 밀리세컨으로 받는 값이라 밀리에서 1000으로 나눠서 받는다.    // 시작시간, 끝시간
+        String url = String.format(STATISTICS_URL, company.getTicker(), startTime, now); // 치환받을 값, 되는 값들을 차례대로 넣어줌
+
+        return this.scraperHttpClient.getStreamAsync(url, historyCacheKey(company, startTime))
+                .thenApply(body -> new FetchedPage(company, url, body));
+    }
+
+    @Override
+    public List<Dividend> parseHistory(FetchedPage page){
+        if (this.extractionMode == ExtractionMode.STREAM) {
+            return this.extractDividends(page.getBody(), page.getUrl());
+        }
 
+        try (InputStream body = page.getBody()) {
+            return this.parseDividends(Jsoup.parse(body, StandardCharsets.UTF_8.name(), page.getUrl()));
         } catch (IOException e) {
-            // 맵핑이 되지 않았다면 출력하는 것
-            // TODO
-            e.printStackTrace();
+            throw new CompletionException(e);
         }
-        return scrapResult;
+    }
+
+    private List<Dividend> extractDividends(InputStream body, String url){
+        List<Dividend> dividends = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            this.historicalPricesStreamExtractor.extract(reader, dividends::add);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("failed to extract dividends -> " + url, e);
+        }
+        return dividends;
+    }
+
+    private List<Dividend> parseDividends(Document document){
+        Elements parsingDivs = document.getElementsByAttributeValue("data-test", "historical-prices");
+        Element tableEle = parsingDivs.get(0); // table 전체
+
+        Element tbody = tableEle.children().get(1);
+
+        // 스크래핑 된 결과는 List<Dividend> 리스트인 dividends에 담아서 사용한다.
+        List<Dividend> dividends = new ArrayList<>();
+        for(Element e: tbody.children()){
+            // 행 전체 텍스트를 만들기 전에 마지막 칸만 보고 주가 행을 걸러낸다.
+            if(e.childrenSize() == 0 || !this.dividendRowParser.isDividendRow(e.child(e.childrenSize() - 1).text())){
+                continue;
+            }
+            // 스크래핑이 정상적으로 되었다면 Dividend에 데이터를 저장
+            Dividend dividend = this.dividendRowParser.parse(e.text());
+            if(dividend != null){
+                dividends.add(dividend);
+            }
+        }
+        return dividends;
     }
 
     // 회사명 뿐만 아니라, 다른 정보도 같이 가져오고 싶다면 해당 메소드
     // 내에서 스크래핑 해올때 추가로 긁어올 수 있도록 구현
     @Override
     public Company scrapCompanyByTicker(String ticker){
+        try {
+            return this.scrapCompanyByTickerAsync(ticker).join();
+        } catch (CompletionException e) {
+            rethrowUnlessIOException(e);
+            log.error("failed to scrap company -> " + ticker, e.getCause());
+        }
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<Company> scrapCompanyByTickerAsync(String ticker){
         String url = String.format(SUMMARY_URL, ticker, ticker);
 
-        try {
-            Document document = Jsoup.connect(url).get();
-            // 태그를 사용하는 요소로 회사명을 가져옴
-            Element titleEle = document.getElementsByTag("h1").get(0);
-            // 깔끔하게 가져오기 위한 문자 후처리 작업
-            String title = titleEle.text().split(" - ")[0].trim();
-            // abc - def - xzy 형태로 있다면 , - 기준으로 쪼갠 뒤 배열에 들어가게 되면, 그 중 1번째 인덱스의 값을 가져온다.
+        return this.scraperHttpClient.getAsync(url, "summary:" + ticker)
+                .thenApply(body -> {
+                    Document document = Jsoup.parse(body, url);
+                    // 태그를 사용하는 요소로 회사명을 가져옴
+                    Element titleEle = document.getElementsByTag("h1").get(0);
+                    // 깔끔하게 가져오기 위한 문자 후처리 작업
+                    String title = titleEle.text().split(" - ")[0].trim();
+                    // abc - def - xzy 형태로 있다면 , - 기준으로 쪼갠 뒤 배열에 들어가게 되면, 그 중 1번째 인덱스의 값을 가져온다.
+
+                    return new Company(ticker, title);
+                });
+    }
 
-            return new Company(ticker, title);
+    // 끝시간(now)은 매번 달라지기 때문에 티커와 시작시간으로 같은 요청인지 구분한다.
+    private static String historyCacheKey(Company company, long startTime){
+        return "history:" + company.getTicker() + ":" + startTime;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static long toStartTime(LocalDateTime since){
+        return Math.max(START_TIME, since.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static void rethrowUnlessIOException(CompletionException e){
+        if (e.getCause() instanceof IOException) {
+            return;
         }
-        return null;
+        if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+        }
+        throw e;
     }
 }
 
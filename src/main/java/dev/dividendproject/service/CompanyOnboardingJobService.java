@@ -0,0 +1,69 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.NoOnboardingJobException;
+import dev.dividendproject.exception.impl.OnboardingQueueFullException;
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.OnboardingJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// POST /company 요청 스레드가 스크래핑을 기다리지 않도록 등록을 별도 작업으로 처리
+// 같은 티커로 여러 번 요청하면 대기/진행 중인 작업을 그대로 돌려준다. (다른 인스턴스가 만든 작업이어도)
+// (끝난 작업은 재사용하지 않는다. 성공한 뒤 회사가 삭제됐을 수 있으므로 새로 등록을 시도한다)
+// 작업 상태는 레디스에 있고(OnboardingJobStore), 실행은 작업을 받은 인스턴스의 onboardingExecutor가 맡는다.
+@Slf4j
+@Service
+public class CompanyOnboardingJobService {
+
+    private final CompanyService companyService;
+    private final ExecutorService onboardingExecutor;
+    private final OnboardingJobStore onboardingJobStore;
+
+    public CompanyOnboardingJobService(CompanyService companyService,
+                                       ExecutorService onboardingExecutor,
+                                       OnboardingJobStore onboardingJobStore) {
+        this.companyService = companyService;
+        this.onboardingExecutor = onboardingExecutor;
+        this.onboardingJobStore = onboardingJobStore;
+    }
+
+    public OnboardingJob submit(String ticker) {
+        // " ko"와 "KO"가 서로 다른 작업으로 동시에 돌지 않도록 키를 맞춘다.
+        String normalized = Company.normalizeTicker(ticker);
+        String id = UUID.randomUUID().toString();
+        String jobId = this.onboardingJobStore.create(id, normalized);
+        if (!id.equals(jobId)) {
+            return this.getJob(jobId); // 대기/진행 중인 작업 재사용
+        }
+
+        try {
+            this.onboardingExecutor.execute(() -> this.run(id, normalized));
+        } catch (RejectedExecutionException e) {
+            this.onboardingJobStore.remove(id, normalized);
+            throw new OnboardingQueueFullException();
+        }
+        return this.getJob(id);
+    }
+
+    // 끝난 작업은 retention 동안만 조회할 수 있다.
+    public OnboardingJob getJob(String id) {
+        return this.onboardingJobStore.find(id)
+                .orElseThrow(() -> new NoOnboardingJobException());
+    }
+
+    private void run(String id, String ticker) {
+        this.onboardingJobStore.start(id);
+        try {
+            Company company = this.companyService.save(ticker);
+            this.companyService.addAutocompleteCompany(company);
+            this.onboardingJobStore.succeed(id, ticker, company);
+        } catch (RuntimeException e) {
+            log.error("failed to onboard company -> " + ticker, e);
+            this.onboardingJobStore.fail(id, ticker, e.getMessage());
+        }
+    }
+}
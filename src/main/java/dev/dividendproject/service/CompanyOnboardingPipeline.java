@@ -0,0 +1,205 @@
+package dev.dividendproject.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.IngestResult;
+import dev.dividendproject.model.OnboardingResult;
+import dev.dividendproject.model.ScrapedResult;
+import dev.dividendproject.model.constants.OnboardingStatus;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.scraper.AsyncScraper;
+import dev.dividendproject.scraper.FetchedPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 여러 티커를 한 번에 등록하는 파이프라인
+// 받아오기(fetch) -> 파싱(parse) -> 저장(persist) 단계마다 스레드 수가 따로 있고, 단계 사이는 크기가 정해진 큐로 연결된다.
+// 큐가 가득 차면 앞 단계 스레드가 자리가 날 때까지 기다리기 때문에 앞 단계가 저절로 느려진다.
+// (예전처럼 앞 단계 스레드가 직접 처리하면(CallerRunsPolicy) 받아오기 스레드가 파싱과 저장까지 맡아서 단계별 스레드 수가 지켜지지 않는다)
+@Slf4j
+@Service
+public class CompanyOnboardingPipeline {
+
+    private final AsyncScraper yahooFinanceScraper;
+    private final CompanyRepository companyRepository;
+    private final CompanyService companyService;
+    private final DividendCalendarService dividendCalendarService;
+    private final ObjectMapper objectMapper;
+    private final int fetchParallelism;
+    private final int parseParallelism;
+    private final int persistParallelism;
+    private final int queueCapacity;
+
+    public CompanyOnboardingPipeline(AsyncScraper yahooFinanceScraper,
+                                     CompanyRepository companyRepository,
+                                     CompanyService companyService,
+                                     DividendCalendarService dividendCalendarService,
+                                     ObjectMapper objectMapper,
+                                     @Value("${onboarding.fetch-parallelism}") int fetchParallelism,
+                                     @Value("${onboarding.parse-parallelism}") int parseParallelism,
+                                     @Value("${onboarding.persist-parallelism}") int persistParallelism,
+                                     @Value("${onboarding.queue-capacity}") int queueCapacity) {
+        this.yahooFinanceScraper = yahooFinanceScraper;
+        this.companyRepository = companyRepository;
+        this.companyService = companyService;
+        this.dividendCalendarService = dividendCalendarService;
+        this.objectMapper = objectMapper;
+        this.fetchParallelism = fetchParallelism;
+        this.parseParallelism = parseParallelism;
+        this.persistParallelism = persistParallelism;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public List<OnboardingResult> onboard(List<String> tickers) {
+        List<String> distinct = tickers.stream()
+                .filter(Objects::nonNull)
+                .map(Company::normalizeTicker)
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        log.info("bulk onboarding is started -> " + distinct.size() + " tickers");
+
+        ThreadPoolExecutor fetchStage = stage("onboard-fetch-", this.fetchParallelism);
+        ThreadPoolExecutor parseStage = stage("onboard-parse-", this.parseParallelism);
+        ThreadPoolExecutor persistStage = stage("onboard-persist-", this.persistParallelism);
+        try {
+            List<CompletableFuture<OnboardingResult>> tasks = distinct.stream()
+                    .map(ticker -> CompletableFuture.supplyAsync(() -> this.fetch(ticker), fetchStage)
+                            .thenApplyAsync(this::parse, parseStage)
+                            .thenApplyAsync(this::persist, persistStage)
+                            .exceptionally(e -> OnboardingResult.failed(ticker, rootMessage(e))))
+                    .collect(Collectors.toList());
+
+            List<OnboardingResult> results = tasks.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+
+            // 자동완성 인덱스는 티커마다가 아니라 마지막에 한 번만 갱신
+            this.companyService.addAutocompleteCompanies(results.stream()
+                    .filter(r -> r.getStatus() == OnboardingStatus.CREATED)
+                    .map(OnboardingResult::getCompany)
+                    .collect(Collectors.toList()));
+            // 새 회사의 지난 배당금이 확정된 캘린더 기간에 들어가므로 캐시도 마지막에 한 번만 비운다.
+            if (results.stream().anyMatch(r -> r.getStatus() == OnboardingStatus.CREATED && r.getDividends() > 0)) {
+                this.dividendCalendarService.evictAll();
+            }
+            return results;
+        } finally {
+            fetchStage.shutdown();
+            parseStage.shutdown();
+            persistStage.shutdown();
+        }
+    }
+
+    // 업로드 파일에서 티커 목록을 읽는다.
+    // text/csv : 한 줄에 하나, 첫 번째 칸이 티커 (헤더 "ticker"는 건너뜀)
+    // application/x-ndjson : 한 줄에 {"ticker":"KO"} 하나
+    public List<String> readTickers(InputStream body, MediaType contentType) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        List<String> tickers = new ArrayList<>();
+        try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (ndjson) {
+                    tickers.add(this.objectMapper.readValue(line, Company.class).getTicker());
+                    continue;
+                }
+                String ticker = Company.normalizeTicker(line.split(",", 2)[0].replace("\"", ""));
+                if (!ticker.equals("TICKER")) {
+                    tickers.add(ticker);
+                }
+            }
+        }
+        return tickers;
+    }
+
+    private Job fetch(String ticker) {
+        var job = new Job();
+        if (this.companyRepository.existsByTicker(ticker)) {
+            job.result = OnboardingResult.alreadyExists(ticker);
+            return job;
+        }
+        Company company = this.yahooFinanceScraper.scrapCompanyByTickerAsync(ticker).join();
+        // 파싱 큐에서 기다리는 동안 연결이나 캐시 파일을 잡고 있지 않도록 본문을 다 읽고 닫은 뒤에 넘긴다.
+        try {
+            job.page = this.yahooFinanceScraper.fetchHistoryAsync(company).join().buffered();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        return job;
+    }
+
+    private Job parse(Job job) {
+        if (job.result != null) {
+            return job;
+        }
+        var scraped = new ScrapedResult();
+        scraped.setCompany(job.page.getCompany());
+        scraped.setDividends(this.yahooFinanceScraper.parseHistory(job.page));
+        job.scraped = scraped;
+        return job;
+    }
+
+    private OnboardingResult persist(Job job) {
+        if (job.result != null) {
+            return job.result;
+        }
+        IngestResult ingested = this.companyService.storeScrapedResult(job.scraped);
+        return OnboardingResult.created(job.scraped.getCompany(), ingested.getInserted());
+    }
+
+    // 큐가 가득 차면 넣는 쪽 스레드가 자리가 날 때까지 기다린다.
+    // 예외로 거절하면 앞 단계가 끝나면서 넘긴 작업은 어느 future에도 전달되지 않아 join이 끝나지 않는다.
+    // 저장 단계는 다음 단계를 기다리지 않으므로, 앞 단계가 기다리더라도 뒤 단계부터 차례로 비워진다.
+    private ThreadPoolExecutor stage(String name, int parallelism) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                new CustomizableThreadFactory(name),
+                (task, executor) -> {
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("interrupted while waiting for " + name + " queue", e);
+                    }
+                });
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    // 단계 사이에 넘겨주는 티커 하나의 작업 상태
+    private static class Job {
+        private FetchedPage page;
+        private ScrapedResult scraped;
+        private OnboardingResult result;
+    }
+}
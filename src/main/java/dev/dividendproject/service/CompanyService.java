@@ -1,33 +1,44 @@
 package dev.dividendproject.service;
 
+import dev.dividendproject.autocomplete.AutocompleteService;
 import dev.dividendproject.exception.impl.NoCompanyException;
 import dev.dividendproject.persist.entity.CompanyEntity;
-import dev.dividendproject.persist.entity.DividendEntity;
 import dev.dividendproject.model.Company;
+import dev.dividendproject.model.IngestResult;
 import dev.dividendproject.model.ScrapedResult;
 import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendBulkRepository;
 import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.DividendSummaryRepository;
+import dev.dividendproject.persist.DividendSummaryStore;
 import dev.dividendproject.scraper.Scraper;
 import lombok.AllArgsConstructor;
-import org.apache.commons.collections4.Trie;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ObjectUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class CompanyService {
-    private final Trie trie; // 싱글톤으로 관리된다.
+    private final AutocompleteService autocompleteService;
     private final Scraper yahooFinanceScraper;
     private final CompanyRepository companyRepository;
     private final DividendRepository dividendRepository;
+    private final DividendBulkRepository dividendBulkRepository;
+    private final DividendSummaryRepository dividendSummaryRepository;
+    private final DividendSummaryStore dividendSummaryStore;
+    private final DividendCalendarService dividendCalendarService;
+    private final TransactionTemplate transactionTemplate;
     // 저장
     public Company save(String ticker) {
+        ticker = Company.normalizeTicker(ticker);
         boolean exists = this.companyRepository.existsByTicker(ticker);
 
         if(exists){
@@ -65,55 +76,61 @@ public class CompanyService {
         // 해당 회사가 존재할 경우, 회사의 배당금 정보를 스크래핑
         ScrapedResult scrapResult = this.yahooFinanceScraper.scrap(company);
 
-        // 스크래핑 결과 -- 배당금 엔터티에는 companyId도 같이 저장되어야 한다.
-        CompanyEntity companyEntity = this.companyRepository.save(new CompanyEntity(company));
-
-        // e는 컬렉션의 값 하나하나가 된다.(dividend 아이템 하나하나가 e에 해당이 된다.)
-        List<DividendEntity> dividendEntityList = scrapResult.getDividends().stream()
-                .map(e -> new DividendEntity(companyEntity.getId(), e))
-                .collect(Collectors.toList()); // 리스트 타입으로 변환 해줌
-                // 필요에 따라 추가로 .filter나 .sort를 사용해도 좋다.
-
-        this.dividendRepository.saveAll(dividendEntityList);
+        // 같은 클래스 안에서 부르면 @Transactional 프록시를 거치지 않으므로 트랜잭션을 직접 연다. (스크래핑은 트랜잭션 밖)
+        this.transactionTemplate.execute(status -> this.storeScrapedResult(scrapResult));
+        // 커밋이 끝난 뒤에 비워야 다른 요청이 커밋 전 데이터로 캐시를 다시 채우지 않는다.
+        this.dividendCalendarService.evictSettled(scrapResult.getDividends().stream()
+                .map(d -> d.getDate().toLocalDate())
+                .collect(Collectors.toSet()));
 
         return company;
     }
 
-    public List<String> getCompanyNamesByKeyword(String keyword){
-        Pageable limit = PageRequest.of(0,10);
-        Page<CompanyEntity> companyEntities =
-                this.companyRepository.findByNameStartingWithIgnoreCase(keyword, limit);
+    // 스크래핑한 회사 정보와 배당금을 저장
+    // 회사 저장과 배당금 배치를 한 트랜잭션으로 묶어서, 배당금 저장이 실패하면 배당금 없는 회사만 남지 않게 한다.
+    @Transactional
+    public IngestResult storeScrapedResult(ScrapedResult scrapResult) {
+        // 스크래핑 결과 -- 배당금 엔터티에는 companyId도 같이 저장되어야 한다.
+        CompanyEntity companyEntity = this.companyRepository.save(new CompanyEntity(scrapResult.getCompany()));
+        // 요약 행을 회사와 같이 만들어서, 배당금 저장과 분석 조회가 요약 행을 동시에 만들지 않게 한다.
+        this.dividendSummaryStore.create(companyEntity.getId());
 
-        return  companyEntities.stream()
-                .map(e -> e.getName())
-                .collect(Collectors.toList());
+        // 배당금은 JDBC 배치로 한 번에 저장
+        return this.dividendBulkRepository.upsertAll(companyEntity.getId(), scrapResult.getDividends());
     }
 
-    public void addAutocompleteKeyword(String keyword){
-        this.trie.put(keyword, null); // null은 아파치에서 구현된것으로 응용된 형태이기 때문에 키, value 둘다 넣을 수 있지만, 키워드 하나만 필요해서 null로 넣어준다.
+    // 자동완성 인덱스에 회사명과 티커를 추가
+    public void addAutocompleteCompany(Company company){
+        this.autocompleteService.add(company);
+    }
+
+    // 여러 회사를 한 번에 등록했을 때 마지막에 한 번만 반영
+    public void addAutocompleteCompanies(Collection<Company> companies){
+        for (Company company : companies) {
+            this.autocompleteService.add(company);
+        }
     }
 
     public List<String> autocomplete(String keyword){
-        return (List<String>) this.trie.prefixMap(keyword).keySet()
-                .stream().collect(Collectors.toList());
-    } // limit(가져올 갯수) 를 적어서 가져오는 데이터 수의 제한을 걸 수 있다.
-//    public AutoComplete(Trie trie){
-//        this.trie = trie; // 이런식으로 오토컴플릿 메서드 안에 트라이를 초기화 해주면 각 인스턴스에서 사용 가능
-//    }
-
-    public void deleteAutocompleteKeyword(String keyword){
-        this.trie.remove(keyword);
+        return this.autocompleteService.suggest(keyword);
+    }
+
+    // 오타, 띄어쓰기, 이름 중간 단어까지 허용하는 검색
+    public List<String> searchCompanyNames(String keyword){
+        return this.autocompleteService.search(keyword);
     }
 
     public String deleteCompany(String ticker){
-        var company = this.companyRepository.findByTicker(ticker)
+        var company = this.companyRepository.findByTicker(Company.normalizeTicker(ticker))
                 .orElseThrow(()-> new NoCompanyException());
 
         this.dividendRepository.deleteAllByCompanyId(company.getId()); // 배당금 데이터 지우기
+        this.dividendSummaryRepository.deleteByCompanyId(company.getId()); // 배당금 요약도 같이 지우기
         this.companyRepository.delete(company);
+        this.dividendCalendarService.evictAll(); // 캘린더 캐시에 남은 이 회사의 배당 일정도 지운다.
 
-        // 자동완성을 하기 위해 넣어놨던 트라이의 데이터도 삭제
-        this.deleteAutocompleteKeyword(company.getName());
+        // 자동완성 인덱스에서도 삭제
+        this.autocompleteService.remove(company.getName());
 
         return company.getName();
     }
@@ -0,0 +1,104 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.InvalidDividendQueryException;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.DividendCalendarPage;
+import dev.dividendproject.model.DividendEvent;
+import dev.dividendproject.model.constants.CacheKey;
+import dev.dividendproject.persist.DividendRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// 여러 회사의 배당 일정 조회
+// 배당이 다 들어온(settled) 지난 기간의 결과는 거의 바뀌지 않으므로 레디스에 캐시한다.
+// 지난 날짜의 배당금이 새로 저장되거나(백필, 신규 회사) 회사가 삭제되면 캐시를 비운다.
+@Service
+public class DividendCalendarService {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private final DividendRepository dividendRepository;
+    private final CacheManager redisCacheManager;
+    // 늦게 올라오는 배당금이 있어서, to가 이 기간보다 더 지난 경우에만 결과가 확정된 것으로 본다.
+    private final Duration settledAfter;
+
+    public DividendCalendarService(DividendRepository dividendRepository,
+                                   CacheManager redisCacheManager,
+                                   @Value("${finance.calendar.settled-after}") Duration settledAfter) {
+        this.dividendRepository = dividendRepository;
+        this.redisCacheManager = redisCacheManager;
+        this.settledAfter = settledAfter;
+    }
+
+    public DividendCalendarPage getCalendar(LocalDate from, LocalDate to, Integer limit, String cursor) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (from == null || to == null || from.isAfter(to) || size < 1 || size > MAX_LIMIT) {
+            throw new InvalidDividendQueryException();
+        }
+
+        boolean settled = this.isSettled(to);
+        if (!settled) {
+            return this.load(from, to, size, cursor, false);
+        }
+        Cache cache = this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_CALENDAR);
+        String key = from + ":" + to + ":" + size + ":" + (cursor == null ? "" : cursor);
+        return cache.get(key, () -> this.load(from, to, size, cursor, true));
+    }
+
+    public boolean isSettled(LocalDate to) {
+        return to.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(this.settledAfter.toDays()));
+    }
+
+    // 새로 저장된 배당금 중 확정된 기간에 들어가는 날짜가 있으면 캐시된 캘린더를 모두 비운다.
+    // (어느 from~to 조합에 들어갈지 모르므로 키 단위로는 지우지 않는다)
+    public void evictSettled(Collection<LocalDate> dates) {
+        if (dates.stream().anyMatch(this::isSettled)) {
+            this.evictAll();
+        }
+    }
+
+    public void evictAll() {
+        this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_CALENDAR).clear();
+    }
+
+    private DividendCalendarPage load(LocalDate from, LocalDate to, int size, String cursor, boolean settled) {
+        // 첫 페이지는 from 전날의 마지막 회사 다음부터, 이후 페이지는 커서(날짜:회사 id) 다음부터
+        LocalDate afterDate = from.minusDays(1);
+        long afterCompanyId = Long.MAX_VALUE;
+        if (cursor != null) {
+            int sep = cursor.indexOf(':');
+            try {
+                LocalDate cursorDate = LocalDate.parse(cursor.substring(0, Math.max(sep, 0)));
+                if (!cursorDate.isBefore(from)) {
+                    afterDate = cursorDate;
+                    afterCompanyId = Long.parseLong(cursor.substring(sep + 1));
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidDividendQueryException();
+            }
+        }
+
+        // 다음 페이지가 있는지 알 수 있도록 하나 더 읽는다.
+        List<DividendEvent> events = new ArrayList<>(
+                this.dividendRepository.findCalendar(afterDate, afterCompanyId, to, PageRequest.of(0, size + 1)));
+        String nextCursor = null;
+        if (events.size() > size) {
+            events = new ArrayList<>(events.subList(0, size));
+            DividendEvent last = events.get(size - 1);
+            nextCursor = last.getDate() + ":" + last.getCompanyId();
+        }
+        events.forEach(e -> e.setDividend(Dividend.normalizeAmount(e.getDividend())));
+        return new DividendCalendarPage(from, to, events, nextCursor, settled);
+    }
+}
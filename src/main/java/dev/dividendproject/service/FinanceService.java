@@ -1,75 +1,365 @@
 package dev.dividendproject.service;
 
 
+import dev.dividendproject.exception.impl.AmbiguousCompanyNameException;
+import dev.dividendproject.exception.impl.InvalidDividendQueryException;
 import dev.dividendproject.exception.impl.NoCompanyException;
 import dev.dividendproject.persist.entity.CompanyEntity;
 import dev.dividendproject.persist.entity.DividendEntity;
+import dev.dividendproject.model.BulkDividendResult;
 import dev.dividendproject.model.Company;
+import dev.dividendproject.model.CompanyDividendRow;
+import dev.dividendproject.model.CompanyRef;
 import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.DividendAnalytics;
+import dev.dividendproject.model.DividendPage;
+import dev.dividendproject.model.DividendSummary;
 import dev.dividendproject.model.ScrapedResult;
 import dev.dividendproject.model.constants.CacheKey;
 import dev.dividendproject.persist.CompanyRepository;
 import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.DividendSummaryStore;
+import dev.dividendproject.persist.DividendSummaryRepository;
+import dev.dividendproject.persist.entity.DividendSummaryEntity;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class FinanceService {
+    // 기간 조회의 기본/최대 개수
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    // 여러 회사 조회에서 한 번에 받을 수 있는 최대 회사 수
+    private static final int MAX_BULK_COMPANIES = 500;
 
     private final CompanyRepository companyRepository;
     private final DividendRepository dividendRepository;
+    private final DividendSummaryRepository dividendSummaryRepository;
+    private final DividendSummaryStore dividendSummaryStore;
+    private final CacheManager redisCacheManager;
+    private final RedisTemplate<String, Object> financeCacheTemplate;
 
 
     // 요청이 자주 들어오는가?
     // 자주 변경되는 데이터인가?
 
+    // 캐시에 없을 때는 회사와 배당금을 조인 한 번으로 읽어서 모델로 바로 만든다.
+    // 읽기 전용 트랜잭션이라 플러시/변경 감지를 하지 않는다.
     @Cacheable(key = "#companyName",value= CacheKey.KEY_FINANCE)  // key 메소드에 파라미터로 들어오는 companyName, value는 finance
+    @Transactional(readOnly = true)
     public ScrapedResult getDividendByCompanyName(String companyName){
         log.info("search company -> " + companyName);
         // 1. 회사명을 기준으로 회사 정보를 조회
-        CompanyEntity company = this.companyRepository.findByName(companyName)
-                .orElseThrow(() -> new NoCompanyException());
-        // 값이 없으면 인자로 넘겨주는 값을 넘겨주고, 정상일 경우 원래 있던 데이터를 넘겨준다.
-        /*
-        * 람다 표현식에서 ->는 "인자를 받아서 어떤 일을 한다"는 의미를 가집니다.
-        *  위의 람다 표현식에서는 인자가 없으므로 () 는 비어있고,
-        *  -> 다음에는 RuntimeException을 생성하는 코드가 옵니다.
-        *  이 코드는 () -> 표현식의 결과로 람다 표현식을 구성합니다.
-        * */
-
         // 2. 조회된 회사 ID로 배당금 정보 조회
-        List<DividendEntity> dividendEntities = this.dividendRepository.findAllByCompanyId(company.getId());
+        // (1, 2를 조인 한 번으로 읽는다)
+        List<CompanyDividendRow> rows = this.dividendRepository.findDividendRowsByCompanyName(companyName);
+        // 회사가 없으면 행이 없고, 배당금이 없는 회사는 date가 null인 행 하나가 나온다.
+        if (rows.isEmpty()) {
+            throw new NoCompanyException();
+        }
+        // 같은 이름의 회사가 여러 개면 배당금이 섞이지 않도록 어느 회사인지 정할 수 없다고 응답한다.
+        if (rows.stream().map(CompanyDividendRow::getCompanyId).distinct().count() > 1) {
+            throw new AmbiguousCompanyNameException();
+        }
 
         // 3. 결과 조합 후 ScrapedResult로 반환
         // ScrapedResult company와 dividends이 모두
         // 엔터티 타입(가져온 값이 CompanyEntity, DividendEntity)이
         // 아닌 일반형이기 때문에, 가져온 값을 일반형으로 바꾸어주는 맵핑이 필요하다.
-        // builder를 사용해서 company 모델로 바꿔줌
+        // (지금은 조인 결과를 DTO 행으로 받아서 엔터티를 거치지 않는다)
 
 
         // 엔터티를 모델 클래스로 맵핑해주는 가공해주는 작업의 방법 : for each문, stream
         //        List<Dividend> dividends = new ArrayList<>();
-        //        for(var entity : dividendEntities){
+        //        for(var row : rows){
         //            dividends.add(Dividend.builder()
-        //                            .date(entity.getDate())
-        //                            .dividend(entity.getDividend())
+        //                            .date(row.getDate())
+        //                            .dividend(row.getDividend())
         //                            .build());
         //        }
 
         // 스트림을 쓰는 방법도 가능하다.
-        List<Dividend> dividends = dividendEntities.stream()
-                                    .map(e -> new Dividend(e.getDate(),
-                                            e.getDividend()))
-                                    .collect(Collectors.toList());
+        List<Dividend> dividends = rows.stream()
+                .filter(row -> row.getDate() != null)
+                .map(row -> new Dividend(row.getDate().atStartOfDay(), Dividend.normalizeAmount(row.getDividend())))
+                .collect(Collectors.toList());
+        return new ScrapedResult(new Company(rows.get(0).getTicker(), rows.get(0).getName()), dividends);
+    }
+
+    // 기간(from ~ to)과 페이지(limit, cursor) 단위 배당금 조회
+    // 캐시는 "회사 id:연도" 단위로 나눠서 저장하기 때문에, 기간이 다른 요청들도 같은 연도 항목을 함께 쓴다.
+    // 캐시에 없는 연도만 (companyId, date) 인덱스 범위 스캔으로 읽어온다.
+    // order : ASC(기본, 오래된 순) 또는 DESC(최신 순), DESC의 커서는 이전 페이지의 마지막 배당일 전날부터 이어서 조회
+    public DividendPage getDividends(String companyName, LocalDate from, LocalDate to, Integer limit, String cursor,
+                                     String order) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT || (from != null && to != null && from.isAfter(to))) {
+            throw new InvalidDividendQueryException();
+        }
+        boolean descending = order != null && Sort.Direction.fromOptionalString(order)
+                .orElseThrow(() -> new InvalidDividendQueryException())
+                .isDescending();
+
+        // 커서는 이전 페이지의 마지막 배당일, 정렬 방향으로 그 다음 날부터 이어서 조회
+        LocalDate start = from;
+        LocalDate end = to;
+        if (cursor != null) {
+            LocalDate last = parseCursor(cursor);
+            if (descending) {
+                LocalDate next = last.minusDays(1);
+                end = end == null || next.isBefore(end) ? next : end;
+            } else {
+                LocalDate next = last.plusDays(1);
+                start = start == null || next.isAfter(start) ? next : start;
+            }
+        }
+
+        CompanyRef company = this.getCompanyRef(companyName);
+        if (company.getFirstYear() == null) {
+            return new DividendPage(company.toCompany(), new ArrayList<>(), null);
+        }
+
+        int firstYear = start == null ? company.getFirstYear() : Math.max(start.getYear(), company.getFirstYear());
+        int lastYear = end == null ? company.getLastYear() : Math.min(end.getYear(), company.getLastYear());
+
+        // 다음 페이지가 있는지 알 수 있도록 limit보다 하나 더 모은다.
+        List<Dividend> dividends = new ArrayList<>();
+        int step = descending ? -1 : 1;
+        for (int year = descending ? lastYear : firstYear;
+             year >= firstYear && year <= lastYear && dividends.size() <= size; year += step) {
+            List<Dividend> ofYear = this.getDividendsOfYear(company.getId(), year);
+            if (descending) {
+                ofYear = new ArrayList<>(ofYear);
+                Collections.reverse(ofYear);
+            }
+            for (Dividend dividend : ofYear) {
+                LocalDate date = dividend.getDate().toLocalDate();
+                if ((start != null && date.isBefore(start)) || (end != null && date.isAfter(end))) {
+                    continue;
+                }
+                dividends.add(dividend);
+                if (dividends.size() > size) {
+                    break;
+                }
+            }
+        }
+
+        String nextCursor = null;
+        if (dividends.size() > size) {
+            dividends = new ArrayList<>(dividends.subList(0, size));
+            nextCursor = dividends.get(size - 1).getDate().toLocalDate().toString();
+        }
+        return new DividendPage(company.toCompany(), dividends, nextCursor);
+    }
+
+    // 여러 회사의 배당금을 한 번에 조회 (회사명 또는 티커)
+    // 1. 회사명 캐시 키로 MGET 한 번
+    // 2. 못 찾은 값은 회사명/티커 IN 쿼리 한 번으로 회사를 찾고, 찾은 회사명으로 다시 MGET
+    // 3. 그래도 캐시에 없는 회사는 배당금 IN 쿼리 한 번으로 읽고, 캐시에는 파이프라인으로 한 번에 저장
+    public BulkDividendResult getDividendsBulk(List<String> companies) {
+        if (companies == null || companies.isEmpty() || companies.size() > MAX_BULK_COMPANIES
+                || companies.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidDividendQueryException();
+        }
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(companies));
+        Map<String, ScrapedResult> byName = this.multiGet(requested);
+
+        // 회사명으로 캐시에 없던 값 -> 회사명 또는 티커로 DB에서 회사 조회
+        Map<String, CompanyEntity> byKey = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : requested) {
+            if (!byName.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<CompanyEntity> found = this.companyRepository.findAllByNameOrTickerIn(missing);
+            for (CompanyEntity company : found) {
+                byKey.put(company.getName(), company);
+                byKey.put(company.getTicker(), company);
+            }
+
+            // 티커로 요청한 회사는 회사명 키로 캐시에 있을 수 있다.
+            List<String> resolvedNames = new ArrayList<>();
+            for (CompanyEntity company : found) {
+                if (!byName.containsKey(company.getName())) {
+                    resolvedNames.add(company.getName());
+                }
+            }
+            byName.putAll(this.multiGet(resolvedNames));
+
+            // 캐시에 없는 회사는 배당금을 IN 쿼리 한 번으로 읽어서 캐시에 채운다.
+            Map<Long, CompanyEntity> toLoad = new HashMap<>();
+            for (CompanyEntity company : found) {
+                if (!byName.containsKey(company.getName())) {
+                    toLoad.put(company.getId(), company);
+                }
+            }
+            Map<String, ScrapedResult> loaded = this.loadDividends(toLoad);
+            byName.putAll(loaded);
+            this.multiPut(loaded);
+        }
+
+        List<ScrapedResult> results = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (String key : requested) {
+            ScrapedResult result = byName.get(key);
+            if (result == null && byKey.containsKey(key)) {
+                result = byName.get(byKey.get(key).getName());
+            }
+            if (result == null) {
+                notFound.add(key);
+            } else {
+                results.add(result);
+            }
+        }
+        return new BulkDividendResult(results, notFound);
+    }
+
+    private Map<String, ScrapedResult> multiGet(List<String> companyNames) {
+        Map<String, ScrapedResult> found = new HashMap<>();
+        if (companyNames.isEmpty()) {
+            return found;
+        }
+        List<String> keys = companyNames.stream().map(FinanceService::financeCacheKey).collect(Collectors.toList());
+        List<Object> values = this.financeCacheTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; values != null && i < companyNames.size(); i++) {
+            if (values.get(i) instanceof ScrapedResult) {
+                found.put(companyNames.get(i), (ScrapedResult) values.get(i));
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void multiPut(Map<String, ScrapedResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) this.financeCacheTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) this.financeCacheTemplate.getValueSerializer();
+        this.financeCacheTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            results.forEach((name, result) -> connection.stringCommands()
+                    .set(keySerializer.serialize(financeCacheKey(name)), valueSerializer.serialize(result)));
+            return null;
+        });
+    }
+
+    private Map<String, ScrapedResult> loadDividends(Map<Long, CompanyEntity> companies) {
+        Map<String, ScrapedResult> results = new HashMap<>();
+        if (companies.isEmpty()) {
+            return results;
+        }
+        Map<Long, List<Dividend>> dividends = new HashMap<>();
+        for (DividendEntity e : this.dividendRepository.findAllByCompanyIdInOrderByCompanyIdAscDateAsc(companies.keySet())) {
+            dividends.computeIfAbsent(e.getCompanyId(), id -> new ArrayList<>())
+                    .add(new Dividend(e.getDate().atStartOfDay(), Dividend.normalizeAmount(e.getDividend())));
+        }
+        for (CompanyEntity company : companies.values()) {
+            results.put(company.getName(), new ScrapedResult(new Company(company.getTicker(), company.getName()),
+                    dividends.getOrDefault(company.getId(), new ArrayList<>())));
+        }
+        return results;
+    }
+
+    // @Cacheable(value = "finance", key = "#companyName")이 만드는 레디스 키와 같은 형식 (finance::회사명)
+    private static String financeCacheKey(String companyName) {
+        return CacheKeyPrefix.simple().compute(CacheKey.KEY_FINANCE) + companyName;
+    }
+
+    // 새 배당금이 저장된 회사의 캐시 삭제 (전체 목록, 회사 정보, 저장된 연도의 기간 조회 항목)
+    public void evictDividends(String companyName, Long companyId, Collection<Integer> years) {
+        this.redisCacheManager.getCache(CacheKey.KEY_FINANCE).evict(companyName);
+        this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_COMPANY).evict(companyName);
+        Cache yearCache = this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_YEAR);
+        for (Integer year : years) {
+            yearCache.evict(yearKey(companyId, year));
+        }
+    }
+
+    private CompanyRef getCompanyRef(String companyName) {
+        Cache cache = this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_COMPANY);
+        CompanyRef cached = cache.get(companyName, CompanyRef.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompanyEntity company = this.companyRepository.findByName(companyName)
+                .orElseThrow(() -> new NoCompanyException());
+        // 값이 없으면 인자로 넘겨주는 값을 넘겨주고, 정상일 경우 원래 있던 데이터를 넘겨준다.
+        /*
+        * 람다 표현식에서 ->는 "인자를 받아서 어떤 일을 한다"는 의미를 가집니다.
+        *  위의 람다 표현식에서는 인자가 없으므로 () 는 비어있고,
+        *  -> 다음에는 RuntimeException을 생성하는 코드가 옵니다.
+        *  이 코드는 () -> 표현식의 결과로 람다 표현식을 구성합니다.
+        * */
+        Integer firstYear = this.dividendRepository.findFirstByCompanyIdOrderByDateAsc(company.getId())
+                .map(e -> e.getDate().getYear()).orElse(null);
+        Integer lastYear = this.dividendRepository.findFirstByCompanyIdOrderByDateDesc(company.getId())
+                .map(e -> e.getDate().getYear()).orElse(null);
+        CompanyRef ref = new CompanyRef(company.getId(), company.getTicker(), company.getName(), firstYear, lastYear);
+        cache.put(companyName, ref);
+        return ref;
+    }
+
+    private List<Dividend> getDividendsOfYear(Long companyId, int year) {
+        Cache cache = this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_YEAR);
+        return cache.get(yearKey(companyId, year), () ->
+                this.dividendRepository.findAllByCompanyIdAndDateBetweenOrderByDateAsc(
+                                companyId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)).stream()
+                        .map(e -> new Dividend(e.getDate().atStartOfDay(), Dividend.normalizeAmount(e.getDividend())))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static String yearKey(Long companyId, int year) {
+        return companyId + ":" + year;
+    }
+
+    private static LocalDate parseCursor(String cursor) {
+        try {
+            return LocalDate.parse(cursor);
+        } catch (DateTimeParseException e) {
+            throw new InvalidDividendQueryException();
+        }
+    }
+
+    // 배당금 분석 (TTM, 연도별 합계/횟수/전년 대비 증가율, CAGR)
+    // 배당금 전체를 읽지 않고, 저장할 때마다 갱신되는 요약 행 하나로 계산한다.
+    public DividendAnalytics getDividendAnalytics(String companyName) {
+        DividendSummaryEntity summary = this.dividendSummaryRepository.findByCompanyName(companyName)
+                .filter(DividendSummaryEntity::isBuilt)
+                .orElseGet(() -> {
+                    CompanyEntity company = this.companyRepository.findByName(companyName)
+                            .orElseThrow(() -> new NoCompanyException());
+                    return this.dividendSummaryStore.rebuild(company.getId());
+                });
 
-        return new ScrapedResult(new Company(company.getTicker(),
-                company.getName()),dividends);
+        return DividendSummary.decode(summary.getYearly(), summary.getRecent())
+                .toAnalytics(companyName, LocalDate.now(ZoneOffset.UTC));
     }
 }
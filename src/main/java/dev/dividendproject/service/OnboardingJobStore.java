@@ -0,0 +1,119 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.OnboardingJob;
+import dev.dividendproject.model.constants.JobStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// 회사 등록 작업을 레디스에 저장해서 어느 인스턴스로 조회가 와도 같은 작업을 돌려준다.
+// - onboarding:job:{id} : 작업 상태 해시, 상태가 바뀔 때마다 TTL(retention)을 다시 잡는다.
+// - onboarding:ticker:{티커} : 대기/진행 중인 작업 id, 작업이 끝나면 지운다. (인스턴스가 달라도 같은 티커의 작업은 하나)
+// 작업을 맡은 인스턴스가 죽어서 상태가 바뀌지 않으면 두 키 모두 retention 뒤에 만료된다.
+@Component
+public class OnboardingJobStore {
+    private static final String JOB_KEY_PREFIX = "onboarding:job:";
+    private static final String TICKER_KEY_PREFIX = "onboarding:ticker:";
+
+    // 같은 티커의 대기/진행 중인 작업이 있으면 그 id, 없으면 새 작업을 만들고 ARGV[1]
+    private static final RedisScript<String> CREATE_SCRIPT = new DefaultRedisScript<>(
+            "local id = redis.call('get', KEYS[1]) " +
+            "if id then " +
+            "  local status = redis.call('hget', ARGV[5] .. id, 'status') " +
+            "  if status == 'PENDING' or status == 'RUNNING' then return id end " +
+            "end " +
+            "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[4]) " +
+            "redis.call('hmset', KEYS[2], 'ticker', ARGV[2], 'status', 'PENDING', 'createdAt', ARGV[3]) " +
+            "redis.call('pexpire', KEYS[2], ARGV[4]) " +
+            "return ARGV[1]",
+            String.class);
+    // 티커 키가 아직 이 작업을 가리킬 때만 지운다. (끝난 뒤 같은 티커로 새 작업이 만들어졌을 수 있다)
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration retention;
+
+    public OnboardingJobStore(StringRedisTemplate redisTemplate,
+                              @Value("${onboarding.job.retention}") Duration retention) {
+        this.redisTemplate = redisTemplate;
+        this.retention = retention;
+    }
+
+    // 새 작업(id)을 만들거나, 같은 티커로 대기/진행 중인 작업의 id를 돌려준다.
+    public String create(String id, String ticker) {
+        return this.redisTemplate.execute(CREATE_SCRIPT, Arrays.asList(TICKER_KEY_PREFIX + ticker, JOB_KEY_PREFIX + id),
+                id, ticker, LocalDateTime.now().toString(), String.valueOf(this.retention.toMillis()), JOB_KEY_PREFIX);
+    }
+
+    public Optional<OnboardingJob> find(String id) {
+        Map<Object, Object> fields = this.redisTemplate.opsForHash().entries(JOB_KEY_PREFIX + id);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        Company company = fields.containsKey("companyTicker")
+                ? new Company((String) fields.get("companyTicker"), (String) fields.get("companyName"))
+                : null;
+        return Optional.of(new OnboardingJob(id,
+                (String) fields.get("ticker"),
+                JobStatus.valueOf((String) fields.get("status")),
+                company,
+                (String) fields.get("message"),
+                LocalDateTime.parse((String) fields.get("createdAt")),
+                fields.containsKey("finishedAt") ? LocalDateTime.parse((String) fields.get("finishedAt")) : null));
+    }
+
+    public void start(String id) {
+        this.update(id, Map.of("status", JobStatus.RUNNING.name()));
+    }
+
+    public void succeed(String id, String ticker, Company company) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("status", JobStatus.SUCCEEDED.name());
+        fields.put("finishedAt", LocalDateTime.now().toString());
+        fields.put("companyTicker", company.getTicker());
+        if (company.getName() != null) {
+            fields.put("companyName", company.getName());
+        }
+        this.update(id, fields);
+        this.release(id, ticker);
+    }
+
+    public void fail(String id, String ticker, String message) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("status", JobStatus.FAILED.name());
+        fields.put("finishedAt", LocalDateTime.now().toString());
+        if (message != null) {
+            fields.put("message", message);
+        }
+        this.update(id, fields);
+        this.release(id, ticker);
+    }
+
+    // 대기열에 넣지 못한 작업은 조회할 수 없게 지운다.
+    public void remove(String id, String ticker) {
+        this.redisTemplate.delete(JOB_KEY_PREFIX + id);
+        this.release(id, ticker);
+    }
+
+    private void update(String id, Map<String, String> fields) {
+        this.redisTemplate.opsForHash().putAll(JOB_KEY_PREFIX + id, fields);
+        this.redisTemplate.expire(JOB_KEY_PREFIX + id, this.retention);
+    }
+
+    private void release(String id, String ticker) {
+        this.redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(TICKER_KEY_PREFIX + ticker), id);
+    }
+}
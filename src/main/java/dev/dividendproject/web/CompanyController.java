@@ -3,29 +3,52 @@ package dev.dividendproject.web;
 import dev.dividendproject.model.constants.CacheKey;
 import dev.dividendproject.persist.entity.CompanyEntity;
 import dev.dividendproject.model.Company;
+import dev.dividendproject.model.OnboardingJob;
+import dev.dividendproject.service.CompanyOnboardingJobService;
+import dev.dividendproject.service.CompanyOnboardingPipeline;
 import dev.dividendproject.service.CompanyService;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
 @RestController
 @RequestMapping("/company")
 @AllArgsConstructor
 public class CompanyController {
 
     private final CompanyService companyService;
+    private final CompanyOnboardingPipeline companyOnboardingPipeline;
+    private final CompanyOnboardingJobService companyOnboardingJobService;
     private final CacheManager redisCacheManager;
     // 배당금 검색 + 자동완성
     // GET /company/autocomplete?keyword=O
     // {result:["O", "OAS",...]}
+    // DB를 조회하지 않고 메모리 인덱스에서 회사명/티커 접두어로 인기순 결과를 돌려준다.
     @GetMapping("/autocomplete")
     public ResponseEntity<?> autocomplete(@RequestParam String keyword){
-        var result = this.companyService.getCompanyNamesByKeyword(keyword);
+        var result = this.companyService.autocomplete(keyword);
+        return ResponseEntity.ok(result);
+    }
+
+    // 오타를 허용하는 회사 검색
+    // GET /company/search?keyword=Coka Cola
+    // ["Coca-Cola",...]
+    // 접두어가 아니어도(cocacola, Cola) 회사명/티커와 편집 거리가 가까운 순으로 돌려준다.
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String keyword){
+        var result = this.companyService.searchCompanyNames(keyword);
         return ResponseEntity.ok(result);
     }
 
@@ -49,19 +72,49 @@ public class CompanyController {
       */
     // POST /company
     // {ticker : "GOOD"}
-    // {ticker:"GOOD", companyName:"좋은회사",...}
-    // 호출하는 즉시 데이터베이스에 저장되어서 POST 방식으로 진행된다.
+    // 202 Accepted, Location: /company/jobs/{id}
+    // {id:"...", ticker:"GOOD", status:"PENDING",...}
+    // 스크래핑과 저장은 별도 작업으로 처리되고, 결과는 GET /company/jobs/{id}로 조회한다.
     @PostMapping
     @PreAuthorize("hasRole('WRITE')") // Authority에 있는 ROLE_ 하고 다음에 나오는 글자에 대한 권한
     public ResponseEntity<?> addCompany(@RequestBody Company request){
-        String ticker = request.getTicker().trim();
+        String ticker = Company.normalizeTicker(request.getTicker());
         if(ObjectUtils.isEmpty(ticker)){
             throw new RuntimeException("ticker is empty");
         }
 
-        Company company = this.companyService.save(ticker);
-        this.companyService.addAutocompleteKeyword(company.getName());
-        return ResponseEntity.ok(company); // ok 응답은 컴퍼니 엔터티 값으로 반환
+        OnboardingJob job = this.companyOnboardingJobService.submit(ticker);
+        return ResponseEntity.accepted()
+                .location(URI.create("/company/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    // 회사 등록 작업 상태 조회
+    // GET /company/jobs/{id}
+    // {id:"...", ticker:"GOOD", status:"SUCCEEDED", company:{ticker:"GOOD", name:"좋은회사"},...}
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('WRITE')")
+    public ResponseEntity<?> getOnboardingJob(@PathVariable String id){
+        return ResponseEntity.ok(this.companyOnboardingJobService.getJob(id));
+    }
+
+    // 관리자 기능 - 여러 회사 한 번에 저장
+    // POST /company/batch
+    // ["KO", "O", "MMM"]
+    // [{ticker:"KO", status:"CREATED", company:{...}, dividends:240}, {ticker:"O", status:"ALREADY_EXISTS",...}]
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('WRITE')")
+    public ResponseEntity<?> addCompanies(@RequestBody List<String> tickers){
+        return ResponseEntity.ok(this.companyOnboardingPipeline.onboard(tickers));
+    }
+
+    // 파일 업로드 버전 : text/csv 또는 application/x-ndjson 본문
+    @PostMapping(value = "/batch", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('WRITE')")
+    public ResponseEntity<?> addCompaniesFromFile(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                  InputStream body) throws IOException {
+        List<String> tickers = this.companyOnboardingPipeline.readTickers(body, MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(this.companyOnboardingPipeline.onboard(tickers));
     }
 
     // 관리자 기능 - 배당금 삭제
@@ -77,6 +130,7 @@ public class CompanyController {
 
     public void clearFinanceCache(String companyName){
         this.redisCacheManager.getCache(CacheKey.KEY_FINANCE).evict(companyName);
+        this.redisCacheManager.getCache(CacheKey.KEY_FINANCE_COMPANY).evict(companyName);
     }
 }
 /*@Controller와 @RestController는 Spring 프레임워크에서
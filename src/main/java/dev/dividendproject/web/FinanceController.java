@@ -1,25 +1,96 @@
 package dev.dividendproject.web;
 
+import dev.dividendproject.autocomplete.AutocompleteService;
+import dev.dividendproject.service.DividendCalendarService;
 import dev.dividendproject.service.FinanceService;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.Duration;
+import java.util.List;
+
 @RestController
 @RequestMapping("/finance")
 @AllArgsConstructor
 public class FinanceController {
+    private static final Duration CALENDAR_MAX_AGE = Duration.ofMinutes(10);
+
     private final FinanceService financeService;
+    private final DividendCalendarService dividendCalendarService;
+    private final AutocompleteService autocompleteService;
 
     // 특정 회사에 해당하는 정보와 배당금을 조회하는 API
     // GET /finance/dividend/{conpanyName}
     // 응답 : {companyName : "좋은 회사", dividend[{date:"2022.3.21 price:"2.00}...]}
+    // 기간/페이지 조회 : ?from=2020-01-01&to=2023-12-31&limit=50&cursor=2021-03-14&order=desc
+    // 파라미터가 하나라도 있으면 {company, dividends, nextCursor} 형태로 응답한다. (order : asc(기본) 또는 desc(최신 순))
     @GetMapping("/dividend/{companyName}")
-    public ResponseEntity<?> searchFinance(@PathVariable String companyName){
-        var result = this.financeService.getDividendByCompanyName(companyName);
+    public ResponseEntity<?> searchFinance(@PathVariable String companyName,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) String order){
+        if (from == null && to == null && limit == null && cursor == null && order == null) {
+            var result = this.financeService.getDividendByCompanyName(companyName);
+            this.autocompleteService.recordHit(companyName); // 자동완성 순위(인기도)
+            return ResponseEntity.ok(result);
+        }
+        var result = this.financeService.getDividends(companyName, from, to, limit, cursor, order);
+        if (cursor == null) {
+            this.autocompleteService.recordHit(companyName); // 다음 페이지 요청은 같은 조회이므로 세지 않는다.
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // 여러 회사의 배당금을 한 번에 조회하는 API
+    // POST /finance/dividends
+    // 요청 : ["Coca-Cola", "AAPL", ...] (회사명 또는 티커)
+    // 응답 : {results[{company, dividends}...], notFound[...]}
+    @PostMapping("/dividends")
+    public ResponseEntity<?> searchFinances(@RequestBody(required = false) List<String> companies){
+        var result = this.financeService.getDividendsBulk(companies);
+        return ResponseEntity.ok(result);
+    }
+
+    // 기간 안의 여러 회사 배당 일정을 조회하는 API
+    // GET /finance/calendar?from=2023-01-01&to=2023-03-31&limit=100&cursor=2023-02-14:12
+    // 지난 기간(settled)은 거의 바뀌지 않으므로 브라우저/프록시가 잠깐 캐시했다가 ETag로 다시 확인할 수 있게 응답한다.
+    @GetMapping("/calendar")
+    public ResponseEntity<?> calendar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) String cursor){
+        var result = this.dividendCalendarService.getCalendar(from, to, limit, cursor);
+        // 확정된 기간도 백필이나 회사 삭제로 바뀔 수 있어서 짧게만 캐시하고, 이후에는 ETag로 다시 확인하게 한다.
+        // (If-None-Match가 같으면 ResponseEntity 처리 과정에서 본문 없이 304로 응답된다)
+        CacheControl cacheControl = result.isSettled()
+                ? CacheControl.maxAge(CALENDAR_MAX_AGE).cachePublic()
+                : CacheControl.noCache();
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag("\"" + result.etag() + "\"").body(result);
+    }
+
+    // 배당금 분석 API
+    // GET /finance/analytics/{companyName}
+    // 응답 : {companyName, lastDate, trailingTwelveMonths, cagr, cagrYears, yearly[{year, total, count, growth}...]}
+    @GetMapping("/analytics/{companyName}")
+    public ResponseEntity<?> analytics(@PathVariable String companyName){
+        var result = this.financeService.getDividendAnalytics(companyName);
         return ResponseEntity.ok(result);
     }
+
+    // 연도별 배당금 합계, 지급 횟수, 전년 대비 증가율만 조회
+    // GET /finance/analytics/{companyName}/yearly
+    @GetMapping("/analytics/{companyName}/yearly")
+    public ResponseEntity<?> yearlyAnalytics(@PathVariable String companyName){
+        var result = this.financeService.getDividendAnalytics(companyName);
+        return ResponseEntity.ok(result.getYearly());
+    }
 }
 /*
 * ResponseEntity.ok(result)는 HTTP 응답을 나타내는 클래스인
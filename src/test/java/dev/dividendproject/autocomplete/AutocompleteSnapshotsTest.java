@@ -0,0 +1,171 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutocompleteSnapshotsTest {
+
+    @Test
+    void removeRefillsTopK() {
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 2), Runnable::run);
+        snapshots.add(new AutocompleteEntry("Coca-Cola", "KO", 50));
+        snapshots.add(new AutocompleteEntry("Coca-Cola Consolidated", "COKE", 5));
+        snapshots.add(new AutocompleteEntry("Costco", "COST", 20));
+        assertEquals(List.of("Coca-Cola", "Costco"), snapshots.current().suggest("co", 10));
+
+        snapshots.remove("Coca-Cola");
+
+        assertEquals(List.of("Costco", "Coca-Cola Consolidated"), snapshots.current().suggest("co", 10));
+        assertTrue(snapshots.current().suggest("ko", 10).isEmpty());
+    }
+
+    @Test
+    void replaceAllKeepsLaterChanges() {
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), command -> { });
+        snapshots.add(new AutocompleteEntry("Old", "OLD", 0));
+        snapshots.replaceAll(() -> List.of(new AutocompleteEntry("Realty Income", "O", 0)));
+        snapshots.add(new AutocompleteEntry("Omega", "OHI", 0));
+
+        // 발행 전에는 이전 스냅샷이 그대로 보인다.
+        assertEquals(0, snapshots.current().size());
+        snapshots.flush();
+
+        assertEquals(List.of("Omega", "Realty Income"), snapshots.current().suggest("o", 10));
+    }
+
+    // 전체 교체를 요청한 뒤에 커밋된 등록/삭제를 교체가 덮어쓰지 않아야 한다.
+    @Test
+    void replaceAllReadsAfterEarlierChanges() {
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), command -> { });
+        List<AutocompleteEntry> database = new ArrayList<>(List.of(
+                new AutocompleteEntry("Realty Income", "O", 0),
+                new AutocompleteEntry("Old Republic", "ORI", 0)));
+        snapshots.replaceAll(() -> List.copyOf(database));
+
+        // 교체가 발행되기 전에 등록과 삭제가 커밋되고 큐에 들어온다.
+        AutocompleteEntry omega = new AutocompleteEntry("Omega", "OHI", 0);
+        database.add(omega);
+        snapshots.add(omega);
+        database.remove(1);
+        snapshots.remove("Old Republic");
+        snapshots.flush();
+
+        assertEquals(List.of("Omega", "Realty Income"), snapshots.current().suggest("o", 10));
+    }
+
+    // 교체 목록을 읽는 도중에 들어온 변경은 읽은 목록 위에 적용된다.
+    @Test
+    void changeDuringLoadIsKept() {
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), command -> { });
+        snapshots.replaceAll(() -> {
+            snapshots.add(new AutocompleteEntry("Omega", "OHI", 0));
+            return List.of(new AutocompleteEntry("Realty Income", "O", 0));
+        });
+        snapshots.flush();
+
+        assertEquals(List.of("Omega", "Realty Income"), snapshots.current().suggest("o", 10));
+    }
+
+    // 오타 허용 검색 인덱스도 스냅샷과 같은 순서로 변경을 받는다.
+    @Test
+    void listenerFollowsSnapshot() {
+        FuzzySearchIndex fuzzy = new FuzzySearchIndex(List.of());
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), command -> { }, fuzzy);
+        snapshots.replaceAll(() -> List.of(new AutocompleteEntry("Coca-Cola", "KO", 0)));
+        snapshots.add(new AutocompleteEntry("PepsiCo", "PEP", 0));
+        snapshots.remove("Coca-Cola");
+
+        // 발행 전에는 어느 쪽에도 반영되지 않는다.
+        assertEquals(0, fuzzy.size());
+        snapshots.flush();
+
+        assertEquals(List.of("PepsiCo"), fuzzy.search("pepsco", 10));
+        assertTrue(fuzzy.search("coca cola", 10).isEmpty());
+        assertEquals(1, snapshots.current().size());
+    }
+
+    // 읽기 스레드 여러 개가 도는 동안 쓰기 스레드들이 추가/삭제를 반복해도
+    // 읽기는 예외 없이 끝나고, 마지막 스냅샷에는 남겨둔 회사만 있어야 한다.
+    @Test
+    void concurrentReadsAndWrites() throws Exception {
+        int writers = 4;
+        int readers = 8;
+        int perWriter = 500;
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        ExecutorService pool = Executors.newFixedThreadPool(writers + readers);
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), publisher);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writes.add(pool.submit(() -> {
+                    await(start);
+                    for (int i = 0; i < perWriter; i++) {
+                        String name = "Company " + writer + "-" + i;
+                        snapshots.add(new AutocompleteEntry(name, "T" + writer + "X" + i, i));
+                        if (i % 2 == 1) {
+                            snapshots.remove(name); // 홀수 번째는 바로 지운다.
+                        }
+                    }
+                }));
+            }
+            for (int r = 0; r < readers; r++) {
+                pool.submit(() -> {
+                    await(start);
+                    try {
+                        while (writing.get()) {
+                            AutocompleteIndex index = snapshots.current();
+                            List<String> names = index.suggest("company " + (int) (Math.random() * writers), 10);
+                            assertTrue(names.size() <= 10);
+                            index.suggest("t", 10);
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                });
+            }
+
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            publisher.shutdown();
+            assertTrue(publisher.awaitTermination(30, TimeUnit.SECONDS));
+            snapshots.flush();
+
+            assertTrue(errors.isEmpty(), () -> "reader failed -> " + errors.peek());
+            assertEquals(writers * perWriter / 2, snapshots.current().size());
+            assertEquals(List.of("Company 0-498"), snapshots.current().suggest("company 0-498", 10));
+            assertTrue(snapshots.current().suggest("company 0-499", 10).isEmpty());
+        } finally {
+            writing.set(false);
+            pool.shutdownNow();
+            publisher.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutocompleteVersionTrackerTest {
+
+    private static final String SELF = "node-a";
+    private static final String OTHER = "node-b";
+
+    private final AutocompleteVersionTracker tracker = new AutocompleteVersionTracker(SELF);
+
+    @Test
+    void gapMarksBehindUntilRebuild() {
+        assertTrue(this.tracker.accept(1, add("Coca-Cola", OTHER)));
+        assertFalse(this.tracker.isBehind(1));
+
+        // 2를 놓치고 3을 받으면 3은 적용하되, DB에서 다시 만들 때까지 뒤처진 것으로 본다.
+        assertTrue(this.tracker.accept(3, add("PepsiCo", OTHER)));
+        assertTrue(this.tracker.isBehind(3));
+
+        this.tracker.markSynced(3);
+        assertFalse(this.tracker.isBehind(3));
+    }
+
+    @Test
+    void unreadableMessageMarksBehind() {
+        assertFalse(this.tracker.accept(1, null));
+        assertTrue(this.tracker.isBehind(1));
+    }
+
+    @Test
+    void skipOwnOrigin() {
+        // 자기가 보낸 이벤트는 적용하지 않지만 버전은 기록한다. (다음 이벤트를 놓친 것으로 보지 않도록)
+        assertFalse(this.tracker.accept(1, add("Coca-Cola", SELF)));
+        assertTrue(this.tracker.accept(2, add("PepsiCo", OTHER)));
+        assertFalse(this.tracker.isBehind(2));
+    }
+
+    @Test
+    void skipVersionsCoveredByRebuild() {
+        this.tracker.markSynced(5);
+
+        assertFalse(this.tracker.accept(4, add("Coca-Cola", OTHER)));
+        assertFalse(this.tracker.accept(5, add("Coca-Cola", OTHER)));
+        assertTrue(this.tracker.accept(6, add("PepsiCo", OTHER)));
+        assertFalse(this.tracker.isBehind(6));
+        // 레디스의 버전이 앞서 있으면 뒤처진 것
+        assertTrue(this.tracker.isBehind(7));
+    }
+
+    // 재구성이 버전 5를 읽은 뒤 DB를 읽는 동안 6을 받으면, 6은 읽은 목록 위에 다시 적용되어야 한다.
+    @Test
+    void changeReceivedDuringRebuildIsKept() {
+        AutocompleteSnapshots snapshots = new AutocompleteSnapshots(entries -> new TrieAutocompleteIndex(entries, 10), command -> { });
+        this.tracker.markSynced(4); // 이전 재구성
+        this.tracker.accept(5, add("Realty Income", OTHER));
+
+        snapshots.replaceAll(() -> {
+            long version = 5; // DB를 읽기 전의 버전
+            AutocompleteChange change = add("Omega", OTHER);
+            if (this.tracker.accept(6, change)) {
+                snapshots.add(new AutocompleteEntry(change.getName(), change.getTicker(), 0));
+            }
+            List<AutocompleteEntry> database = List.of(new AutocompleteEntry("Realty Income", "O", 0));
+            this.tracker.markSynced(version);
+            return database;
+        });
+        snapshots.flush();
+
+        assertEquals(List.of("Omega", "Realty Income"), snapshots.current().suggest("o", 10));
+        assertFalse(this.tracker.isBehind(6));
+    }
+
+    // 재구성하는 동안 받은 이벤트 사이에 건너뛴 버전이 있으면 재구성 뒤에도 뒤처진 것으로 남는다.
+    @Test
+    void gapDuringRebuildStaysBehind() {
+        this.tracker.markSynced(4); // 이전 재구성
+        this.tracker.accept(5, add("Realty Income", OTHER));
+
+        long version = 5;
+        this.tracker.accept(7, add("Omega", OTHER)); // 6을 놓쳤다.
+        this.tracker.markSynced(version);
+
+        assertTrue(this.tracker.isBehind(7));
+    }
+
+    private static AutocompleteChange add(String name, String origin) {
+        return AutocompleteChange.add(name, name.substring(0, 1), origin);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactAutocompleteIndexTest {
+
+    private final List<AutocompleteEntry> entries = List.of(
+            new AutocompleteEntry("Coca-Cola", "KO", 50),
+            new AutocompleteEntry("Coca-Cola Consolidated", "COKE", 5),
+            new AutocompleteEntry("Costco", "COST", 20),
+            new AutocompleteEntry("Realty Income", "O", 30));
+
+    @Test
+    void suggestByNameAndTicker() {
+        AutocompleteIndex index = CompactAutocompleteIndex.build(this.entries);
+
+        assertEquals(List.of("Coca-Cola", "Costco", "Coca-Cola Consolidated"), index.suggest("co", 10));
+        assertEquals(List.of("Coca-Cola", "Costco"), index.suggest("Co", 2));
+        assertEquals(List.of("Coca-Cola Consolidated"), index.suggest("coke", 10));
+        assertEquals(List.of("Realty Income"), index.suggest("o", 10));
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest("coca-colaa", 10).isEmpty());
+    }
+
+    // 블록, 묶음 경계를 여러 번 넘도록 회사를 많이 넣고 트라이 인덱스와 같은 결과인지 비교
+    @Test
+    void sameResultAsTrieIndex() {
+        Random random = new Random(7);
+        List<AutocompleteEntry> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(new AutocompleteEntry(randomName(random), "T" + Integer.toString(i, 36), random.nextInt(100)));
+        }
+        AutocompleteIndex trie = new TrieAutocompleteIndex(many, 10);
+        AutocompleteIndex compact = CompactAutocompleteIndex.build(many);
+
+        for (int i = 0; i < 2000; i++) {
+            String name = many.get(random.nextInt(many.size())).getName();
+            String prefix = name.substring(0, 1 + random.nextInt(name.length()));
+            assertEquals(trie.suggest(prefix, 10), compact.suggest(prefix, 10), prefix);
+        }
+        assertEquals(trie.size(), compact.size());
+    }
+
+    @Test
+    void openMappedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("autocomplete.idx");
+        CompactAutocompleteIndex.build(this.entries).writeTo(file);
+
+        AutocompleteIndex mapped = CompactAutocompleteIndex.open(file);
+
+        assertEquals(4, mapped.size());
+        assertEquals(List.of("Coca-Cola", "Costco", "Coca-Cola Consolidated"), mapped.suggest("co", 10));
+    }
+
+    private static String randomName(Random random) {
+        String[] syllables = {"ka", "co", "la", "re", "al", "ty", "in", "me", "ste", "el", "pro", "cor"};
+        StringBuilder name = new StringBuilder();
+        for (int i = 0, n = 2 + random.nextInt(4); i < n; i++) {
+            name.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1) + " " + random.nextInt(1000);
+    }
+}
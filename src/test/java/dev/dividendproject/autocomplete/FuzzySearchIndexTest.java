@@ -0,0 +1,99 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzySearchIndexTest {
+
+    private final FuzzySearchIndex index = new FuzzySearchIndex(List.of(
+            new AutocompleteEntry("Coca-Cola", "KO", 50),
+            new AutocompleteEntry("Coca-Cola Consolidated", "COKE", 5),
+            new AutocompleteEntry("Costco", "COST", 20),
+            new AutocompleteEntry("Realty Income", "O", 30),
+            new AutocompleteEntry("3M", "MMM", 10)));
+
+    @Test
+    void toleratesTyposAndSpacing() {
+        assertEquals("Coca-Cola", this.index.search("Coka Cola", 10).get(0));
+        assertEquals("Coca-Cola", this.index.search("cocacola", 10).get(0));
+        assertEquals(List.of("Realty Income"), this.index.search("realty incme", 10));
+    }
+
+    @Test
+    void matchesMiddleWordAndTicker() {
+        assertEquals(List.of("Coca-Cola", "Coca-Cola Consolidated"), this.index.search("Cola", 10));
+        assertEquals(List.of("Realty Income"), this.index.search("income", 10));
+        assertEquals(List.of("3M"), this.index.search("mmm", 10));
+    }
+
+    @Test
+    void shortKeywordNeedsExactTerm() {
+        assertEquals(List.of("Coca-Cola"), this.index.search("ko", 10));
+        assertTrue(this.index.search("kx", 10).isEmpty());
+    }
+
+    @Test
+    void updateOnAddAndRemove() {
+        this.index.add(new AutocompleteEntry("PepsiCo", "PEP", 0));
+        assertEquals(List.of("PepsiCo"), this.index.search("pepsi co", 10));
+
+        this.index.remove("Coca-Cola");
+        assertEquals(List.of("Coca-Cola Consolidated"), this.index.search("Coka Cola", 10));
+        assertTrue(this.index.search("ko", 10).isEmpty());
+        assertEquals(5, this.index.size());
+    }
+
+    // 지운 회사의 번호를 새 회사가 다시 써도 이전 회사의 조각으로 찾아지지 않아야 한다.
+    @Test
+    void reuseRemovedIds() {
+        for (int i = 0; i < 1000; i++) {
+            this.index.add(new AutocompleteEntry("Temporary " + i, "TMP", 0));
+            this.index.remove("Temporary " + i);
+        }
+        this.index.remove("Costco");
+        this.index.add(new AutocompleteEntry("PepsiCo", "PEP", 0));
+
+        assertTrue(this.index.search("costco", 10).isEmpty());
+        assertTrue(this.index.search("temporary", 10).isEmpty());
+        assertEquals(List.of("PepsiCo"), this.index.search("pepsico", 10));
+        assertEquals(List.of("Coca-Cola", "Coca-Cola Consolidated"), this.index.search("Cola", 10));
+        assertEquals(5, this.index.size());
+    }
+
+    @Test
+    void replaceAllKeepsTermsAndUpdatesRanking() {
+        this.index.replaceAll(List.of(
+                new AutocompleteEntry("Coca-Cola", "KO", 1),
+                new AutocompleteEntry("Coca-Cola Consolidated", "COKE", 100)));
+
+        assertEquals(List.of("Coca-Cola Consolidated", "Coca-Cola"), this.index.search("cola", 10));
+        assertTrue(this.index.search("costco", 10).isEmpty());
+    }
+
+    @Test
+    void boundedDistance() {
+        assertEquals(1, FuzzySearchIndex.distance("cokacola", "cocacola", 2));
+        assertEquals(3, FuzzySearchIndex.distance("pepsi", "cocacola", 2));
+        // 앞부분과의 거리도 같은 표에서 읽는다. ("coka" -> "coca")
+        assertEquals(1, FuzzySearchIndex.distance("coka", "cocacola", 2, true));
+        assertEquals(3, FuzzySearchIndex.distance("coka", "cocacola", 2, false));
+    }
+
+    // 흔한 단어는 편집 거리를 계산할 후보 수가 정해져 있어도 인기순 상위 결과는 그대로 나온다.
+    @Test
+    void commonWordKeepsMostPopular() {
+        List<AutocompleteEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            entries.add(new AutocompleteEntry("Global Cola " + i, "G" + i, i));
+        }
+        FuzzySearchIndex many = new FuzzySearchIndex(entries);
+
+        assertEquals(List.of("Global Cola 4999", "Global Cola 4998", "Global Cola 4997"), many.search("cola", 3));
+        assertEquals(List.of("Global Cola 4999", "Global Cola 4998"), many.search("colx", 2));
+    }
+}
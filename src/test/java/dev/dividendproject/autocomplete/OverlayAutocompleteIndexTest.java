@@ -0,0 +1,50 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OverlayAutocompleteIndexTest {
+
+    // 전체 종목 (인기도 없음)
+    private final CompactAutocompleteIndex base = CompactAutocompleteIndex.build(List.of(
+            new AutocompleteEntry("Coca-Cola", "KO", 0),
+            new AutocompleteEntry("Colgate-Palmolive", "CL", 0),
+            new AutocompleteEntry("Comcast", "CMCSA", 0),
+            new AutocompleteEntry("Costco", "COST", 0)));
+
+    @Test
+    void mergeByRanking() {
+        AutocompleteIndex index = new OverlayAutocompleteIndex(this.base, List.of(
+                new AutocompleteEntry("Coca-Cola", "KO", 50),
+                new AutocompleteEntry("Conagra", "CAG", 0)), 10);
+
+        // 인기도가 있는 DB의 회사가 먼저, 나머지는 이름 순으로 섞인다.
+        assertEquals(List.of("Coca-Cola", "Colgate-Palmolive", "Comcast", "Conagra", "Costco"), index.suggest("co", 10));
+        assertEquals(List.of("Coca-Cola", "Colgate-Palmolive"), index.suggest("co", 2));
+        // 양쪽에 있는 회사는 한 번만
+        assertEquals(List.of("Coca-Cola"), index.suggest("ko", 10));
+        assertEquals(List.of("Conagra"), index.suggest("cag", 10));
+    }
+
+    @Test
+    void fillFromBaseAfterSkippingOverlay() {
+        AutocompleteIndex index = new OverlayAutocompleteIndex(this.base, List.of(
+                new AutocompleteEntry("Colgate-Palmolive", "CL", 0),
+                new AutocompleteEntry("Comcast", "CMCSA", 0)), 10);
+
+        // base에서 겹치는 회사를 건너뛰어도 limit개를 채운다.
+        assertEquals(List.of("Coca-Cola", "Colgate-Palmolive", "Comcast"), index.suggest("co", 3));
+    }
+
+    @Test
+    void baseStaysAfterOverlayRemoval() {
+        AutocompleteIndex index = new OverlayAutocompleteIndex(this.base, List.of(), 10);
+
+        // DB에서 지운 회사도 전체 종목에 있으면 인기도 없이 남는다.
+        assertEquals(List.of("Coca-Cola"), index.suggest("coca", 10));
+        assertEquals(4, index.size());
+    }
+}
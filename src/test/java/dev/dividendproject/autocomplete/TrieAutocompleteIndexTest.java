@@ -0,0 +1,48 @@
+package dev.dividendproject.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrieAutocompleteIndexTest {
+
+    private final List<AutocompleteEntry> entries = List.of(
+            new AutocompleteEntry("Coca-Cola", "KO", 50),
+            new AutocompleteEntry("Coca-Cola Consolidated", "COKE", 5),
+            new AutocompleteEntry("Costco", "COST", 20),
+            new AutocompleteEntry("Realty Income", "O", 30));
+
+    @Test
+    void suggestByNamePrefixRankedByPopularity() {
+        AutocompleteIndex index = new TrieAutocompleteIndex(this.entries, 10);
+
+        assertEquals(List.of("Coca-Cola", "Costco", "Coca-Cola Consolidated"), index.suggest("co", 10));
+        assertEquals(List.of("Coca-Cola", "Coca-Cola Consolidated"), index.suggest("COCA", 10));
+    }
+
+    @Test
+    void suggestByTicker() {
+        AutocompleteIndex index = new TrieAutocompleteIndex(this.entries, 10);
+
+        assertEquals(List.of("Realty Income"), index.suggest("o", 10));
+        assertEquals(List.of("Coca-Cola Consolidated"), index.suggest("coke", 10));
+    }
+
+    @Test
+    void keepOnlyTopK() {
+        AutocompleteIndex index = new TrieAutocompleteIndex(this.entries, 2);
+
+        assertEquals(List.of("Coca-Cola", "Costco"), index.suggest("co", 10));
+        assertTrue(index.suggest("x", 10).isEmpty());
+    }
+
+    @Test
+    void suggestLongPrefixFromTrie() {
+        AutocompleteIndex index = new TrieAutocompleteIndex(this.entries, 10);
+
+        assertEquals(List.of("Coca-Cola Consolidated"), index.suggest("coca-cola cons", 10));
+    }
+}
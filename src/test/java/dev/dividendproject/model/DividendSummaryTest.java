@@ -0,0 +1,129 @@
+package dev.dividendproject.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DividendSummaryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, 8, 1);
+
+    // 2019년은 하반기부터 기록된 회사, 2023년은 진행 중
+    private static List<Dividend> history() {
+        List<Dividend> dividends = new ArrayList<>();
+        dividends.add(dividend("2019-09-10", "0.40"));
+        dividends.add(dividend("2019-12-10", "0.40"));
+        String[] amounts = {"0.41", "0.42", "0.44"};
+        for (int i = 0; i < amounts.length; i++) {
+            int year = 2020 + i;
+            for (String day : new String[]{"-03-10", "-06-10", "-09-10", "-12-10"}) {
+                dividends.add(dividend(year + day, amounts[i]));
+            }
+        }
+        dividends.add(dividend("2023-03-14", "0.46"));
+        dividends.add(dividend("2023-06-13", "0.46"));
+        return dividends;
+    }
+
+    @Test
+    void encodeYearlyTotalsAndRecentPayments() {
+        DividendSummary summary = new DividendSummary();
+        summary.apply(history());
+
+        assertEquals("2019=0.8/2;2020=1.64/4;2021=1.68/4;2022=1.76/4;2023=0.92/2", summary.encodeYearly());
+        // 마지막 배당일(2023-06-13)로부터 1년 안의 지급만 남는다.
+        assertEquals("2022-09-10=0.44;2022-12-10=0.44;2023-03-14=0.46;2023-06-13=0.46", summary.encodeRecent());
+        assertEquals(LocalDate.of(2023, 6, 13), summary.getLastDate());
+    }
+
+    @Test
+    void decodeRoundTrip() {
+        DividendSummary summary = new DividendSummary();
+        summary.apply(history());
+
+        DividendSummary decoded = DividendSummary.decode(summary.encodeYearly(), summary.encodeRecent());
+
+        assertEquals(summary.encodeYearly(), decoded.encodeYearly());
+        assertEquals(summary.encodeRecent(), decoded.encodeRecent());
+        assertEquals(summary.getLastDate(), decoded.getLastDate());
+    }
+
+    @Test
+    void applyIncrementallyMatchesFullBuild() {
+        List<Dividend> all = history();
+        DividendSummary full = new DividendSummary();
+        full.apply(all);
+
+        DividendSummary partial = new DividendSummary();
+        partial.apply(all.subList(0, 10));
+        DividendSummary stored = DividendSummary.decode(partial.encodeYearly(), partial.encodeRecent());
+        stored.apply(all.subList(10, all.size()));
+
+        assertEquals(full.encodeYearly(), stored.encodeYearly());
+        assertEquals(full.encodeRecent(), stored.encodeRecent());
+    }
+
+    @Test
+    void decodeEmptySummary() {
+        DividendSummary summary = DividendSummary.decode("", null);
+
+        assertEquals("", summary.encodeYearly());
+        assertNull(summary.getLastDate());
+        DividendAnalytics analytics = summary.toAnalytics("Empty", TODAY);
+        assertEquals(BigDecimal.ZERO, analytics.getTrailingTwelveMonths());
+        assertNull(analytics.getCagr());
+        assertEquals(0, analytics.getYearly().size());
+    }
+
+    @Test
+    void analytics() {
+        DividendSummary summary = new DividendSummary();
+        summary.apply(history());
+
+        DividendAnalytics analytics = summary.toAnalytics("Coca-Cola", TODAY);
+
+        assertEquals("Coca-Cola", analytics.getCompanyName());
+        assertEquals(LocalDate.of(2023, 6, 13), analytics.getLastDate());
+        // TTM : 2022-08-01 이후 네 번
+        assertEquals(new BigDecimal("1.8"), analytics.getTrailingTwelveMonths());
+        // CAGR : 첫 해(2019)와 올해(2023)를 빼고 2020 -> 2022, (1.76 / 1.64)^(1/2) - 1
+        assertEquals(new BigDecimal("0.035940"), analytics.getCagr());
+        assertEquals(2, analytics.getCagrYears());
+
+        List<DividendAnalytics.YearlyDividend> yearly = analytics.getYearly();
+        assertEquals(5, yearly.size());
+        assertYearly(yearly.get(0), 2019, "0.8", 2, null);
+        assertYearly(yearly.get(1), 2020, "1.64", 4, "1.050000");
+        assertYearly(yearly.get(2), 2021, "1.68", 4, "0.024390");
+        assertYearly(yearly.get(3), 2022, "1.76", 4, "0.047619");
+        assertYearly(yearly.get(4), 2023, "0.92", 2, "-0.477273");
+    }
+
+    @Test
+    void noGrowthAcrossMissingYear() {
+        DividendSummary summary = new DividendSummary();
+        summary.apply(List.of(dividend("2019-06-10", "1.00"), dividend("2021-06-10", "1.10")));
+
+        DividendAnalytics analytics = summary.toAnalytics("Gap", TODAY);
+
+        assertNull(analytics.getYearly().get(1).getGrowth());
+    }
+
+    private static void assertYearly(DividendAnalytics.YearlyDividend yearly, int year, String total, int count,
+                                     String growth) {
+        assertEquals(year, yearly.getYear());
+        assertEquals(new BigDecimal(total), yearly.getTotal());
+        assertEquals(count, yearly.getCount());
+        assertEquals(growth == null ? null : new BigDecimal(growth), yearly.getGrowth());
+    }
+
+    private static Dividend dividend(String date, String amount) {
+        return new Dividend(LocalDate.parse(date).atStartOfDay(), new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,97 @@
+package dev.dividendproject.persist;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.IngestResult;
+import dev.dividendproject.persist.entity.DividendEntity;
+import dev.dividendproject.persist.entity.DividendSummaryEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({DividendBulkRepository.class, DividendSummaryStore.class})
+@TestPropertySource(properties = "dividend.ingest.batch-size=2") // 여러 배치로 나뉘도록
+class DividendBulkRepositoryTest {
+
+    private static final Long COMPANY_ID = 1L;
+
+    @Autowired
+    private DividendBulkRepository dividendBulkRepository;
+    @Autowired
+    private DividendSummaryStore dividendSummaryStore;
+    @Autowired
+    private DividendRepository dividendRepository;
+    @Autowired
+    private DividendSummaryRepository dividendSummaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        // 테스트 트랜잭션 안에서 요약 행을 만들어 둔다. (없으면 별도 트랜잭션에서 만들어 롤백되지 않는다)
+        this.dividendSummaryStore.create(COMPANY_ID);
+    }
+
+    @Test
+    void insertNewRows() {
+        IngestResult result = this.dividendBulkRepository.upsertAll(COMPANY_ID, List.of(
+                dividend("2023-03-14", "0.46"),
+                dividend("2023-06-13", "0.46"),
+                dividend("2023-09-14", "0.46")));
+
+        assertEquals(new IngestResult(3, 0), result);
+        assertEquals(List.of(LocalDate.parse("2023-03-14"), LocalDate.parse("2023-06-13"), LocalDate.parse("2023-09-14")),
+                this.storedDates());
+        assertEquals("2023=1.38/3", this.summary().getYearly());
+    }
+
+    @Test
+    void allDuplicates() {
+        List<Dividend> dividends = List.of(dividend("2023-03-14", "0.46"), dividend("2023-06-13", "0.46"));
+        this.dividendBulkRepository.upsertAll(COMPANY_ID, dividends);
+
+        // 다시 스크랩한 같은 행은 삽입하지도, 요약에 두 번 더하지도 않는다.
+        assertEquals(new IngestResult(0, 2), this.dividendBulkRepository.upsertAll(COMPANY_ID, dividends));
+        assertEquals(2, this.storedDates().size());
+        assertEquals("2023=0.92/2", this.summary().getYearly());
+    }
+
+    @Test
+    void partialOverlap() {
+        this.dividendBulkRepository.upsertAll(COMPANY_ID, List.of(dividend("2023-03-14", "0.46"), dividend("2023-06-13", "0.46")));
+
+        IngestResult result = this.dividendBulkRepository.upsertAll(COMPANY_ID, List.of(
+                dividend("2023-06-13", "0.46"),
+                dividend("2023-09-14", "0.46"),
+                dividend("2023-09-14", "0.46"), // 스크랩 결과 안의 중복
+                dividend("2023-12-14", "0.46")));
+
+        assertEquals(new IngestResult(2, 2), result);
+        assertEquals(List.of(LocalDate.parse("2023-03-14"), LocalDate.parse("2023-06-13"),
+                LocalDate.parse("2023-09-14"), LocalDate.parse("2023-12-14")), this.storedDates());
+        assertEquals("2023=1.84/4", this.summary().getYearly());
+    }
+
+    private List<LocalDate> storedDates() {
+        return this.dividendRepository.findAllByCompanyId(COMPANY_ID).stream()
+                .map(DividendEntity::getDate)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private DividendSummaryEntity summary() {
+        return this.dividendSummaryRepository.findById(COMPANY_ID).orElseThrow();
+    }
+
+    private static Dividend dividend(String date, String amount) {
+        return new Dividend(LocalDate.parse(date).atStartOfDay(), new BigDecimal(amount));
+    }
+}
@@ -0,0 +1,154 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterScrapCoordinatorTest {
+
+    private static final Duration LEASE_TTL = Duration.ofMillis(300);
+
+    private static EmbeddedRedis redis;
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    // 노드의 시간대와 상관없이 같은 스케줄 시각을 UTC로 돌려준다.
+    @Test
+    void firingIsSameAcrossZones() {
+        ClusterScrapCoordinator coordinator = coordinator(2, "America/New_York");
+        ZonedDateTime seoul = ZonedDateTime.parse("2023-03-12T15:30:00+09:00[Asia/Seoul]");
+
+        assertEquals("2023-03-12T05:00:00Z", coordinator.firingOf(seoul));
+        assertEquals("2023-03-12T05:00:00Z", coordinator.firingOf(seoul.withZoneSameInstant(ZoneOffset.UTC)));
+        // 서머타임이 시작된 다음 날 자정은 UTC 04:00
+        assertEquals("2023-03-13T04:00:00Z", coordinator.firingOf(ZonedDateTime.parse("2023-03-13T12:00:00Z")));
+    }
+
+    @Test
+    void startJoinAndFinish() throws InterruptedException {
+        ClusterScrapCoordinator first = coordinator(4, "UTC");
+        ClusterScrapCoordinator second = coordinator(4, "UTC");
+        Map<Integer, String> processed = new ConcurrentHashMap<>();
+        Map<Integer, Integer> counts = new ConcurrentHashMap<>();
+        CountDownLatch joined = new CountDownLatch(1);
+
+        // 첫 노드가 샤드 0을 처리하는 동안 두 번째 노드가 같은 실행에 참여해서 나머지를 처리한다.
+        Thread firstNode = new Thread(() -> first.runShards((shard, cursor) -> {
+            processed.put(shard, cursor);
+            counts.merge(shard, 1, Integer::sum);
+            if (shard == 0) {
+                await(joined);
+            }
+        }));
+        firstNode.start();
+        waitUntil(() -> processed.containsKey(0));
+
+        List<Integer> bySecond = new CopyOnWriteArrayList<>();
+        Thread secondNode = new Thread(() -> second.runShards((shard, cursor) -> {
+            bySecond.add(shard);
+            processed.put(shard, cursor);
+            counts.merge(shard, 1, Integer::sum);
+        }));
+        secondNode.start();
+        waitUntil(() -> bySecond.size() == 3);
+        joined.countDown();
+
+        firstNode.join(5_000);
+        secondNode.join(5_000);
+        assertFalse(firstNode.isAlive());
+        assertFalse(secondNode.isAlive());
+        assertEquals(List.of(1, 2, 3), bySecond);
+        // 두 번째 노드가 끝낸 샤드를 첫 노드가 다시 처리하지 않는다.
+        assertEquals(Map.of(0, 1, 1, 1, 2, 1, 3, 1), counts);
+        // 모든 샤드가 같은 실행의 커서를 쓴다.
+        String runId = processed.get(0).split(":")[1];
+        for (int shard = 0; shard < 4; shard++) {
+            assertEquals("run:" + runId + ":shard:" + shard, processed.get(shard));
+        }
+
+        // 실행이 끝나면 현재 실행 키를 지우고, 같은 스케줄로는 다시 시작하지 않는다.
+        assertNull(redis.template().opsForValue().get("scrap:run:current"));
+        List<Integer> late = new CopyOnWriteArrayList<>();
+        coordinator(4, "UTC").runShards((shard, cursor) -> late.add(shard));
+        assertTrue(late.isEmpty());
+    }
+
+    @Test
+    void takeOverExpiredLease() throws InterruptedException {
+        ClusterScrapCoordinator dying = coordinator(2, "UTC");
+        ClusterScrapCoordinator survivor = coordinator(2, "UTC");
+        Map<Integer, String> dyingCursors = new ConcurrentHashMap<>();
+        CountDownLatch never = new CountDownLatch(1);
+
+        // 샤드 0을 잡은 노드가 멈추고 리스 갱신도 멈춘다.
+        Thread dyingNode = new Thread(() -> dying.runShards((shard, cursor) -> {
+            dyingCursors.put(shard, cursor);
+            await(never);
+        }));
+        dyingNode.setDaemon(true);
+        dyingNode.start();
+        waitUntil(() -> dyingCursors.containsKey(0));
+        dying.shutdown();
+
+        // 리스가 만료되면 다른 노드가 같은 커서 이름으로 샤드 0을 넘겨받는다.
+        Map<Integer, String> taken = new ConcurrentHashMap<>();
+        survivor.runShards(taken::put);
+
+        assertEquals(dyingCursors.get(0), taken.get(0));
+        assertEquals(2, taken.size());
+        assertNull(redis.template().opsForValue().get("scrap:run:current"));
+        dyingNode.interrupt();
+        dyingNode.join(5_000);
+    }
+
+    private static ClusterScrapCoordinator coordinator(int shards, String zone) {
+        return new ClusterScrapCoordinator(redis.template(), true, shards, LEASE_TTL, Duration.ofHours(23),
+                "0 0 0 * * *", zone);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,56 @@
+package dev.dividendproject.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DividendCadenceTest {
+
+    // 최신순 배당금 날짜, 기대하는 주기(일), 기대하는 다음 배당일
+    private static final Object[][] CASES = {
+            {"quarterly", dates("2023-03-14", "2022-12-13", "2022-09-13", "2022-06-14"), 91L, "2023-06-13"},
+            // 간격 28, 31, 31 -> 중앙값 31
+            {"monthly", dates("2023-03-01", "2023-02-01", "2023-01-01", "2022-12-01"), 31L, "2023-04-01"},
+            // 특별 배당(1/5)이 섞여서 간격이 68, 23, 91, 91 이어도 중앙값은 분기 주기
+            {"irregular", dates("2023-03-14", "2023-01-05", "2022-12-13", "2022-09-13", "2022-06-14"), 91L, "2023-06-13"},
+    };
+
+    @Test
+    void inferMedianGap() {
+        for (Object[] c : CASES) {
+            @SuppressWarnings("unchecked")
+            DividendCadence cadence = DividendCadence.infer((List<LocalDate>) c[1]).orElseThrow();
+
+            assertEquals(c[2], cadence.getIntervalDays(), c[0] + " interval");
+            assertEquals(LocalDate.parse((String) c[3]), cadence.getExpectedDate(), c[0] + " expected date");
+        }
+    }
+
+    @Test
+    void unknownWithoutEnoughHistory() {
+        List<List<LocalDate>> histories = List.of(
+                dates(),
+                dates("2023-03-14"),
+                dates("2023-03-14", "2022-12-13"),
+                // 같은 날짜가 반복되면 간격으로 세지 않는다.
+                dates("2023-03-14", "2023-03-14", "2022-12-13"));
+
+        for (List<LocalDate> history : histories) {
+            Optional<DividendCadence> cadence = DividendCadence.infer(history);
+            assertFalse(cadence.isPresent(), history.toString());
+        }
+    }
+
+    static List<LocalDate> dates(String... dates) {
+        LocalDate[] parsed = new LocalDate[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            parsed[i] = LocalDate.parse(dates[i]);
+        }
+        return List.of(parsed);
+    }
+}
@@ -0,0 +1,174 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RollingScrapScheduleTest {
+
+    private static final Duration WINDOW = Duration.ofDays(1);
+    private static final long SLOT_MILLIS = WINDOW.toMillis() / CompanyEntity.SCRAP_SLOTS;
+    private static final Duration LEASE_TTL = Duration.ofMillis(300);
+
+    private static EmbeddedRedis redis;
+
+    private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+    private final MutableClock clock = new MutableClock();
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+    }
+
+    // 틱 10초 -> 8초 안에 끝낼 만큼
+    @Test
+    void batchSizeFollowsSmoothedCost() {
+        RollingScrapSchedule schedule = schedule(null, Duration.ofSeconds(10), 4, 256);
+        assertEquals(4, schedule.getBatchSize());
+
+        schedule.record(10, 1_000); // 회사당 100ms
+        assertEquals(80, schedule.getBatchSize());
+
+        schedule.record(10, 2_000); // 200ms 관측 -> 0.3 * 200 + 0.7 * 100 = 130ms
+        assertEquals(61, schedule.getBatchSize());
+
+        schedule.record(0, 5_000); // 처리한 회사가 없으면 바꾸지 않는다.
+        assertEquals(61, schedule.getBatchSize());
+    }
+
+    @Test
+    void batchSizeIsClamped() {
+        RollingScrapSchedule fast = schedule(null, Duration.ofSeconds(10), 4, 256);
+        fast.record(1_000, 0); // 회사당 1ms 미만이어도 1ms로 본다 -> 8000개
+        assertEquals(256, fast.getBatchSize());
+
+        RollingScrapSchedule slow = schedule(null, Duration.ofSeconds(10), 4, 256);
+        slow.record(1, 60_000);
+        assertEquals(4, slow.getBatchSize());
+    }
+
+    // window 끝을 넘어가는 구간은 [from, 마지막 슬롯] + [0, to] 두 범위로 조회한다.
+    @Test
+    void wrapAroundWindowEnd() {
+        int last = CompanyEntity.SCRAP_SLOTS - 1;
+        RollingScrapSchedule schedule = schedule(coordinator(), Duration.ofMinutes(1), 4, 256);
+        this.clock.setSlot(3L * CompanyEntity.SCRAP_SLOTS - 2);
+
+        assertTrue(schedule.nextBatch().isEmpty());
+        verify(this.companyRepository).findInScrapSlotsAfter(last - 1, last - 1, 0, -1, 0L, PageRequest.of(0, 4));
+
+        // 3 슬롯 뒤 : 마지막 슬롯, 0, 1
+        this.clock.setSlot(3L * CompanyEntity.SCRAP_SLOTS + 1);
+        assertTrue(schedule.nextBatch().isEmpty());
+        verify(this.companyRepository).findInScrapSlotsAfter(last, last, 0, 1, 0L, PageRequest.of(0, 4));
+    }
+
+    // 처리 도중 죽은 노드의 구간은 리스가 만료된 뒤 다른 노드(재시작한 노드)가 같은 위치부터 이어서 처리한다.
+    @Test
+    void resumeRangeAfterCrash() throws InterruptedException {
+        List<CompanyEntity> companies = companies(1, 4);
+        when(this.companyRepository.findInScrapSlotsAfter(anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long lastId = invocation.getArgument(4);
+                    return companies.stream().filter(c -> c.getId() > lastId).limit(2).collect(Collectors.toList());
+                });
+        this.clock.setSlot(5L * CompanyEntity.SCRAP_SLOTS + 7);
+
+        RollingScrapSchedule crashed = schedule(coordinator(), Duration.ofMinutes(1), 2, 2);
+        assertEquals(List.of(1L, 2L), ids(crashed.nextBatch())); // record 전에 죽는다.
+
+        RollingScrapSchedule restarted = schedule(coordinator(), Duration.ofMinutes(1), 2, 2);
+        // 리스가 살아 있는 동안은 다른 노드가 같은 구간을 처리하지 않는다.
+        assertTrue(restarted.nextBatch().isEmpty());
+
+        Thread.sleep(LEASE_TTL.toMillis() * 2);
+        assertEquals(List.of(1L, 2L), ids(restarted.nextBatch()));
+        restarted.record(2, 100);
+        assertEquals(List.of(3L, 4L), ids(restarted.nextBatch()));
+        restarted.record(2, 100);
+        assertTrue(restarted.nextBatch().isEmpty());
+        restarted.record(0, 0);
+
+        verify(this.companyRepository).findInScrapSlotsAfter(eq(7), eq(7), eq(0), eq(-1), eq(4L), any(Pageable.class));
+        assertTrue(redis.template().opsForHash().entries("scrap:rolling:ranges").isEmpty());
+    }
+
+    private RollingScrapSchedule schedule(ClusterScrapCoordinator coordinator, Duration tick, int min, int max) {
+        return new RollingScrapSchedule(this.companyRepository, coordinator, WINDOW, tick, min, max, this.clock);
+    }
+
+    private static ClusterScrapCoordinator coordinator() {
+        return new ClusterScrapCoordinator(redis.template(), false, 16, LEASE_TTL, Duration.ofHours(23),
+                "0 0 0 * * *", "UTC");
+    }
+
+    private static List<CompanyEntity> companies(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId).mapToObj(id -> {
+            CompanyEntity company = new CompanyEntity();
+            company.setId(id);
+            return company;
+        }).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<CompanyEntity> companies) {
+        return companies.stream().map(CompanyEntity::getId).collect(Collectors.toList());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void setSlot(long slot) {
+            this.now = Instant.ofEpochMilli(slot * SLOT_MILLIS);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return this.now;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.scheduler.ScrapPrioritizer.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static dev.dividendproject.scheduler.DividendCadenceTest.dates;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScrapPrioritizerTest {
+
+    private static final List<LocalDate> QUARTERLY = dates("2023-03-14", "2022-12-13", "2022-09-13", "2022-06-14");
+    private static final List<LocalDate> MONTHLY = dates("2023-03-01", "2023-02-01", "2023-01-01", "2022-12-01");
+
+    // lead 3일, grace 주기의 25%, 7일마다 전체 확인 (슬롯 0인 회사는 epochDay % 7 == 0인 날)
+    // 분기 : 예상일 6/13, 6/10 ~ 7/6 (grace 23일) / 월 : 예상일 4/1, 3/29 ~ 4/9 (grace 8일)
+    private static final Object[][] CASES = {
+            {QUARTERLY, "2023-06-09", Decision.SKIP},
+            {QUARTERLY, "2023-06-10", Decision.DUE},
+            {QUARTERLY, "2023-07-06", Decision.DUE},
+            {QUARTERLY, "2023-07-07", Decision.SKIP},
+            {QUARTERLY, "2023-05-04", Decision.SWEEP},
+            {QUARTERLY, "2023-05-05", Decision.SKIP},
+            {MONTHLY, "2023-03-28", Decision.SKIP},
+            {MONTHLY, "2023-03-29", Decision.DUE},
+            {MONTHLY, "2023-04-09", Decision.DUE},
+            {MONTHLY, "2023-04-10", Decision.SKIP},
+            {MONTHLY, "2023-04-13", Decision.SWEEP},
+            {dates("2023-03-14", "2022-12-13"), "2023-06-13", Decision.UNKNOWN},
+            {dates(), "2023-06-13", Decision.UNKNOWN},
+    };
+
+    private final ScrapPrioritizer prioritizer = new ScrapPrioritizer(null, true, 3, 0.25, 7);
+
+    @Test
+    void decide() {
+        CompanyEntity company = new CompanyEntity();
+        company.setScrapSlot(0);
+
+        for (Object[] c : CASES) {
+            @SuppressWarnings("unchecked")
+            Decision decision = this.prioritizer.decide(company, (List<LocalDate>) c[0], LocalDate.parse((String) c[1]));
+
+            assertEquals(c[2], decision, c[0] + " on " + c[1]);
+        }
+    }
+
+    @Test
+    void resetCountersForEachRun() {
+        CompanyEntity company = new CompanyEntity();
+        company.setScrapSlot(0);
+
+        this.prioritizer.decide(company, QUARTERLY, LocalDate.parse("2023-05-05"));
+        this.prioritizer.recordInserted(Decision.SWEEP, 2);
+        assertEquals(1, this.prioritizer.getSkippedFetches());
+        assertEquals(2, this.prioritizer.getLateDividendsCaught());
+
+        this.prioritizer.resetCounters();
+        assertEquals(0, this.prioritizer.getSkippedFetches());
+        assertEquals(0, this.prioritizer.getLateDividendsCaught());
+    }
+}
@@ -0,0 +1,163 @@
+package dev.dividendproject.scheduler;
+
+import dev.dividendproject.model.constants.ScheduleStrategy;
+import dev.dividendproject.model.constants.ScrapMode;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.scheduler.ScrapPrioritizer.Decision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScraperSchedulerTest {
+
+    private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+    private final ClusterScrapCoordinator clusterScrapCoordinator = mock(ClusterScrapCoordinator.class);
+    private final ScrapPrioritizer scrapPrioritizer = mock(ScrapPrioritizer.class);
+    private final FakeCursorStore cursorStore = new FakeCursorStore();
+    private final ExecutorService scrapExecutor = Executors.newFixedThreadPool(2);
+
+    // 스크래핑 대신 처리한 회사 id만 기록한다. (예정일과 먼 회사로 보고 요청을 보내지 않는다)
+    private final List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+
+    private ScraperScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(this.scrapPrioritizer.decide(any())).thenAnswer(invocation -> {
+            this.processed.add(((CompanyEntity) invocation.getArgument(0)).getId());
+            return Decision.SKIP;
+        });
+        // 회사 1 ~ 5를 id 순서대로
+        when(this.companyRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> chunk(invocation.getArgument(0), invocation.getArgument(1), id -> true));
+
+        this.scheduler = new ScraperScheduler(this.companyRepository, null, null, null, this.scrapExecutor, null, null,
+                this.clusterScrapCoordinator, null, this.scrapPrioritizer, this.cursorStore);
+        ReflectionTestUtils.setField(this.scheduler, "scrapMode", ScrapMode.INCREMENTAL);
+        ReflectionTestUtils.setField(this.scheduler, "scheduleStrategy", ScheduleStrategy.CRON);
+        ReflectionTestUtils.setField(this.scheduler, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.scrapExecutor.shutdownNow();
+    }
+
+    // 실패한 실행이 남긴 커서가 있어도 크론 실행은 처음부터 돈다.
+    @Test
+    void cronRunStartsFromBeginning() {
+        this.cursorStore.save("all", 3L);
+        this.cursorStore.saved.clear();
+
+        this.scheduler.yahooFinanceScheduling();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), this.sortedProcessed());
+        assertEquals(List.of("all=2", "all=4", "all=5"), this.cursorStore.saved);
+        // 끝나면 커서를 지운다.
+        assertEquals(Optional.empty(), this.cursorStore.get("all"));
+    }
+
+    @Test
+    void resumeAfterCursor() {
+        this.cursorStore.save("all", 3L);
+
+        this.scheduler.run(true);
+
+        assertEquals(List.of(4L, 5L), this.sortedProcessed());
+        assertEquals(Optional.empty(), this.cursorStore.get("all"));
+    }
+
+    // 샤드마다 실행과 샤드로 이름 붙인 커서를 쓰고, 넘겨받은 샤드는 그 커서부터 이어서 처리한다.
+    @Test
+    void shardCursors() {
+        when(this.clusterScrapCoordinator.isEnabled()).thenReturn(true);
+        when(this.clusterScrapCoordinator.getShards()).thenReturn(2);
+        when(this.companyRepository.findInShardAfter(eq(2L), anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long shard = invocation.getArgument(1);
+                    return chunk(invocation.getArgument(2), invocation.getArgument(3), id -> id % 2 == shard);
+                });
+        doAnswer(invocation -> {
+            BiConsumer<Integer, String> shardProcessor = invocation.getArgument(0);
+            shardProcessor.accept(0, "run:r1:shard:0");
+            shardProcessor.accept(1, "run:r1:shard:1");
+            return null;
+        }).when(this.clusterScrapCoordinator).runShards(any());
+        this.cursorStore.save("run:r1:shard:1", 1L); // 죽은 노드가 회사 1까지 처리했다.
+        this.cursorStore.saved.clear();
+
+        this.scheduler.yahooFinanceScheduling();
+
+        assertEquals(List.of(2L, 3L, 4L, 5L), this.sortedProcessed());
+        assertEquals(List.of("run:r1:shard:0=4", "run:r1:shard:1=5"), this.cursorStore.saved);
+        assertTrue(this.cursorStore.cursors.isEmpty());
+    }
+
+    private List<Long> sortedProcessed() {
+        return this.processed.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static List<CompanyEntity> chunk(long lastId, Pageable page, LongPredicate filter) {
+        return LongStream.rangeClosed(1, 5)
+                .filter(id -> id > lastId && filter.test(id))
+                .limit(page.getPageSize())
+                .mapToObj(id -> {
+                    CompanyEntity company = new CompanyEntity();
+                    company.setId(id);
+                    return company;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // 레디스 대신 쓰는 커서 저장소
+    private static class FakeCursorStore extends ScrapCursorStore {
+        private final Map<String, Long> cursors = new HashMap<>();
+        private final List<String> saved = new ArrayList<>();
+
+        FakeCursorStore() {
+            super(null, Duration.ofDays(2));
+        }
+
+        @Override
+        public Optional<Long> get(String name) {
+            return Optional.ofNullable(this.cursors.get(name));
+        }
+
+        @Override
+        public void save(String name, long lastId) {
+            this.cursors.put(name, lastId);
+            this.saved.add(name + "=" + lastId);
+        }
+
+        @Override
+        public void clear(String name) {
+            this.cursors.remove(name);
+        }
+    }
+}
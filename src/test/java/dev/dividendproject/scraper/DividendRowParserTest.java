@@ -0,0 +1,42 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Dividend;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DividendRowParserTest {
+
+    private final DividendRowParser parser = new DividendRowParser();
+
+    @Test
+    void parseDividendRow() {
+        Dividend dividend = this.parser.parse("Mar 14, 2023 0.46 Dividend");
+
+        assertEquals(LocalDateTime.of(2023, 3, 14, 0, 0), dividend.getDate());
+        assertEquals(new BigDecimal("0.46"), dividend.getDividend());
+    }
+
+    @Test
+    void keepScaleOfAmount() {
+        Dividend dividend = this.parser.parse("Dec 1, 1999 1.250 Dividend");
+
+        assertEquals(LocalDateTime.of(1999, 12, 1, 0, 0), dividend.getDate());
+        assertEquals(new BigDecimal("1.250"), dividend.getDividend());
+    }
+
+    @Test
+    void skipPriceRow() {
+        assertNull(this.parser.parse("Mar 01, 2023 59.80 60.25 58.90 59.31 59.31 312,345,678"));
+    }
+
+    @Test
+    void rejectUnknownMonth() {
+        assertThrows(RuntimeException.class, () -> this.parser.parse("Foo 14, 2023 0.46 Dividend"));
+    }
+}
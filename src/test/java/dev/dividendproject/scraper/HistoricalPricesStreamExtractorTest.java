@@ -0,0 +1,126 @@
+package dev.dividendproject.scraper;
+
+import dev.dividendproject.model.Dividend;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistoricalPricesStreamExtractorTest {
+
+    private static final String PRICE_ROW =
+            "<tr><td>Mar 01, 2023</td><td>59.80</td><td>60.25</td><td>58.90</td><td>59.31</td></tr>";
+
+    private final HistoricalPricesStreamExtractor extractor =
+            new HistoricalPricesStreamExtractor(new DividendRowParser());
+
+    @Test
+    void extractDividendRows() throws IOException {
+        List<Dividend> dividends = this.extract(table(PRICE_ROW
+                + dividendRow("Mar 14, 2023", "0.46")
+                + dividendRow("Dec 1, 2022", "0.44")));
+
+        assertEquals(2, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+        assertDividend(dividends.get(1), LocalDateTime.of(2022, 12, 1, 0, 0), "0.44");
+    }
+
+    @Test
+    void decodeEntities() throws IOException {
+        List<Dividend> dividends = this.extract(table(
+                "<tr><td>Mar&nbsp;14,&#160;2023</td><td>0.46&#x20;<strong>Dividend</strong></td></tr>"
+                        // 세미콜론 없는 &는 글자 그대로 두고, 바로 뒤의 태그는 그대로 읽어야 한다.
+                        + "<tr><td>AT&T</td><td>1 &lt; 2 &amp; 3</td></tr>"
+                        + dividendRow("Dec 1, 2022", "0.44")));
+
+        assertEquals(2, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+        assertDividend(dividends.get(1), LocalDateTime.of(2022, 12, 1, 0, 0), "0.44");
+    }
+
+    @Test
+    void skipCommentsScriptsAndStyles() throws IOException {
+        List<Dividend> dividends = this.extract("<html><head>"
+                + "<script>var t = '<table data-test=\"historical-prices\"><tbody>" + dividendRow("Jan 1, 2000", "9.99") + "';</script>"
+                + "<style>td > span { color: red }</style></head><body>"
+                + "<!-- <table data-test=\"historical-prices\"> -->"
+                + "<table class=\"W(100%)\" data-test=\"historical-prices\"><tbody>"
+                + "<!-- " + dividendRow("Jan 1, 2001", "8.88") + " -->"
+                + "<script>document.write('</tr><tr><td>Jan 1, 2002</td><td>7.77 Dividend</td></tr>')</script>"
+                + dividendRow("Mar 14, 2023", "0.46")
+                + "</tbody></table></body></html>");
+
+        assertEquals(1, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+    }
+
+    @Test
+    void ignoreHeaderRows() throws IOException {
+        List<Dividend> dividends = this.extract("<table data-test=\"historical-prices\">"
+                + "<thead>" + dividendRow("Jan 1, 2000", "9.99") + "</thead>"
+                + "<tbody>" + dividendRow("Mar 14, 2023", "0.46") + "</tbody>"
+                + "<tfoot><tr><td>*Close price adjusted for splits. Dividend</td></tr></tfoot>"
+                + "</table>");
+
+        assertEquals(1, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+    }
+
+    @Test
+    void keepReadingAfterNestedTable() throws IOException {
+        List<Dividend> dividends = this.extract(table(
+                "<tr><td>Mar 14, 2023</td><td><table><tr><td>0.46</td></tr></table> Dividend</td></tr>"
+                        + dividendRow("Dec 1, 2022", "0.44")));
+
+        assertEquals(2, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+        assertDividend(dividends.get(1), LocalDateTime.of(2022, 12, 1, 0, 0), "0.44");
+    }
+
+    @Test
+    void stopAtEndOfTable() throws IOException {
+        List<Dividend> dividends = this.extract("<table data-test=\"historical-prices\"><tbody>"
+                + dividendRow("Mar 14, 2023", "0.46")
+                + "</table>"
+                // 테이블이 닫힌 뒤의 행은 읽지 않는다. (tbody를 닫지 않아도)
+                + dividendRow("Dec 1, 2022", "0.44")
+                + "</tbody>");
+
+        assertEquals(1, dividends.size());
+        assertDividend(dividends.get(0), LocalDateTime.of(2023, 3, 14, 0, 0), "0.46");
+    }
+
+    @Test
+    void failWithoutTable() {
+        assertThrows(RuntimeException.class,
+                () -> this.extract("<table><tbody>" + dividendRow("Mar 14, 2023", "0.46") + "</tbody></table>"));
+    }
+
+    private List<Dividend> extract(String html) throws IOException {
+        List<Dividend> dividends = new ArrayList<>();
+        this.extractor.extract(new StringReader(html), dividends::add);
+        return dividends;
+    }
+
+    private static String table(String rows) {
+        return "<html><body><table data-test=\"historical-prices\"><thead><tr><th>Date</th><th>Open</th></tr></thead>"
+                + "<tbody>" + rows + "</tbody></table><div>footer</div></body></html>";
+    }
+
+    private static String dividendRow(String date, String amount) {
+        return "<tr class=\"BdT\"><td class=\"Py(10px)\"><span>" + date + "</span></td>"
+                + "<td colspan=\"6\"><strong>" + amount + "</strong> <span>Dividend</span></td></tr>";
+    }
+
+    private static void assertDividend(Dividend dividend, LocalDateTime date, String amount) {
+        assertEquals(date, dividend.getDate());
+        assertEquals(new BigDecimal(amount), dividend.getDividend());
+    }
+}
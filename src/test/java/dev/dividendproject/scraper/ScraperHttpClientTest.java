@@ -0,0 +1,144 @@
+package dev.dividendproject.scraper;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScraperHttpClientTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String PAGE = "<html>KO</html>";
+
+    @Test
+    void serveFreshEntryWithoutRequest(@TempDir Path dir) throws IOException {
+        List<String> ifNoneMatch = new ArrayList<>();
+        HttpServer server = server(ifNoneMatch);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            var client = client(dir, Duration.ofHours(1), executor);
+            String url = url(server);
+
+            assertEquals(PAGE, client.getAsync(url + "?now=1", "history:KO").join());
+            assertEquals(PAGE, client.getAsync(url + "?now=2", "history:KO").join());
+
+            // 두 번째는 freshness 안이라 요청을 보내지 않는다.
+            assertEquals(1, ifNoneMatch.size());
+        } finally {
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void revalidateStaleEntry(@TempDir Path dir) throws IOException {
+        List<String> ifNoneMatch = new ArrayList<>();
+        HttpServer server = server(ifNoneMatch);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            var client = client(dir, Duration.ZERO, executor);
+            String url = url(server);
+
+            assertEquals(PAGE, client.getAsync(url, "history:KO").join());
+            // freshness가 지나면 ETag로 조건부 요청을 보내고, 304면 저장된 본문을 쓴다.
+            assertEquals(PAGE, client.getAsync(url, "history:KO").join());
+
+            assertEquals(List.of("", ETAG), ifNoneMatch);
+        } finally {
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+
+    // 헤더와 본문 일부를 보낸 뒤 멈춘 서버에서도 bodyTimeout이 지나면 실패한다. (캐시를 켠 경우와 끈 경우 모두)
+    @Test
+    void failWhenBodyStalls(@TempDir Path dir) throws IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/history", exchange -> {
+            exchange.sendResponseHeaders(200, 1024);
+            OutputStream out = exchange.getResponseBody();
+            out.write("<html>".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (boolean cacheEnabled : new boolean[]{false, true}) {
+                var cache = new ScraperResponseCache(cacheEnabled, dir.toString(), DataSize.ofMegabytes(1), Duration.ZERO);
+                var client = new ScraperHttpClient(HttpClient.newHttpClient(), new HostRateLimiter(100, 10), cache, executor,
+                        Duration.ofSeconds(5), Duration.ofMillis(300));
+
+                CompletionException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                        assertThrows(CompletionException.class, () -> client.getAsync(url(server), "history:KO").join()));
+                assertTrue(e.getCause() instanceof HttpTimeoutException, String.valueOf(e.getCause()));
+            }
+        } finally {
+            release.countDown();
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+
+    // If-None-Match가 ETag와 같으면 304, 아니면 본문을 돌려준다.
+    private static HttpServer server(List<String> ifNoneMatch) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/history", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            synchronized (ifNoneMatch) {
+                ifNoneMatch.add(etag == null ? "" : etag);
+            }
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static ScraperHttpClient client(Path dir, Duration freshness, ExecutorService executor) throws IOException {
+        var cache = new ScraperResponseCache(true, dir.toString(), DataSize.ofMegabytes(1), freshness);
+        return new ScraperHttpClient(HttpClient.newHttpClient(), new HostRateLimiter(100, 10), cache, executor,
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    private static String url(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/history";
+    }
+}
@@ -0,0 +1,87 @@
+package dev.dividendproject.scraper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScraperResponseCacheTest {
+
+    @Test
+    void storeAndLookup(@TempDir Path dir) throws IOException {
+        var cache = new ScraperResponseCache(true, dir.toString(), DataSize.ofMegabytes(1), Duration.ofHours(1));
+
+        cache.store("history:KO", body("<html>KO</html>"), "\"v1\"", "Tue, 14 Mar 2023 00:00:00 GMT");
+
+        var entry = cache.lookup("history:KO").orElseThrow();
+        assertEquals("\"v1\"", entry.getEtag());
+        assertEquals("Tue, 14 Mar 2023 00:00:00 GMT", entry.getLastModified());
+        assertTrue(cache.isFresh(entry));
+        assertEquals("<html>KO</html>", read(cache, entry));
+        assertFalse(cache.lookup("history:PEP").isPresent());
+    }
+
+    @Test
+    void recoverFromCorruptMeta(@TempDir Path dir) throws IOException {
+        var cache = new ScraperResponseCache(true, dir.toString(), DataSize.ofMegabytes(1), Duration.ofHours(1));
+        cache.store("history:KO", body("<html>KO</html>"), "\"v1\"", null);
+
+        Path meta;
+        try (Stream<Path> files = Files.list(dir)) {
+            meta = files.filter(p -> p.toString().endsWith(".properties")).findFirst().orElseThrow();
+        }
+        Files.writeString(meta, "etag=\"v1\"\nfetchedAt=not-a-number\n");
+
+        // 깨진 메타 파일은 캐시 미스로 보고, 다시 저장하면 정상으로 돌아온다.
+        assertFalse(cache.lookup("history:KO").isPresent());
+        cache.store("history:KO", body("<html>KO2</html>"), "\"v2\"", null);
+        assertEquals("\"v2\"", cache.lookup("history:KO").orElseThrow().getEtag());
+    }
+
+    @Test
+    void evictOldestEntries(@TempDir Path dir) throws IOException {
+        // 압축이 안 되는 3KB 본문 두 개를 5KB 캐시에 넣으면 오래된 것이 지워진다.
+        var cache = new ScraperResponseCache(true, dir.toString(), DataSize.ofKilobytes(5), Duration.ofHours(1));
+        var first = cache.store("a", randomBody(3 * 1024), null, null);
+        Files.setLastModifiedTime(first.getBody(), FileTime.fromMillis(1_000));
+        cache.store("b", randomBody(3 * 1024), null, null);
+
+        assertFalse(cache.lookup("a").isPresent());
+        assertTrue(cache.lookup("b").isPresent());
+        assertTrue(cache.totalSize() <= DataSize.ofKilobytes(5).toBytes());
+
+        // 재시작해도 남은 파일로 크기 합계를 다시 계산한다.
+        var reopened = new ScraperResponseCache(true, dir.toString(), DataSize.ofKilobytes(5), Duration.ofHours(1));
+        assertEquals(cache.totalSize(), reopened.totalSize());
+    }
+
+    private static InputStream body(String html) {
+        return new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream randomBody(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    private static String read(ScraperResponseCache cache, ScraperResponseCache.Entry entry) throws IOException {
+        try (InputStream in = cache.open(entry)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.NoOnboardingJobException;
+import dev.dividendproject.exception.impl.OnboardingQueueFullException;
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.OnboardingJob;
+import dev.dividendproject.model.constants.JobStatus;
+import dev.dividendproject.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyOnboardingJobServiceTest {
+
+    private static EmbeddedRedis redis;
+
+    private final CompanyService companyService = mock(CompanyService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    // 워커 하나, 대기열 없음 : 작업 하나가 돌고 있으면 다음 작업은 거절된다.
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+
+    @BeforeAll
+    static void startRedis() {
+        redis = new EmbeddedRedis();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        when(this.companyService.save("KO")).thenAnswer(invocation -> {
+            this.release.await();
+            return new Company("KO", "Coca-Cola");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.release.countDown();
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void reuseInFlightJob() throws InterruptedException {
+        CompanyOnboardingJobService service = this.service(Duration.ofHours(1));
+        OnboardingJob first = service.submit("ko");
+
+        // 다른 인스턴스로 온 요청도 같은 작업을 돌려주고 조회할 수 있다.
+        CompanyOnboardingJobService otherNode = this.service(Duration.ofHours(1));
+        assertEquals(first.getId(), otherNode.submit(" KO ").getId());
+        assertEquals("KO", otherNode.getJob(first.getId()).getTicker());
+
+        this.release.countDown();
+        OnboardingJob finished = this.awaitFinished(otherNode, first.getId());
+        assertEquals(JobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals("Coca-Cola", finished.getCompany().getName());
+        verify(this.companyService, times(1)).save("KO");
+
+        // 끝난 작업은 재사용하지 않는다.
+        assertNotEquals(first.getId(), service.submit("KO").getId());
+    }
+
+    @Test
+    void finishedJobExpires() throws InterruptedException {
+        CompanyOnboardingJobService service = this.service(Duration.ofMillis(300));
+        this.release.countDown();
+        OnboardingJob job = service.submit("KO");
+        assertEquals(JobStatus.SUCCEEDED, this.awaitFinished(service, job.getId()).getStatus());
+
+        Thread.sleep(600);
+        assertThrows(NoOnboardingJobException.class, () -> service.getJob(job.getId()));
+    }
+
+    @Test
+    void rejectWhenQueueIsFull() {
+        CompanyOnboardingJobService service = this.service(Duration.ofHours(1));
+        service.submit("KO"); // 워커를 차지한다.
+
+        assertThrows(OnboardingQueueFullException.class, () -> service.submit("O"));
+
+        // 거절된 작업은 남지 않아서, 자리가 나면 같은 티커로 새로 등록할 수 있다.
+        when(this.companyService.save("O")).thenReturn(new Company("O", "Realty Income"));
+        this.release.countDown();
+        OnboardingJob retried = this.awaitSubmitted(service, "O");
+        assertEquals("O", retried.getTicker());
+    }
+
+    private CompanyOnboardingJobService service(Duration retention) {
+        return new CompanyOnboardingJobService(this.companyService, this.executor,
+                new OnboardingJobStore(redis.template(), retention));
+    }
+
+    private OnboardingJob awaitFinished(CompanyOnboardingJobService service, String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            OnboardingJob job = service.getJob(id);
+            if (job.isFinished()) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("job is not finished -> " + id);
+    }
+
+    // 앞 작업이 끝나서 워커가 빌 때까지 다시 요청
+    private OnboardingJob awaitSubmitted(CompanyOnboardingJobService service, String ticker) {
+        for (int i = 0; i < 100; i++) {
+            try {
+                return service.submit(ticker);
+            } catch (OnboardingQueueFullException e) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException interrupted) {
+                    throw new AssertionError(interrupted);
+                }
+            }
+        }
+        throw new AssertionError("queue is still full");
+    }
+}
@@ -0,0 +1,190 @@
+package dev.dividendproject.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.IngestResult;
+import dev.dividendproject.model.OnboardingResult;
+import dev.dividendproject.model.ScrapedResult;
+import dev.dividendproject.model.constants.OnboardingStatus;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.scraper.AsyncScraper;
+import dev.dividendproject.scraper.FetchedPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompanyOnboardingPipelineTest {
+
+    private final FakeScraper scraper = new FakeScraper();
+    private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+    private final CompanyService companyService = mock(CompanyService.class);
+    private final DividendCalendarService dividendCalendarService = mock(DividendCalendarService.class);
+
+    // 등록된 티커와 자동완성에 추가된 회사
+    private final List<String> stored = new CopyOnWriteArrayList<>();
+    private final List<Company> autocomplete = new ArrayList<>();
+
+    private CompanyOnboardingPipeline pipeline;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(this.companyRepository.existsByTicker(anyString())).thenAnswer(invocation -> "O".equals(invocation.getArgument(0)));
+        when(this.companyService.storeScrapedResult(any())).thenAnswer(invocation -> {
+            ScrapedResult scraped = invocation.getArgument(0);
+            this.stored.add(scraped.getCompany().getTicker());
+            return new IngestResult(scraped.getDividends().size(), 0);
+        });
+        doAnswer(invocation -> {
+            this.autocomplete.addAll((Collection<Company>) invocation.getArgument(0));
+            return null;
+        }).when(this.companyService).addAutocompleteCompanies(any());
+
+        // 단계마다 스레드 하나, 큐 하나라서 대부분의 작업이 큐가 빌 때까지 기다린다.
+        this.pipeline = new CompanyOnboardingPipeline(this.scraper, this.companyRepository, this.companyService,
+                this.dividendCalendarService, new ObjectMapper(), 1, 1, 1, 1);
+    }
+
+    @Test
+    void readCsv() throws IOException {
+        String csv = "ticker,name\n\"ko\",Coca-Cola\n\n MMM ,3M\n";
+
+        assertEquals(List.of("KO", "MMM"), this.pipeline.readTickers(body(csv), MediaType.parseMediaType("text/csv")));
+    }
+
+    @Test
+    void readNdjson() throws IOException {
+        String ndjson = "{\"ticker\":\"KO\"}\n\n{\"ticker\":\"MMM\",\"name\":\"3M\"}\n";
+
+        assertEquals(List.of("KO", "MMM"), this.pipeline.readTickers(body(ndjson), MediaType.APPLICATION_NDJSON));
+    }
+
+    // 대소문자와 공백만 다른 티커는 한 번만 처리하고, 한 티커의 실패가 나머지를 막지 않는다.
+    @Test
+    void onboardWithDuplicatesAndFailure() {
+        List<OnboardingResult> results = this.pipeline.onboard(
+                List.of("KO", " ko", "FAIL", "O", "MMM", "PEP", "T", "JNJ"));
+
+        Map<String, OnboardingStatus> statuses = results.stream()
+                .collect(Collectors.toMap(OnboardingResult::getTicker, OnboardingResult::getStatus));
+        assertEquals(Map.of(
+                "KO", OnboardingStatus.CREATED,
+                "FAIL", OnboardingStatus.FAILED,
+                "O", OnboardingStatus.ALREADY_EXISTS,
+                "MMM", OnboardingStatus.CREATED,
+                "PEP", OnboardingStatus.CREATED,
+                "T", OnboardingStatus.CREATED,
+                "JNJ", OnboardingStatus.CREATED), statuses);
+        assertEquals(7, results.size());
+        assertEquals("no company -> FAIL", results.get(1).getMessage());
+        assertEquals(2, results.get(0).getDividends());
+
+        assertEquals(List.of("JNJ", "KO", "MMM", "PEP", "T"), this.stored.stream().sorted().collect(Collectors.toList()));
+        assertEquals(5, this.autocomplete.size());
+        verify(this.dividendCalendarService).evictAll();
+        // 받아온 본문은 파싱 큐에 넣기 전에 모두 닫혔다.
+        assertEquals(5, this.scraper.bodies.size());
+        assertTrue(this.scraper.bodies.values().stream().allMatch(TrackedStream::isClosed));
+    }
+
+    @Test
+    void nothingCreated() {
+        List<OnboardingResult> results = this.pipeline.onboard(List.of("O", "FAIL"));
+
+        assertEquals(List.of(OnboardingStatus.ALREADY_EXISTS, OnboardingStatus.FAILED),
+                results.stream().map(OnboardingResult::getStatus).collect(Collectors.toList()));
+        verify(this.dividendCalendarService, never()).evictAll();
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 본문 한 줄이 배당금 하나 (날짜=금액)
+    private static class FakeScraper implements AsyncScraper {
+        private final Map<String, TrackedStream> bodies = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<Company> scrapCompanyByTickerAsync(String ticker) {
+            if (ticker.equals("FAIL")) {
+                return CompletableFuture.failedFuture(new RuntimeException("no company -> " + ticker));
+            }
+            return CompletableFuture.completedFuture(new Company(ticker, ticker + " Inc."));
+        }
+
+        @Override
+        public CompletableFuture<FetchedPage> fetchHistoryAsync(Company company) {
+            var body = new TrackedStream("2023-03-14=0.46\n2023-06-13=0.46\n");
+            this.bodies.put(company.getTicker(), body);
+            return CompletableFuture.completedFuture(new FetchedPage(company, "history:" + company.getTicker(), body));
+        }
+
+        @Override
+        public List<Dividend> parseHistory(FetchedPage page) {
+            try (InputStream in = page.getBody()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                        .map(line -> line.split("="))
+                        .map(row -> new Dividend(LocalDate.parse(row[0]).atStartOfDay(), new BigDecimal(row[1])))
+                        .collect(Collectors.toList());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public CompletableFuture<ScrapedResult> scrapAsync(Company company) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<ScrapedResult> scrapAsync(Company company, LocalDateTime since) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // 연결처럼 닫혔는지 확인할 수 있는 본문
+    private static class TrackedStream extends ByteArrayInputStream {
+        private volatile boolean closed;
+
+        TrackedStream(String text) {
+            super(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.closed = true;
+            super.close();
+        }
+
+        boolean isClosed() {
+            return this.closed;
+        }
+    }
+}
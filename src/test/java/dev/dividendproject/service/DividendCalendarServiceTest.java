@@ -0,0 +1,131 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.DividendCalendarPage;
+import dev.dividendproject.model.constants.CacheKey;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.persist.entity.DividendEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class DividendCalendarServiceTest {
+
+    private static final LocalDate FROM = LocalDate.parse("2020-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-31");
+
+    @Autowired
+    private CompanyRepository companyRepository;
+    @Autowired
+    private DividendRepository dividendRepository;
+
+    // 레디스 대신 쓰는 캐시
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheKey.KEY_FINANCE_CALENDAR);
+
+    private DividendCalendarService dividendCalendarService;
+    private long ko;
+    private long pep;
+    private long o;
+
+    @BeforeEach
+    void setUp() {
+        this.dividendCalendarService = new DividendCalendarService(this.dividendRepository, this.cacheManager, Duration.ofDays(30));
+        this.ko = this.company("KO", "Coca-Cola");
+        this.pep = this.company("PEP", "PepsiCo");
+        this.o = this.company("O", "Realty Income");
+
+        this.dividend(this.ko, "2020-02-28", "0.41"); // from 이전
+        this.dividend(this.ko, "2020-03-02", "0.41");
+        // 같은 날짜에 세 회사
+        this.dividend(this.ko, "2020-03-13", "0.41");
+        this.dividend(this.pep, "2020-03-13", "1.0225");
+        this.dividend(this.o, "2020-03-13", "0.2330");
+        this.dividend(this.pep, "2020-03-20", "1.0225");
+        this.dividend(this.o, "2020-04-01", "0.2330"); // to 이후
+    }
+
+    // 커서가 같은 날짜의 회사들 사이에 걸려도 빠지거나 겹치는 배당금이 없다.
+    @Test
+    void pageAcrossEqualDates() {
+        DividendCalendarPage first = this.dividendCalendarService.getCalendar(FROM, TO, 2, null);
+        assertEquals(List.of("2020-03-02 KO", "2020-03-13 KO"), rows(first));
+        assertEquals("2020-03-13:" + this.ko, first.getNextCursor());
+
+        DividendCalendarPage second = this.dividendCalendarService.getCalendar(FROM, TO, 2, first.getNextCursor());
+        assertEquals(List.of("2020-03-13 PEP", "2020-03-13 O"), rows(second));
+
+        DividendCalendarPage last = this.dividendCalendarService.getCalendar(FROM, TO, 2, second.getNextCursor());
+        assertEquals(List.of("2020-03-20 PEP"), rows(last));
+        assertNull(last.getNextCursor());
+        // 금액은 뒤의 0을 뗀다.
+        assertEquals(new BigDecimal("0.233"), second.getEvents().get(1).getDividend());
+    }
+
+    // 확정된 기간은 캐시되고, 그 기간에 배당금이 새로 저장되면 비워진다.
+    @Test
+    void evictSettledAfterInsert() {
+        DividendCalendarPage before = this.dividendCalendarService.getCalendar(FROM, TO, 10, null);
+        assertTrue(before.isSettled());
+        assertEquals(4, before.getEvents().size());
+
+        // 백필로 지난 배당금이 늦게 들어왔다.
+        this.dividend(this.o, "2020-03-16", "0.2330");
+        assertEquals(4, this.dividendCalendarService.getCalendar(FROM, TO, 10, null).getEvents().size());
+
+        // 확정되지 않은 날짜만 저장되었으면 비우지 않는다.
+        this.dividendCalendarService.evictSettled(Set.of(LocalDate.now(ZoneOffset.UTC)));
+        assertEquals(4, this.dividendCalendarService.getCalendar(FROM, TO, 10, null).getEvents().size());
+
+        this.dividendCalendarService.evictSettled(Set.of(LocalDate.parse("2020-03-16")));
+        DividendCalendarPage after = this.dividendCalendarService.getCalendar(FROM, TO, 10, null);
+        assertEquals(5, after.getEvents().size());
+        assertFalse(before.etag().equals(after.etag()));
+    }
+
+    // 확정되지 않은 기간은 캐시하지 않는다.
+    @Test
+    void unsettledIsNotCached() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertFalse(this.dividendCalendarService.getCalendar(today.minusDays(7), today, 10, null).isSettled());
+
+        this.dividend(this.ko, today.minusDays(1).toString(), "0.46");
+        DividendCalendarPage page = this.dividendCalendarService.getCalendar(today.minusDays(7), today, 10, null);
+        assertEquals(List.of(today.minusDays(1) + " KO"), rows(page));
+    }
+
+    private long company(String ticker, String name) {
+        CompanyEntity company = new CompanyEntity();
+        company.setTicker(ticker);
+        company.setName(name);
+        return this.companyRepository.save(company).getId();
+    }
+
+    private void dividend(long companyId, String date, String amount) {
+        this.dividendRepository.save(new DividendEntity(companyId,
+                new Dividend(LocalDate.parse(date).atStartOfDay(), new BigDecimal(amount))));
+    }
+
+    private static List<String> rows(DividendCalendarPage page) {
+        return page.getEvents().stream()
+                .map(event -> event.getDate() + " " + event.getTicker())
+                .collect(Collectors.toList());
+    }
+}
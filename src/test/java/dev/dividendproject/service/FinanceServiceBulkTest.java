@@ -0,0 +1,140 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.InvalidDividendQueryException;
+import dev.dividendproject.model.BulkDividendResult;
+import dev.dividendproject.model.Company;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.ScrapedResult;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.persist.entity.DividendEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FinanceServiceBulkTest {
+
+    private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+    private final DividendRepository dividendRepository = mock(DividendRepository.class);
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> financeCacheTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+
+    // 레디스 대신 쓰는 캐시 (finance::회사명 -> ScrapedResult)
+    private final Map<String, Object> cache = new HashMap<>();
+
+    private FinanceService financeService;
+
+    @BeforeEach
+    void setUp() {
+        when(this.financeCacheTemplate.opsForValue()).thenReturn(this.valueOperations);
+        when(this.valueOperations.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            return keys.stream().map(this.cache::get).collect(Collectors.toList());
+        });
+        when(this.financeCacheTemplate.getKeySerializer()).thenAnswer(invocation -> RedisSerializer.string());
+        when(this.financeCacheTemplate.getValueSerializer()).thenAnswer(invocation -> RedisSerializer.java());
+        when(this.financeCacheTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(new ArrayList<>());
+
+        this.financeService = new FinanceService(this.companyRepository, this.dividendRepository,
+                null, null, null, this.financeCacheTemplate);
+    }
+
+    @Test
+    void resolveNamesAndTickersInRequestOrder() {
+        CompanyEntity coke = company(1L, "KO", "Coca-Cola");
+        CompanyEntity pepsi = company(2L, "PEP", "PepsiCo");
+        when(this.companyRepository.findAllByNameOrTickerIn(anyCollection())).thenReturn(List.of(pepsi, coke));
+        when(this.dividendRepository.findAllByCompanyIdInOrderByCompanyIdAscDateAsc(anyCollection())).thenReturn(List.of(
+                dividend(1L, "2023-03-14", "0.46"),
+                dividend(1L, "2023-06-13", "0.46"),
+                dividend(2L, "2023-03-31", "1.15")));
+
+        BulkDividendResult result = this.financeService.getDividendsBulk(
+                Arrays.asList("Unknown", "PepsiCo", "KO", "ZZZ", "PepsiCo"));
+
+        // 결과와 못 찾은 값 모두 요청한 순서 (중복은 한 번만)
+        assertEquals(List.of("PepsiCo", "Coca-Cola"), names(result));
+        assertEquals(List.of("Unknown", "ZZZ"), result.getNotFound());
+        assertEquals(List.of(LocalDate.of(2023, 3, 14), LocalDate.of(2023, 6, 13)), dates(result.getResults().get(1)));
+        assertEquals(List.of(LocalDate.of(2023, 3, 31)), dates(result.getResults().get(0)));
+    }
+
+    @Test
+    void useCachedResultByName() {
+        this.cache.put("finance::Coca-Cola", scraped("KO", "Coca-Cola"));
+
+        BulkDividendResult result = this.financeService.getDividendsBulk(List.of("Coca-Cola"));
+
+        assertEquals(List.of("Coca-Cola"), names(result));
+        verify(this.companyRepository, never()).findAllByNameOrTickerIn(anyCollection());
+    }
+
+    @Test
+    void useCachedResultOfResolvedTicker() {
+        this.cache.put("finance::Coca-Cola", scraped("KO", "Coca-Cola"));
+        when(this.companyRepository.findAllByNameOrTickerIn(anyCollection()))
+                .thenReturn(List.of(company(1L, "KO", "Coca-Cola")));
+
+        BulkDividendResult result = this.financeService.getDividendsBulk(List.of("KO"));
+
+        assertEquals(List.of("Coca-Cola"), names(result));
+        assertEquals(List.of(), result.getNotFound());
+        verify(this.dividendRepository, never()).findAllByCompanyIdInOrderByCompanyIdAscDateAsc(anyCollection());
+    }
+
+    @Test
+    void rejectInvalidRequest() {
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividendsBulk(null));
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividendsBulk(List.of()));
+        assertThrows(InvalidDividendQueryException.class,
+                () -> this.financeService.getDividendsBulk(Arrays.asList("KO", null)));
+    }
+
+    private static List<String> names(BulkDividendResult result) {
+        return result.getResults().stream().map(r -> r.getCompany().getName()).collect(Collectors.toList());
+    }
+
+    private static List<LocalDate> dates(ScrapedResult result) {
+        return result.getDividends().stream().map(d -> d.getDate().toLocalDate()).collect(Collectors.toList());
+    }
+
+    private static ScrapedResult scraped(String ticker, String name) {
+        return new ScrapedResult(new Company(ticker, name), new ArrayList<>());
+    }
+
+    private static CompanyEntity company(Long id, String ticker, String name) {
+        CompanyEntity company = new CompanyEntity(new Company(ticker, name));
+        company.setId(id);
+        return company;
+    }
+
+    private static DividendEntity dividend(Long companyId, String date, String amount) {
+        return new DividendEntity(companyId, new Dividend(LocalDate.parse(date).atStartOfDay(), new BigDecimal(amount)));
+    }
+}
@@ -0,0 +1,85 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.AmbiguousCompanyNameException;
+import dev.dividendproject.exception.impl.NoCompanyException;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.ScrapedResult;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.persist.entity.DividendEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+class FinanceServiceByNameTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+    @Autowired
+    private DividendRepository dividendRepository;
+
+    private FinanceService financeService;
+
+    @BeforeEach
+    void setUp() {
+        this.financeService = new FinanceService(this.companyRepository, this.dividendRepository,
+                null, null, null, null);
+    }
+
+    @Test
+    void dividendsOfOneCompany() {
+        long ko = this.company("KO", "Coca-Cola");
+        this.dividend(ko, "2023-06-13", "0.460000");
+        this.dividend(ko, "2023-03-14", "0.46");
+        this.company("PEP", "PepsiCo");
+
+        ScrapedResult result = this.financeService.getDividendByCompanyName("Coca-Cola");
+
+        assertEquals("KO", result.getCompany().getTicker());
+        assertEquals(List.of("2023-03-14=0.46", "2023-06-13=0.46"), rows(result));
+        // 배당금이 없는 회사는 빈 목록
+        assertEquals(List.of(), this.financeService.getDividendByCompanyName("PepsiCo").getDividends());
+        assertThrows(NoCompanyException.class, () -> this.financeService.getDividendByCompanyName("Unknown"));
+    }
+
+    // 같은 이름의 두 종목의 배당금을 한 회사로 합치지 않는다.
+    @Test
+    void sameNameIsAmbiguous() {
+        long goog = this.company("GOOG", "Alphabet Inc.");
+        long googl = this.company("GOOGL", "Alphabet Inc.");
+        this.dividend(goog, "2024-06-10", "0.20");
+        this.dividend(googl, "2024-06-10", "0.20");
+
+        assertThrows(AmbiguousCompanyNameException.class,
+                () -> this.financeService.getDividendByCompanyName("Alphabet Inc."));
+    }
+
+    private long company(String ticker, String name) {
+        CompanyEntity company = new CompanyEntity();
+        company.setTicker(ticker);
+        company.setName(name);
+        return this.companyRepository.save(company).getId();
+    }
+
+    private void dividend(long companyId, String date, String amount) {
+        this.dividendRepository.save(new DividendEntity(companyId,
+                new Dividend(LocalDate.parse(date).atStartOfDay(), new BigDecimal(amount))));
+    }
+
+    private static List<String> rows(ScrapedResult result) {
+        return result.getDividends().stream()
+                .map(d -> d.getDate().toLocalDate() + "=" + d.getDividend().toPlainString())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+package dev.dividendproject.service;
+
+import dev.dividendproject.exception.impl.InvalidDividendQueryException;
+import dev.dividendproject.model.Dividend;
+import dev.dividendproject.model.DividendPage;
+import dev.dividendproject.persist.CompanyRepository;
+import dev.dividendproject.persist.DividendRepository;
+import dev.dividendproject.persist.entity.CompanyEntity;
+import dev.dividendproject.persist.entity.DividendEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FinanceServicePageTest {
+
+    private static final String NAME = "Coca-Cola";
+    private static final Long COMPANY_ID = 1L;
+
+    private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+    private final DividendRepository dividendRepository = mock(DividendRepository.class);
+    // 레디스 대신 쓰는 캐시
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    // 2021 ~ 2023년 분기마다 한 번씩, 12건
+    private final List<DividendEntity> stored = new ArrayList<>();
+    // 연도별 DB 조회 기록
+    private final List<Integer> loadedYears = new ArrayList<>();
+
+    private FinanceService financeService;
+
+    @BeforeEach
+    void setUp() {
+        for (int year = 2021; year <= 2023; year++) {
+            for (String monthDay : List.of("03-14", "06-13", "09-14", "12-14")) {
+                this.stored.add(new DividendEntity(COMPANY_ID, new Dividend(
+                        LocalDate.parse(year + "-" + monthDay).atStartOfDay(), new BigDecimal("0.44"))));
+            }
+        }
+
+        CompanyEntity company = new CompanyEntity();
+        company.setId(COMPANY_ID);
+        company.setTicker("KO");
+        company.setName(NAME);
+        when(this.companyRepository.findByName(NAME)).thenReturn(Optional.of(company));
+        when(this.dividendRepository.findFirstByCompanyIdOrderByDateAsc(COMPANY_ID))
+                .thenAnswer(invocation -> Optional.of(this.stored.get(0)));
+        when(this.dividendRepository.findFirstByCompanyIdOrderByDateDesc(COMPANY_ID))
+                .thenAnswer(invocation -> Optional.of(this.stored.get(this.stored.size() - 1)));
+        when(this.dividendRepository.findAllByCompanyIdAndDateBetweenOrderByDateAsc(eq(COMPANY_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDate from = invocation.getArgument(1);
+                    LocalDate to = invocation.getArgument(2);
+                    this.loadedYears.add(from.getYear());
+                    return this.stored.stream()
+                            .filter(e -> !e.getDate().isBefore(from) && !e.getDate().isAfter(to))
+                            .collect(Collectors.toList());
+                });
+
+        this.financeService = new FinanceService(this.companyRepository, this.dividendRepository,
+                null, null, this.cacheManager, null);
+    }
+
+    // 기간 밖의 배당금은 빼고, 기간에 걸친 연도만 읽는다.
+    @Test
+    void clipToRange() {
+        DividendPage page = this.financeService.getDividends(NAME,
+                LocalDate.parse("2021-06-13"), LocalDate.parse("2022-06-12"), null, null, null);
+
+        assertEquals(List.of("2021-06-13", "2021-09-14", "2021-12-14", "2022-03-14"), dates(page));
+        assertNull(page.getNextCursor());
+        assertEquals(List.of(2021, 2022), this.loadedYears);
+    }
+
+    // 페이지가 연도 중간에서 끝나도 다음 페이지가 이어서 시작하고, 딱 맞게 끝나는 마지막 페이지에는 커서가 없다.
+    @Test
+    void pageAcrossYears() {
+        DividendPage first = this.financeService.getDividends(NAME, null, null, 3, null, null);
+        assertEquals(List.of("2021-03-14", "2021-06-13", "2021-09-14"), dates(first));
+        assertEquals("2021-09-14", first.getNextCursor());
+
+        DividendPage second = this.financeService.getDividends(NAME, null, null, 3, first.getNextCursor(), null);
+        assertEquals(List.of("2021-12-14", "2022-03-14", "2022-06-13"), dates(second));
+        assertEquals("2022-06-13", second.getNextCursor());
+
+        DividendPage third = this.financeService.getDividends(NAME, null, null, 6, second.getNextCursor(), null);
+        assertEquals(List.of("2022-09-14", "2022-12-14", "2023-03-14", "2023-06-13", "2023-09-14", "2023-12-14"),
+                dates(third));
+        assertNull(third.getNextCursor());
+    }
+
+    // 최신 순으로 읽을 때는 커서 전날부터 이어가고, from에서 멈춘다.
+    @Test
+    void newestFirst() {
+        DividendPage first = this.financeService.getDividends(NAME, LocalDate.parse("2022-01-01"), null, 3, null, "desc");
+        assertEquals(List.of("2023-12-14", "2023-09-14", "2023-06-13"), dates(first));
+        assertEquals("2023-06-13", first.getNextCursor());
+
+        DividendPage second = this.financeService.getDividends(NAME, LocalDate.parse("2022-01-01"), null, 3,
+                first.getNextCursor(), "DESC");
+        assertEquals(List.of("2023-03-14", "2022-12-14", "2022-09-14"), dates(second));
+
+        DividendPage last = this.financeService.getDividends(NAME, LocalDate.parse("2022-01-01"), null, 3,
+                second.getNextCursor(), "desc");
+        assertEquals(List.of("2022-06-13", "2022-03-14"), dates(last));
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void rejectInvalidQuery() {
+        LocalDate from = LocalDate.parse("2022-01-01");
+        LocalDate to = LocalDate.parse("2021-01-01");
+
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividends(NAME, null, null, 0, null, null));
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividends(NAME, null, null, 1001, null, null));
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividends(NAME, from, to, null, null, null));
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividends(NAME, null, null, null, "2021-13-01", null));
+        assertThrows(InvalidDividendQueryException.class, () -> this.financeService.getDividends(NAME, null, null, null, null, "newest"));
+    }
+
+    // 새 배당금이 저장된 연도의 항목만 다시 읽는다.
+    @Test
+    void evictTouchedYearsOnly() {
+        this.financeService.getDividends(NAME, null, null, 100, null, null);
+        assertEquals(List.of(2021, 2022, 2023), this.loadedYears);
+
+        this.stored.add(new DividendEntity(COMPANY_ID, new Dividend(
+                LocalDate.parse("2024-03-14").atStartOfDay(), new BigDecimal("0.485"))));
+        this.financeService.evictDividends(NAME, COMPANY_ID, Set.of(2024));
+
+        DividendPage page = this.financeService.getDividends(NAME, null, null, 100, null, null);
+        assertEquals(13, page.getDividends().size());
+        assertEquals(List.of(2021, 2022, 2023, 2024), this.loadedYears);
+        // 회사 정보(마지막 연도)도 다시 읽었다.
+        verify(this.companyRepository, times(2)).findByName(NAME);
+    }
+
+    private static List<String> dates(DividendPage page) {
+        return page.getDividends().stream()
+                .map(d -> d.getDate().toLocalDate().toString())
+                .collect(Collectors.toList());
+    }
+}
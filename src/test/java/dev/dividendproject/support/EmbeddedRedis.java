@@ -0,0 +1,54 @@
+package dev.dividendproject.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+// 레디스 스크립트(리스, 작업 등록)를 실제 레디스로 확인하기 위한 테스트용 내장 서버
+// 테스트 클래스마다 빈 포트로 하나 띄우고(@BeforeAll), 테스트마다 flush()로 비운다.
+public class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    public EmbeddedRedis() {
+        int port = freePort();
+        this.server = new RedisServer(port);
+        this.server.start();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        this.connectionFactory.afterPropertiesSet();
+        this.template = new StringRedisTemplate(this.connectionFactory);
+    }
+
+    public StringRedisTemplate template() {
+        return this.template;
+    }
+
+    public void flush() {
+        this.template.execute((RedisCallback<Void>) connection -> {
+            connection.flushAll();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        this.connectionFactory.destroy();
+        this.server.stop();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.dividendproject.web;
+
+import dev.dividendproject.model.DividendCalendarPage;
+import dev.dividendproject.model.DividendEvent;
+import dev.dividendproject.service.DividendCalendarService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FinanceControllerCalendarTest {
+
+    private static final LocalDate FROM = LocalDate.parse("2020-03-01");
+    private static final LocalDate TO = LocalDate.parse("2020-03-31");
+
+    private final DividendCalendarService dividendCalendarService = mock(DividendCalendarService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new FinanceController(null, this.dividendCalendarService, null))
+            .build();
+
+    @Test
+    void settledIsCachedPublicly() throws Exception {
+        this.givenPage(true, "0.41");
+
+        this.mockMvc.perform(get("/finance/calendar").param("from", FROM.toString()).param("to", TO.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=600, public"));
+    }
+
+    @Test
+    void unsettledIsRevalidated() throws Exception {
+        this.givenPage(false, "0.41");
+
+        this.mockMvc.perform(get("/finance/calendar").param("from", FROM.toString()).param("to", TO.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    // 같은 내용이면 같은 ETag라서 304로 응답하고, 금액이 바뀌면 ETag도 바뀐다.
+    @Test
+    void etagFromContent() throws Exception {
+        String etag = "\"" + this.givenPage(true, "0.41").etag() + "\"";
+        // 0.410 과 0.41 은 같은 금액
+        assertEquals(etag, "\"" + this.givenPage(true, "0.410").etag() + "\"");
+
+        this.mockMvc.perform(get("/finance/calendar").param("from", FROM.toString()).param("to", TO.toString()))
+                .andExpect(header().string("ETag", etag));
+        this.mockMvc.perform(get("/finance/calendar").param("from", FROM.toString()).param("to", TO.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertNotEquals(etag, "\"" + this.givenPage(true, "0.44").etag() + "\"");
+        this.mockMvc.perform(get("/finance/calendar").param("from", FROM.toString()).param("to", TO.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    private DividendCalendarPage givenPage(boolean settled, String amount) {
+        DividendCalendarPage page = new DividendCalendarPage(FROM, TO, List.of(
+                new DividendEvent(LocalDate.parse("2020-03-13"), 1L, "KO", "Coca-Cola", new BigDecimal(amount))),
+                null, settled);
+        when(this.dividendCalendarService.getCalendar(eq(FROM), eq(TO), any(), any())).thenReturn(page);
+        return page;
+    }
+}